@@ -37,6 +37,8 @@
 
 package org.ow2.proactive_grid_cloud_portal.common.client.json;
 
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsonUtils;
 import com.google.gwt.json.client.JSONObject;
 import com.google.gwt.json.client.JSONParser;
 import com.google.gwt.json.client.JSONValue;
@@ -71,6 +73,27 @@ public class JSONUtils {
     }
     
     
+    /**
+     * Parse a JSON string with the browser parser.
+     * <p>
+     * The result is read through an overlay type, fields being accessed on demand
+     * instead of being copied in a hierarchy of JSONValue wrappers.
+     * 
+     * @param jsonStr a valid JSON string
+     * @return the parsed JSON, as an overlay type
+     * @throws JSONException if it fails to parse the JSON
+     */
+    public static <T extends JavaScriptObject> T parseJSONOverlay(String jsonStr) throws JSONException {
+        try {
+            return JsonUtils.<T> safeEval(jsonStr);
+        } catch (Throwable t) {
+            String message = "JSON Parser failed " + t.getClass().getName() + ": " + t.getLocalizedMessage()
+                    + "\ninput was: " + jsonStr;
+            throw new JSONException(message, t);
+        }
+    }
+
+
     /**
      * @param throwable a serialized JSON Exception
      * @return the value of the 'errorMessage' key
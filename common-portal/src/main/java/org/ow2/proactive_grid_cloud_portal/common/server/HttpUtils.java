@@ -36,34 +36,103 @@
  */
 package org.ow2.proactive_grid_cloud_portal.common.server;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 
 public final class HttpUtils {
 
+    private static final int CHAR_BUFFER_SIZE = 8 * 1024;
+
+    private static final int BYTE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Decoding buffer reused by all the conversions performed by a thread.
+     */
+    private static final ThreadLocal<char[]> CHAR_BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[CHAR_BUFFER_SIZE];
+        }
+    };
+
+    /**
+     * Transfer buffer reused by all the copies performed by a thread.
+     */
+    private static final ThreadLocal<byte[]> BYTE_BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[BYTE_BUFFER_SIZE];
+        }
+    };
+
     private HttpUtils() {
     }
 
-    public static String convertToString(InputStream inputStream, boolean keepNewLines) throws IOException {
+    /**
+     * Reads the whole stream as a String and closes it.
+     * <p>
+     * Line terminators ({@code \n}, {@code \r} or {@code \r\n}) are removed, or
+     * replaced by {@code \n} when {@code keepNewLines} is set, in which case the
+     * last line is always terminated.
+     *
+     * @param inputStream the stream to read
+     * @param keepNewLines whether line terminators are kept
+     * @param charset the charset used to decode the stream
+     * @return the content of the stream
+     * @throws IOException if the stream cannot be read
+     */
+    public static String convertToString(InputStream inputStream, boolean keepNewLines, Charset charset)
+            throws IOException {
         StringBuilder sb = new StringBuilder();
 
-        BufferedReader reader = null;
+        char[] buffer = CHAR_BUFFER.get();
+
+        Reader reader = null;
         try {
-            reader = new BufferedReader(new InputStreamReader(inputStream));
+            reader = new InputStreamReader(inputStream, charset);
+
+            boolean pendingCarriageReturn = false;
+            boolean pendingLine = false;
+
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                int start = 0;
+
+                for (int i = 0; i < read; i++) {
+                    char c = buffer[i];
+                    if (c != '\n' && c != '\r') {
+                        continue;
+                    }
+
+                    // second half of a \r\n terminator, possibly split across two reads
+                    boolean crlf = c == '\n' && i == start && pendingCarriageReturn;
+
+                    sb.append(buffer, start, i - start);
+                    if (keepNewLines && !crlf) {
+                        sb.append('\n');
+                    }
+
+                    pendingCarriageReturn = c == '\r';
+                    pendingLine = false;
+                    start = i + 1;
+                }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line);
-                if (keepNewLines) {
-                    sb.append("\n");
+                if (start < read) {
+                    sb.append(buffer, start, read - start);
+                    pendingCarriageReturn = false;
+                    pendingLine = true;
                 }
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-            throw e;
+
+            if (keepNewLines && pendingLine) {
+                sb.append('\n');
+            }
         } finally {
             if (reader != null) {
                 reader.close();
@@ -72,8 +141,57 @@ public final class HttpUtils {
         return sb.toString();
     }
 
+    public static String convertToString(InputStream inputStream, boolean keepNewLines) throws IOException {
+        return convertToString(inputStream, keepNewLines, StandardCharsets.UTF_8);
+    }
+
     public static String convertToString(InputStream inputStream) throws IOException {
         return convertToString(inputStream, false);
     }
 
+    /**
+     * Streams the raw bytes of the input stream to the output stream, without
+     * decoding them nor holding the whole content in memory.
+     * Neither stream is closed.
+     *
+     * @param inputStream the stream to read
+     * @param outputStream the stream to write to, typically a servlet response
+     * @return the number of bytes copied
+     * @throws IOException if a stream cannot be read or written
+     */
+    public static long copy(InputStream inputStream, OutputStream outputStream) throws IOException {
+        byte[] buffer = BYTE_BUFFER.get();
+
+        long count = 0;
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+            count += read;
+        }
+        return count;
+    }
+
+    /**
+     * Streams at most {@code length} raw bytes of the input stream to the output stream.
+     * Neither stream is closed.
+     *
+     * @param inputStream the stream to read
+     * @param outputStream the stream to write to, typically a servlet response
+     * @param length the maximum number of bytes to copy
+     * @return the number of bytes copied, lower than {@code length} if the input stream ended before
+     * @throws IOException if a stream cannot be read or written
+     */
+    public static long copy(InputStream inputStream, OutputStream outputStream, long length) throws IOException {
+        byte[] buffer = BYTE_BUFFER.get();
+
+        long count = 0;
+        int read;
+        while (count < length &&
+            (read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, length - count))) != -1) {
+            outputStream.write(buffer, 0, read);
+            count += read;
+        }
+        return count;
+    }
+
 }
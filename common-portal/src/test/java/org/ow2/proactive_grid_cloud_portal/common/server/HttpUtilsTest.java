@@ -0,0 +1,81 @@
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class HttpUtilsTest {
+
+    @Test
+    public void new_lines_are_removed_by_default() throws Exception {
+        assertEquals("abc", HttpUtils.convertToString(stream("a\nb\r\nc\r")));
+    }
+
+    @Test
+    public void new_lines_are_normalized_when_kept() throws Exception {
+        assertEquals("a\nb\n\nc\n", HttpUtils.convertToString(stream("a\r\nb\r\r\nc"), true));
+        assertEquals("\n\n", HttpUtils.convertToString(stream("\n\n"), true));
+        assertEquals("", HttpUtils.convertToString(stream(""), true));
+    }
+
+    @Test
+    public void crlf_split_across_reads_is_a_single_new_line() throws Exception {
+        char[] content = new char[8 * 1024 + 1];
+        Arrays.fill(content, 'x');
+        content[8 * 1024 - 1] = '\r';
+        content[8 * 1024] = '\n';
+
+        String converted = HttpUtils.convertToString(stream(new String(content)), true);
+
+        assertEquals(8 * 1024, converted.length());
+        assertEquals('\n', converted.charAt(8 * 1024 - 1));
+    }
+
+    @Test
+    public void multi_byte_characters_are_decoded_as_utf8() throws Exception {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            expected.append("é€");
+        }
+
+        assertEquals(expected.toString(), HttpUtils.convertToString(stream(expected.toString())));
+    }
+
+    @Test
+    public void bytes_are_copied_unchanged() throws Exception {
+        byte[] content = new byte[200 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long copied = HttpUtils.copy(new ByteArrayInputStream(content), out);
+
+        assertEquals(content.length, copied);
+        assertArrayEquals(content, out.toByteArray());
+    }
+
+    @Test
+    public void copy_stops_after_the_requested_length() throws Exception {
+        byte[] content = new byte[200 * 1024];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long copied = HttpUtils.copy(new ByteArrayInputStream(content), out, 100 * 1024 + 1);
+
+        assertEquals(100 * 1024 + 1, copied);
+        assertEquals(100 * 1024 + 1, out.size());
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,401 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host;
+import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host.Node;
+
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.canvas.client.Canvas;
+import com.google.gwt.canvas.dom.client.Context2d;
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.event.dom.client.ContextMenuEvent;
+import com.google.gwt.event.dom.client.ContextMenuHandler;
+import com.google.gwt.event.dom.client.MouseMoveEvent;
+import com.google.gwt.event.dom.client.MouseMoveHandler;
+import com.google.gwt.event.dom.client.MouseOutEvent;
+import com.google.gwt.event.dom.client.MouseOutHandler;
+import com.google.gwt.user.client.ui.AbsolutePanel;
+import com.google.gwt.user.client.ui.Widget;
+import com.smartgwt.client.widgets.Label;
+import com.smartgwt.client.widgets.layout.Layout;
+import com.smartgwt.client.widgets.menu.Menu;
+
+
+/**
+ * Draws the tiles of the {@link CompactView} as colored squares on a single canvas,
+ * so that refreshing or scrolling does not depend on the number of nodes
+ * <p>
+ * Tiles are laid out in the same order as the widgets of the compact view:
+ * each nodesource, its deploying nodes, then each host followed by its nodes.
+ * Only the rows in the viewport are drawn, the canvas following the scroll position.
+ */
+class CompactHeatMap {
+
+    /** width and height of a tile, including its margin */
+    private static final int TILE_SIZE = 20;
+    /** width and height of the square drawn in a tile */
+    private static final int SQUARE_SIZE = 16;
+
+    private static final String NODESOURCE_COLOR = "#2a4d7f";
+    private static final String HOST_COLOR = "#666666";
+    private static final String VIRTUAL_HOST_COLOR = "#aaaaaa";
+    private static final String SELECTED_COLOR = "#7caaf7";
+    private static final String HIGHLIGHT_COLOR = "#d9e4f6";
+
+    private final RMController controller;
+
+    /** scrolled container of the heat map */
+    private final Layout root;
+    /** sized to the whole grid so that the container scrolls */
+    private final AbsolutePanel panel;
+    /** sized to the viewport */
+    private final Canvas canvas;
+    private final Context2d context;
+
+    /** tiles in display order: NodeSource, Host or Node */
+    private List<Object> tiles = new ArrayList<Object>();
+    /** for each tile, index of the first tile after the nodesource or host it starts */
+    private int[] groupEnds = new int[0];
+    /** index of each tile by nodesource name, host id or node url */
+    private Map<String, Integer> indexes = new HashMap<String, Integer>();
+
+    private int columns = 1;
+    /** nodesource name, host id or node url of the selected tile, or null */
+    private String selected = null;
+    /** index of the tile under the mouse, or -1 */
+    private int hovered = -1;
+    private boolean redrawScheduled = false;
+
+    private final Layout hover;
+    private final Label hoverLabel;
+
+    /**
+     * @return false if the browser cannot draw on a canvas
+     */
+    static boolean isSupported() {
+        return Canvas.isSupported();
+    }
+
+    CompactHeatMap(RMController controller, Layout root) {
+        this.controller = controller;
+        this.root = root;
+        this.panel = new AbsolutePanel();
+        this.canvas = Canvas.createIfSupported();
+        this.context = canvas.getContext2d();
+        this.panel.add(canvas, 0, 0);
+
+        this.hover = new Layout();
+        this.hover.setBackgroundColor("white");
+        this.hover.setBorder("1px solid gray");
+        this.hover.setWidth(150);
+        this.hover.setHeight(60);
+        this.hover.setPadding(5);
+        this.hoverLabel = new Label();
+        this.hover.addMember(this.hoverLabel);
+
+        this.canvas.addMouseMoveHandler(new MouseMoveHandler() {
+            @Override
+            public void onMouseMove(MouseMoveEvent event) {
+                int index = tileAt(event.getRelativeX(canvas.getElement()), event.getRelativeY(canvas.getElement()));
+                if (index == hovered) {
+                    return;
+                }
+                hovered = index;
+                if (index < 0) {
+                    hover.hide();
+                } else {
+                    hoverLabel.setContents(describe(tiles.get(index)));
+                    hover.moveTo(event.getClientX() - 155, event.getClientY() - 65);
+                    hover.show();
+                }
+            }
+        });
+        this.canvas.addMouseOutHandler(new MouseOutHandler() {
+            @Override
+            public void onMouseOut(MouseOutEvent event) {
+                hovered = -1;
+                hover.hide();
+            }
+        });
+        this.canvas.addClickHandler(new ClickHandler() {
+            @Override
+            public void onClick(ClickEvent event) {
+                select(tileAt(event.getRelativeX(canvas.getElement()), event.getRelativeY(canvas.getElement())));
+            }
+        });
+        this.canvas.addDomHandler(new ContextMenuHandler() {
+            @Override
+            public void onContextMenu(ContextMenuEvent event) {
+                event.preventDefault();
+                event.stopPropagation();
+
+                int x = event.getNativeEvent().getClientX() - canvas.getAbsoluteLeft();
+                int y = event.getNativeEvent().getClientY() - canvas.getAbsoluteTop();
+                if (select(tileAt(x, y))) {
+                    Menu menu = CompactView.createNodesMenu(CompactHeatMap.this.controller);
+                    menu.moveTo(event.getNativeEvent().getClientX(), event.getNativeEvent().getClientY());
+                    menu.show();
+                }
+            }
+        }, ContextMenuEvent.getType());
+    }
+
+    Widget getWidget() {
+        return this.panel;
+    }
+
+    /**
+     * Lays out the tiles of the given nodes and draws the visible ones
+     */
+    void setNodes(Map<String, NodeSource> nodes) {
+        List<Object> tiles = new ArrayList<Object>();
+        List<Integer> groupStarts = new ArrayList<Integer>();
+        Map<String, Integer> indexes = new HashMap<String, Integer>();
+
+        for (NodeSource ns : nodes.values()) {
+            int nsIndex = add(tiles, indexes, ns.getSourceName(), ns);
+            for (Node n : ns.getDeploying().values()) {
+                add(tiles, indexes, n.getNodeUrl(), n);
+            }
+            for (Host h : ns.getHosts().values()) {
+                if (h.getNodes().isEmpty()) {
+                    continue;
+                }
+                int hostIndex = add(tiles, indexes, h.getId(), h);
+                for (Node n : h.getNodes().values()) {
+                    add(tiles, indexes, n.getNodeUrl(), n);
+                }
+                groupStarts.add(hostIndex);
+            }
+            groupStarts.add(nsIndex);
+        }
+
+        // a group ends where the next tile of the same kind or a nodesource starts
+        int[] groupEnds = new int[tiles.size()];
+        for (int i = 0; i < groupEnds.length; i++) {
+            groupEnds[i] = i + 1;
+        }
+        int nsEnd = tiles.size();
+        int hostEnd = tiles.size();
+        for (int i = tiles.size() - 1; i >= 0; i--) {
+            Object tile = tiles.get(i);
+            if (tile instanceof NodeSource) {
+                groupEnds[i] = nsEnd;
+                nsEnd = i;
+                hostEnd = i;
+            } else if (tile instanceof Host) {
+                groupEnds[i] = hostEnd;
+                hostEnd = i;
+            }
+        }
+
+        this.tiles = tiles;
+        this.groupEnds = groupEnds;
+        this.indexes = indexes;
+        this.hovered = -1;
+
+        layout();
+    }
+
+    private static int add(List<Object> tiles, Map<String, Integer> indexes, String key, Object tile) {
+        indexes.put(key, tiles.size());
+        tiles.add(tile);
+        return tiles.size() - 1;
+    }
+
+    /**
+     * Adapts the grid to the size of the viewport
+     */
+    void layout() {
+        int width = Math.max(root.getViewportWidth(), TILE_SIZE);
+        int height = Math.max(root.getViewportHeight(), TILE_SIZE);
+        this.columns = width / TILE_SIZE;
+        int rows = (tiles.size() + columns - 1) / columns;
+
+        this.panel.setPixelSize(columns * TILE_SIZE, Math.max(rows * TILE_SIZE, height));
+        if (canvas.getCoordinateSpaceWidth() != columns * TILE_SIZE ||
+            canvas.getCoordinateSpaceHeight() != height) {
+            canvas.setCoordinateSpaceWidth(columns * TILE_SIZE);
+            canvas.setCoordinateSpaceHeight(height);
+            canvas.setPixelSize(columns * TILE_SIZE, height);
+        }
+        scheduleRedraw();
+    }
+
+    /**
+     * Draws the tiles at the new scroll position, once per animation frame
+     */
+    void scheduleRedraw() {
+        if (redrawScheduled) {
+            return;
+        }
+        redrawScheduled = true;
+        AnimationScheduler.get().requestAnimationFrame(new AnimationScheduler.AnimationCallback() {
+            @Override
+            public void execute(double timestamp) {
+                redrawScheduled = false;
+                redraw();
+            }
+        });
+    }
+
+    /**
+     * @param key nodesource name, host id or node url of the selected tile, or null
+     */
+    void setSelected(String key) {
+        this.selected = key;
+        Integer index = key == null ? null : indexes.get(key);
+        if (index != null) {
+            // only scroll if the tile is out of view
+            int y = (index / columns) * TILE_SIZE;
+            int top = root.getScrollTop();
+            if (y < top || y + TILE_SIZE > top + root.getViewportHeight()) {
+                root.scrollTo(0, y);
+            }
+        }
+        scheduleRedraw();
+    }
+
+    /**
+     * Destroys the hover, which is not a member of the heat map
+     */
+    void destroy() {
+        this.hover.destroy();
+    }
+
+    private void redraw() {
+        int top = root.getScrollTop();
+        int width = canvas.getCoordinateSpaceWidth();
+        int height = canvas.getCoordinateSpaceHeight();
+        int maxTop = Math.max(0, panel.getOffsetHeight() - height);
+        panel.setWidgetPosition(canvas, 0, Math.min(top, maxTop));
+        top = Math.min(top, maxTop);
+
+        context.clearRect(0, 0, width, height);
+
+        Integer selectedIndex = selected == null ? null : indexes.get(selected);
+        int selectionStart = selectedIndex == null ? -1 : selectedIndex;
+        int selectionEnd = selectedIndex == null ? -1 : groupEnds[selectedIndex];
+
+        int first = (top / TILE_SIZE) * columns;
+        int last = Math.min(tiles.size(), ((top + height) / TILE_SIZE + 1) * columns);
+        RMModel model = controller.getModel();
+        for (int i = first; i < last; i++) {
+            int x = (i % columns) * TILE_SIZE;
+            int y = (i / columns) * TILE_SIZE - top;
+            Object tile = tiles.get(i);
+
+            if (i == selectionStart) {
+                context.setFillStyle(SELECTED_COLOR);
+                context.fillRect(x, y, TILE_SIZE, TILE_SIZE);
+            } else if (i > selectionStart && i < selectionEnd) {
+                context.setFillStyle(HIGHLIGHT_COLOR);
+                context.fillRect(x, y, TILE_SIZE, TILE_SIZE);
+            }
+
+            int margin = (TILE_SIZE - SQUARE_SIZE) / 2;
+            context.setFillStyle(colorOf(tile));
+            context.fillRect(x + margin, y + margin, SQUARE_SIZE, SQUARE_SIZE);
+
+            // in summary mode, fetch the hosts of the nodesources scrolled into view
+            if (tile instanceof NodeSource && !model.isNodeSourceLoaded(((NodeSource) tile).getSourceName())) {
+                controller.loadNodeSource(((NodeSource) tile).getSourceName());
+            }
+        }
+    }
+
+    private static String colorOf(Object tile) {
+        if (tile instanceof Node) {
+            return ((Node) tile).getNodeState().getColor();
+        } else if (tile instanceof Host) {
+            return ((Host) tile).isVirtual() ? VIRTUAL_HOST_COLOR : HOST_COLOR;
+        } else {
+            return NODESOURCE_COLOR;
+        }
+    }
+
+    private String describe(Object tile) {
+        if (tile instanceof Node) {
+            return CompactView.describeNode((Node) tile);
+        } else if (tile instanceof Host) {
+            return CompactView.describeHost((Host) tile);
+        } else {
+            return CompactView.describeNodeSource((NodeSource) tile, controller.getModel());
+        }
+    }
+
+    /**
+     * @param x abscissa relative to the canvas
+     * @param y ordinate relative to the canvas
+     * @return index of the tile at the given position, or -1
+     */
+    private int tileAt(int x, int y) {
+        int column = x / TILE_SIZE;
+        int row = (y + canvas.getAbsoluteTop() - panel.getAbsoluteTop()) / TILE_SIZE;
+        if (x < 0 || y < 0 || column >= columns) {
+            return -1;
+        }
+        int index = row * columns + column;
+        return index < tiles.size() ? index : -1;
+    }
+
+    /**
+     * @return true if a tile was selected
+     */
+    private boolean select(int index) {
+        if (index < 0) {
+            return false;
+        }
+        Object tile = tiles.get(index);
+        if (tile instanceof Node) {
+            controller.selectNode((Node) tile);
+        } else if (tile instanceof Host) {
+            controller.selectHost((Host) tile);
+        } else {
+            controller.selectNodeSource((NodeSource) tile);
+        }
+        return true;
+    }
+
+}
@@ -36,9 +36,12 @@
  */
 package org.ow2.proactive_grid_cloud_portal.rm.client;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -48,8 +51,10 @@ import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host;
 import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host.Node;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMListeners.NodeSelectedListener;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMListeners.NodesListener;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.RMConfig;
 
 import com.google.gwt.dom.client.Style.BorderStyle;
+import com.google.gwt.dom.client.Style.Display;
 import com.google.gwt.dom.client.Style.Unit;
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
@@ -63,11 +68,14 @@ import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.Event;
 import com.google.gwt.user.client.ui.FlowPanel;
 import com.google.gwt.user.client.ui.Image;
+import com.google.gwt.user.client.ui.Widget;
 import com.smartgwt.client.types.Overflow;
 import com.smartgwt.client.widgets.Canvas;
 import com.smartgwt.client.widgets.Label;
 import com.smartgwt.client.widgets.events.ResizedEvent;
 import com.smartgwt.client.widgets.events.ResizedHandler;
+import com.smartgwt.client.widgets.events.ScrolledEvent;
+import com.smartgwt.client.widgets.events.ScrolledHandler;
 import com.smartgwt.client.widgets.layout.HLayout;
 import com.smartgwt.client.widgets.layout.Layout;
 import com.smartgwt.client.widgets.menu.Menu;
@@ -91,15 +99,18 @@ public class CompactView implements NodesListener, NodeSelectedListener {
 
     /* displays nodes as a compact grid */
     private FlowPanel flow;
+    /* draws the same grid on a canvas when there are too many nodes for one widget per node */
+    private CompactHeatMap heatMap = null;
     boolean _borderSwitch;
     boolean _doNotScroll;
     private static Layout globalHover = null;
 
-    /* unique names of the nodesources/hosts/nodes currently held by the FlowLayout 
-     * helps figuring out the position of each element since FlowLayout doesnt allow it */
-    private LinkedList<String> curTiles = null;
-    /* nodes as they were last time #nodesUpdated was called */
-    private Map<String, NodeSource> oldNodes = null;
+    /* tiles currently held by the FlowLayout, indexed by unique name:
+     * nodesource name, host id or node url */
+    private Map<String, NodeTile> tiles = null;
+    /* tiles of each nodesource grouped in nested panels, indexed by nodesource name,
+     * so that a refresh only touches the panels of the nodes that changed */
+    private Map<String, NodeSourceTiles> nodeSourceTiles = null;
     /* currently selected tile */
     private NodeTile curSelTile = null;
     /*
@@ -112,7 +123,6 @@ public class CompactView implements NodesListener, NodeSelectedListener {
         this.controller = controller;
         controller.getEventDispatcher().addNodesListener(this);
         controller.getEventDispatcher().addNodeSelectedListener(this);
-        this.oldNodes = new HashMap<String, NodeSource>();
     }
 
     Canvas build() {
@@ -120,6 +130,37 @@ public class CompactView implements NodesListener, NodeSelectedListener {
         root.setWidth100();
         root.setHeight100();
         root.setOverflow(Overflow.AUTO);
+        root.addScrolledHandler(new ScrolledHandler() {
+            @Override
+            public void onScrolled(ScrolledEvent event) {
+                if (heatMap != null) {
+                    heatMap.scheduleRedraw();
+                } else {
+                    loadVisibleNodeSources();
+                }
+            }
+        });
+        root.addResizedHandler(new ResizedHandler() {
+            @Override
+            public void onResized(ResizedEvent event) {
+                if (heatMap != null) {
+                    heatMap.layout();
+                    return;
+                }
+                if (flow == null) {
+                    return;
+                }
+                int w = root.getWidth();
+                int h = root.getHeight();
+                flow.setPixelSize(w - root.getScrollbarSize(), h - root.getScrollbarSize());
+
+                // lazy hack to force this.flow to -really- relayout
+                root.setBorder(_borderSwitch ? "1px solid white" : "0px");
+                _borderSwitch = !_borderSwitch;
+
+                loadVisibleNodeSources();
+            }
+        });
         return root;
     }
 
@@ -134,6 +175,9 @@ public class CompactView implements NodesListener, NodeSelectedListener {
 
     @Override
     public void nodeUnselected() {
+        if (this.heatMap != null) {
+            this.heatMap.setSelected(null);
+        }
         if (this.curSelTile != null) {
             this.curSelTile.setSelectedTile(false);
             this.curSelTile = null;
@@ -151,12 +195,17 @@ public class CompactView implements NodesListener, NodeSelectedListener {
     }
 
     private void changeSelection(String name) {
-        int id = this.curTiles.indexOf(name);
-        
-        if (id < 0)
+        if (this.heatMap != null) {
+            this.heatMap.setSelected(name);
+            return;
+        }
+        if (this.tiles == null)
+            return;
+
+        NodeTile nt = this.tiles.get(name);
+
+        if (nt == null)
             return;
-		
-        NodeTile nt = (NodeTile) this.flow.getWidget(id);
 
         if (this.curSelTile != null) {
             this.curSelTile.setSelectedTile(false);
@@ -166,11 +215,8 @@ public class CompactView implements NodesListener, NodeSelectedListener {
 
         // attempt to scroll at the right position
         if (!_doNotScroll) {
-            int numPerLine = flow.getElement().getClientWidth() / 20;
-            if (numPerLine > 0) {
-                int height = 20 * (id / numPerLine);
-                this.root.scrollTo(0, height);
-            }
+            int height = nt.getAbsoluteTop() - flow.getAbsoluteTop();
+            this.root.scrollTo(0, height);
         }
         _doNotScroll = false;
     }
@@ -248,182 +294,381 @@ public class CompactView implements NodesListener, NodeSelectedListener {
             nodes = filterMyNodes(nodes);
         }
 
+        if (useHeatMap(nodes)) {
+            if (this.heatMap == null) {
+                clear();
+                this.heatMap = new CompactHeatMap(controller, root);
+                this.root.addMember(this.heatMap.getWidget());
+            }
+            this.heatMap.setNodes(nodes);
+            return;
+        } else if (this.heatMap != null) {
+            clear();
+        }
+
         /* first call : create the components */
         if (this.flow == null) {
             this.flow = new FlowPanel();
             this.flow.setWidth("100%");
             // removes the vertical space between lines
             this.flow.getElement().getStyle().setProperty("lineHeight", "0");
-            this.curTiles = new LinkedList<String>();
+            this.tiles = new HashMap<String, NodeTile>();
+            this.nodeSourceTiles = new HashMap<String, NodeSourceTiles>();
 
-            // add every tile at once, else it will attempt to render the page
-            // each time we add a new tile
+            // add every tile before attaching the flow, else it will attempt
+            // to render the page each time we add a new tile
             for (NodeSource ns : nodes.values()) {
-                flow.add(new NodeTile(ns));
-                curTiles.add(ns.getSourceName());
-                for (Node n : ns.getDeploying().values()) {
-                    flow.add(new NodeTile(n));
-                    curTiles.add(n.getNodeUrl());
-                }
-                for (Host hh : ns.getHosts().values()) {
-                    flow.add(new NodeTile(hh));
-                    curTiles.add(hh.getId());
-                    for (Node n : hh.getNodes().values()) {
-                        flow.add(new NodeTile(n));
-                        curTiles.add(n.getNodeUrl());
-                    }
-                }
+                flow.add(createNodeSourceTiles(ns).panel);
             }
             this.root.addMember(this.flow);
-            this.root.addResizedHandler(new ResizedHandler() {
-                @Override
-                public void onResized(ResizedEvent event) {
-                    int w = root.getWidth();
-                    int h = root.getHeight();
-                    flow.setPixelSize(w - root.getScrollbarSize(), h - root.getScrollbarSize());
-
-                    // lazy hack to force this.flow to -really- relayout
-                    root.setBorder(_borderSwitch ? "1px solid white" : "0px");
-                    _borderSwitch = !_borderSwitch;
-                }
-            });
         } else {
-            /* for each new nodesource */
-            for (NodeSource ns : nodes.values()) {
-                String nsName = ns.getSourceName();
-
-                NodeSource oldNs = (oldNodes != null) ? oldNodes.get(nsName) : null;
-                /* new nodesource : adding at the end */
-                if (oldNs == null) {
-                    // WARN at first I was inserting new NS at the head
-                    // but it was added at the end without any warning!
-                    NodeTile nsTile = new NodeTile(ns);
-                    int i = curTiles.size();
-                    flow.insert(nsTile, i);
-                    this.curTiles.add(i, nsName);
-                }
+            updateTiles(nodes);
+        }
+        loadVisibleNodeSources();
+    }
 
-                /* deploying nodes : not in a host yet */
-                for (Node n : ns.getDeploying().values()) {
-                    String nodeUrl = n.getNodeUrl();
-
-                    Node oldNode = (oldNs != null) ? oldNs.getDeploying().get(nodeUrl) : null;
-                    /* new deploying node */
-                    if (oldNode == null) {
-                        NodeTile nodeTile = new NodeTile(n);
-                        int i = curTiles.indexOf(nsName) + 1;
-                        flow.insert(nodeTile, i);
-                        this.curTiles.add(i, nodeUrl);
-                    } else {
-                        if (!oldNode.getNodeState().equals(n.getNodeState())) {
-                            int i = this.curTiles.indexOf(nodeUrl);
-                            NodeTile nt = ((NodeTile) this.flow.getWidget(i));
-                            nt.refresh(n);
-                        }
+    /**
+     * @return true if the nodes are to be drawn on a canvas, depending on the compact view mode
+     *         and, in automatic mode, on the number of tiles
+     */
+    private boolean useHeatMap(Map<String, NodeSource> nodes) {
+        String mode = RMConfig.get().getCompactViewMode();
+        if (RMConfig.COMPACT_VIEW_TILES.equals(mode) || !CompactHeatMap.isSupported()) {
+            return false;
+        } else if (RMConfig.COMPACT_VIEW_HEATMAP.equals(mode)) {
+            return true;
+        }
+
+        int numTiles = 0;
+        for (NodeSource ns : nodes.values()) {
+            numTiles += 1 + ns.getDeploying().size();
+            for (Host h : ns.getHosts().values()) {
+                numTiles += 1 + h.getNodes().size();
+            }
+        }
+        return numTiles > RMConfig.get().getCompactHeatMapThreshold();
+    }
+
+    /* drops the tiles or the heat map before switching from one to the other */
+    private void clear() {
+        this.root.removeMembers(this.root.getMembers());
+        this.flow = null;
+        this.tiles = null;
+        this.nodeSourceTiles = null;
+        this.curSelTile = null;
+        if (this.heatMap != null) {
+            this.heatMap.destroy();
+            this.heatMap = null;
+        }
+    }
+
+    /**
+     * @return the menu of the actions on the selected nodes, shared by the tiles and the heat map
+     */
+    static Menu createNodesMenu(final RMController controller) {
+        Menu menu = new Menu();
+        menu.setShowShadow(true);
+        menu.setShadowDepth(10);
+
+        MenuItem removeItem = new MenuItem("Remove", RMImages.instance.node_remove_16()
+                .getSafeUri().asString());
+        removeItem.addClickHandler(new com.smartgwt.client.widgets.menu.events.ClickHandler() {
+            @Override
+            public void onClick(MenuItemClickEvent event) {
+                controller.removeNodes();
+            }
+        });
+
+        MenuItem lockItem = new MenuItem("Lock", RMImages.instance.node_locked_16().getSafeUri()
+                .asString());
+        lockItem.addClickHandler(new com.smartgwt.client.widgets.menu.events.ClickHandler() {
+            @Override
+            public void onClick(MenuItemClickEvent event) {
+                controller.lockNodes();
+            }
+        });
+
+        MenuItem unlockItem = new MenuItem("Unlock", RMImages.instance.node_free_16()
+                .getSafeUri().asString());
+        unlockItem.addClickHandler(new com.smartgwt.client.widgets.menu.events.ClickHandler() {
+            @Override
+            public void onClick(MenuItemClickEvent event) {
+                controller.unlockNodes();
+            }
+        });
+
+        menu.setItems(lockItem, unlockItem, removeItem);
+        return menu;
+    }
+
+    /* hover contents of a tile */
+
+    static String describeNode(Node node) {
+        String str = "Provider: " + node.getNodeProvider() + "<br>";
+        if (node.getNodeOwner().trim().length() > 0) {
+            str += "Used by: " + node.getNodeOwner() + "<br>";
+        }
+        str += node.getNodeState().toString() + " since " + JSUtil.getTime(node.getTimeStamp());
+        return str;
+    }
+
+    static String describeHost(Host host) {
+        return "<strong>Host</strong><br>" + host.getHostName();
+    }
+
+    static String describeNodeSource(NodeSource ns, RMModel model) {
+        String nsName = ns.getSourceName();
+        return "<strong>NodeSource</strong><br>" + nsName +
+            (model.isNodeSourceLoaded(nsName) ? "" : "<br>" +
+                NodeState.formatCounts(model.getNodeSourceStates(nsName)));
+    }
+
+    /**
+     * In summary mode, fetches the hosts of the nodesources whose tile is scrolled into view.
+     * Loaded nodesources stay loaded when scrolled out of view, else the tiles would move
+     * each time the nodesources above them are loaded or dropped
+     */
+    private void loadVisibleNodeSources() {
+        RMModel model = controller.getModel();
+        if (!model.isSummary() || this.nodeSourceTiles == null) {
+            return;
+        }
+
+        int top = root.getPageTop();
+        int bottom = top + root.getViewportHeight();
+        for (NodeSourceTiles nsTiles : this.nodeSourceTiles.values()) {
+            String nsName = nsTiles.tile.nodesource.getSourceName();
+            int tileTop = nsTiles.tile.getAbsoluteTop();
+            if (!model.isNodeSourceLoaded(nsName) && tileTop < bottom &&
+                tileTop + nsTiles.tile.getOffsetHeight() > top) {
+                controller.loadNodeSource(nsName);
+            }
+        }
+    }
+
+    /**
+     * Compares the nodes with the tiles currently displayed using the tile indexes,
+     * then applies all the resulting DOM mutations at once:
+     * new nodesources and hosts are built in detached panels and attached in one go
+     */
+    private void updateTiles(Map<String, NodeSource> nodes) {
+        List<Widget> removed = new ArrayList<Widget>();
+        Map<FlowPanel, List<Widget>> added = new LinkedHashMap<FlowPanel, List<Widget>>();
+        Map<String, Node> changed = new LinkedHashMap<String, Node>();
+
+        for (NodeSource ns : nodes.values()) {
+            NodeSourceTiles nsTiles = this.nodeSourceTiles.get(ns.getSourceName());
+            /* new nodesource : adding at the end */
+            if (nsTiles == null) {
+                addWidget(added, this.flow, createNodeSourceTiles(ns).panel);
+                continue;
+            }
+
+            /* deploying nodes : not in a host yet */
+            for (Node n : ns.getDeploying().values()) {
+                diffNode(n, nsTiles.deploying, nsTiles.deployingPanel, added, changed);
+            }
+
+            /* hosts */
+            for (Host h : ns.getHosts().values()) {
+                HostTiles hostTiles = nsTiles.hosts.get(h.getHostName());
+                /* new host */
+                if (hostTiles == null) {
+                    if (!h.getNodes().isEmpty()) {
+                        addWidget(added, nsTiles.panel, createHostTiles(nsTiles, h).panel);
                     }
+                    continue;
                 }
+                /* nodes */
+                for (Node n : h.getNodes().values()) {
+                    diffNode(n, hostTiles.nodes, hostTiles.panel, added, changed);
+                }
+            }
+        }
 
-                /* hosts */
-                for (Host h : ns.getHosts().values()) {
-                    String hostName = h.getHostName();
-
-                    Host oldHost = (oldNs != null) ? oldNs.getHosts().get(hostName) : null;
-                    /* new host */
-                    if (oldHost == null) {
-                        NodeTile hostTile = new NodeTile(h);
-                        int i = curTiles.indexOf(nsName) + 1 + ns.getDeploying().size();
-                        flow.insert(hostTile, i);
-                        this.curTiles.add(i, h.getId());
-                    }
-                    /* nodes */
-                    for (Node n : h.getNodes().values()) {
-                        String nodeUrl = n.getNodeUrl();
-
-                        Node oldNode = (oldHost != null) ? oldHost.getNodes().get(nodeUrl) : null;
-                        /* new node */
-                        if (oldNode == null) {
-                            NodeTile nodeTile = new NodeTile(n);
-                            int i = curTiles.indexOf(h.getId()) + 1;
-                            flow.insert(nodeTile, i);
-                            this.curTiles.add(i, nodeUrl);
-                        }
-                        /* update old node status */
-                        else {
-                            if (!oldNode.getNodeState().equals(n.getNodeState())) {
-                                int i = this.curTiles.indexOf(nodeUrl);
-                                NodeTile nt = ((NodeTile) this.flow.getWidget(i));
-                                nt.refresh(n);
-                            }
-                        }
-                    }
+        /* now remove the tiles that do not match any node anymore */
+        Iterator<NodeSourceTiles> nsIt = this.nodeSourceTiles.values().iterator();
+        while (nsIt.hasNext()) {
+            NodeSourceTiles nsTiles = nsIt.next();
+            NodeSource ns = nodes.get(nsTiles.tile.nodesource.getSourceName());
+            /* remove NS */
+            if (ns == null) {
+                removed.add(nsTiles.panel);
+                unindex(nsTiles);
+                nsIt.remove();
+                continue;
+            }
+
+            removeMissingNodes(nsTiles.deploying, ns.getDeploying(), removed);
+
+            Iterator<HostTiles> hostIt = nsTiles.hosts.values().iterator();
+            while (hostIt.hasNext()) {
+                HostTiles hostTiles = hostIt.next();
+                Host h = ns.getHosts().get(hostTiles.tile.host.getHostName());
+                /* Host to be removed */
+                if (h == null || h.getNodes().isEmpty()) {
+                    removed.add(hostTiles.panel);
+                    unindex(hostTiles);
+                    hostIt.remove();
+                } else {
+                    removeMissingNodes(hostTiles.nodes, h.getNodes(), removed);
                 }
             }
+        }
 
-            /* now remove the difference between the nodes from this method call,
-             * and the ones from the previous call */
-            for (Entry<String, NodeSource> oldNs : this.oldNodes.entrySet()) {
-                /* Keep NS */
-                NodeSource newNs = nodes.get(oldNs.getKey());
-                if (newNs != null) {
-                    for (Entry<String, Node> oldDepl : oldNs.getValue().getDeploying().entrySet()) {
-                        /* Keep deploying Node */
-                        if (newNs.getDeploying().containsKey(oldDepl.getKey())) {
+        /* apply every DOM mutation of this refresh in a single pass */
+        for (Widget w : removed) {
+            w.removeFromParent();
+        }
+        for (Entry<FlowPanel, List<Widget>> entry : added.entrySet()) {
+            for (Widget w : entry.getValue()) {
+                entry.getKey().add(w);
+            }
+        }
+        for (Entry<String, Node> entry : changed.entrySet()) {
+            this.tiles.get(entry.getKey()).refresh(entry.getValue());
+        }
+    }
 
-                        }
-                        /* Deploying Node to be removed */
-                        else if (curTiles.contains(oldDepl.getKey())) {
-                            removeTile(oldDepl.getKey());
-                        }
-                    }
+    private void diffNode(Node n, Map<String, NodeTile> nodeTiles, FlowPanel panel,
+            Map<FlowPanel, List<Widget>> added, Map<String, Node> changed) {
+        NodeTile nodeTile = nodeTiles.get(n.getNodeUrl());
+        /* new node */
+        if (nodeTile == null) {
+            addWidget(added, panel, createNodeTile(n, nodeTiles));
+        }
+        /* update old node status */
+        else if (!nodeTile.node.getNodeState().equals(n.getNodeState())) {
+            changed.put(n.getNodeUrl(), n);
+        }
+    }
 
-                    for (Entry<String, Host> oldHost : oldNs.getValue().getHosts().entrySet()) {
-                        /* Keep host */
-                        Host newHost = newNs.getHosts().get(oldHost.getKey());
-                        if (newHost != null && newHost.getNodes().size() > 0) {
-                            for (Entry<String, Node> oldNode : oldHost.getValue().getNodes().entrySet()) {
-                                /* Keep node */
-                                if (newHost.getNodes().containsKey(oldNode.getKey())) {
-                                }
-                                /* Node to be removed */
-                                else if (curTiles.contains(oldNode.getKey())) {
-                                    removeTile(oldNode.getKey());
-                                }
-                            }
+    private void removeMissingNodes(Map<String, NodeTile> nodeTiles, Map<String, Node> nodes, List<Widget> removed) {
+        Iterator<Entry<String, NodeTile>> it = nodeTiles.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry<String, NodeTile> entry = it.next();
+            if (!nodes.containsKey(entry.getKey())) {
+                removed.add(entry.getValue());
+                unindex(entry.getValue());
+                it.remove();
+            }
+        }
+    }
 
-                        }
-                        /* Host to be removed */
-                        else if (curTiles.contains(oldHost.getValue().getId())) {
-                            removeTile(oldHost.getValue().getId());
-                            for (String n : oldHost.getValue().getNodes().keySet()) {
-                                removeTile(n);
-                            }
-                        }
-                    }
+    private void addWidget(Map<FlowPanel, List<Widget>> added, FlowPanel parent, Widget w) {
+        List<Widget> widgets = added.get(parent);
+        if (widgets == null) {
+            widgets = new ArrayList<Widget>();
+            added.put(parent, widgets);
+        }
+        widgets.add(w);
+    }
 
-                }
-                /* remove NS */
-                else {
-                    removeTile(oldNs.getKey());
-                    for (Node n : oldNs.getValue().getDeploying().values()) {
-                        removeTile(n.getNodeUrl());
-                    }
-                    for (Host h : oldNs.getValue().getHosts().values()) {
-                        removeTile(h.getId());
-                        for (String n : h.getNodes().keySet()) {
-                            removeTile(n);
-                        }
-                    }
-                }
+    /* builds the detached panel holding every tile of a nodesource */
+    private NodeSourceTiles createNodeSourceTiles(NodeSource ns) {
+        NodeSourceTiles nsTiles = new NodeSourceTiles(new NodeTile(ns));
+        index(ns.getSourceName(), nsTiles.tile);
+
+        for (Node n : ns.getDeploying().values()) {
+            nsTiles.deployingPanel.add(createNodeTile(n, nsTiles.deploying));
+        }
+        for (Host h : ns.getHosts().values()) {
+            if (!h.getNodes().isEmpty()) {
+                nsTiles.panel.add(createHostTiles(nsTiles, h).panel);
             }
         }
-        this.oldNodes = nodes;
+
+        this.nodeSourceTiles.put(ns.getSourceName(), nsTiles);
+        return nsTiles;
     }
 
-    private void removeTile(String name) {
-        int index = this.curTiles.indexOf(name);
-        if (index >= 0) {
-            this.curTiles.remove(index);
-            this.flow.remove(index);
+    /* builds the detached panel holding the tiles of a host and its nodes */
+    private HostTiles createHostTiles(NodeSourceTiles nsTiles, Host h) {
+        HostTiles hostTiles = new HostTiles(new NodeTile(h));
+        index(h.getId(), hostTiles.tile);
+
+        for (Node n : h.getNodes().values()) {
+            hostTiles.panel.add(createNodeTile(n, hostTiles.nodes));
+        }
+
+        nsTiles.hosts.put(h.getHostName(), hostTiles);
+        return hostTiles;
+    }
+
+    private NodeTile createNodeTile(Node n, Map<String, NodeTile> nodeTiles) {
+        NodeTile nodeTile = new NodeTile(n);
+        nodeTiles.put(n.getNodeUrl(), nodeTile);
+        index(n.getNodeUrl(), nodeTile);
+        return nodeTile;
+    }
+
+    private void index(String name, NodeTile tile) {
+        this.tiles.put(name, tile);
+    }
+
+    private void unindex(NodeTile tile) {
+        if (tile == this.curSelTile) {
+            this.curSelTile = null;
+        }
+        if (tile.node != null) {
+            this.tiles.remove(tile.node.getNodeUrl());
+        } else if (tile.host != null) {
+            this.tiles.remove(tile.host.getId());
+        } else if (tile.nodesource != null) {
+            this.tiles.remove(tile.nodesource.getSourceName());
+        }
+    }
+
+    private void unindex(HostTiles hostTiles) {
+        unindex(hostTiles.tile);
+        for (NodeTile nodeTile : hostTiles.nodes.values()) {
+            unindex(nodeTile);
+        }
+    }
+
+    private void unindex(NodeSourceTiles nsTiles) {
+        unindex(nsTiles.tile);
+        for (NodeTile nodeTile : nsTiles.deploying.values()) {
+            unindex(nodeTile);
+        }
+        for (HostTiles hostTiles : nsTiles.hosts.values()) {
+            unindex(hostTiles);
+        }
+    }
+
+    private static FlowPanel createInlinePanel() {
+        FlowPanel panel = new FlowPanel();
+        panel.getElement().getStyle().setDisplay(Display.INLINE);
+        return panel;
+    }
+
+    /* the tile of a nodesource followed by its deploying nodes then its hosts */
+    private static class NodeSourceTiles {
+        private final NodeTile tile;
+        private final FlowPanel panel = createInlinePanel();
+        private final FlowPanel deployingPanel = createInlinePanel();
+        /* deploying node tiles by node url */
+        private final Map<String, NodeTile> deploying = new HashMap<String, NodeTile>();
+        /* host tiles by host name */
+        private final Map<String, HostTiles> hosts = new HashMap<String, HostTiles>();
+
+        NodeSourceTiles(NodeTile tile) {
+            this.tile = tile;
+            this.panel.add(tile);
+            this.panel.add(deployingPanel);
+        }
+    }
+
+    /* the tile of a host followed by its nodes */
+    private static class HostTiles {
+        private final NodeTile tile;
+        private final FlowPanel panel = createInlinePanel();
+        /* node tiles by node url */
+        private final Map<String, NodeTile> nodes = new HashMap<String, NodeTile>();
+
+        HostTiles(NodeTile tile) {
+            this.tile = tile;
+            this.panel.add(tile);
         }
     }
 
@@ -448,38 +693,7 @@ public class CompactView implements NodesListener, NodeSelectedListener {
                         controller.selectNodeSource(nodesource);
                     }
 
-                    Menu menu = new Menu();
-                    menu.setShowShadow(true);
-                    menu.setShadowDepth(10);
-
-                    MenuItem removeItem = new MenuItem("Remove", RMImages.instance.node_remove_16()
-                            .getSafeUri().asString());
-                    removeItem.addClickHandler(new com.smartgwt.client.widgets.menu.events.ClickHandler() {
-                        @Override
-                        public void onClick(MenuItemClickEvent event) {
-                            controller.removeNodes();
-                        }
-                    });
-
-                    MenuItem lockItem = new MenuItem("Lock", RMImages.instance.node_locked_16().getSafeUri()
-                            .asString());
-                    lockItem.addClickHandler(new com.smartgwt.client.widgets.menu.events.ClickHandler() {
-                        @Override
-                        public void onClick(MenuItemClickEvent event) {
-                            controller.lockNodes();
-                        }
-                    });
-
-                    MenuItem unlockItem = new MenuItem("Unlock", RMImages.instance.node_free_16()
-                            .getSafeUri().asString());
-                    unlockItem.addClickHandler(new com.smartgwt.client.widgets.menu.events.ClickHandler() {
-                        @Override
-                        public void onClick(MenuItemClickEvent event) {
-                            controller.unlockNodes();
-                        }
-                    });
-
-                    menu.setItems(lockItem, unlockItem, removeItem);
+                    Menu menu = createNodesMenu(controller);
                     menu.moveTo(event.getClientX(), event.getClientY());
                     menu.show();
 
@@ -525,10 +739,9 @@ public class CompactView implements NodesListener, NodeSelectedListener {
                         if (node != null) {
                             setHoverNodeLabel();
                         } else if (host != null) {
-                            hoverLabel.setContents("<strong>Host</strong><br>" + host.getHostName());
+                            hoverLabel.setContents(describeHost(host));
                         } else if (nodesource != null) {
-                            hoverLabel.setContents("<strong>NodeSource</strong><br>" +
-                                nodesource.getSourceName());
+                            hoverLabel.setContents(describeNodeSource(nodesource, controller.getModel()));
                         }
                         hover.moveTo(event.getClientX() - 155, event.getClientY() - 65);
                         hover.show();
@@ -586,12 +799,7 @@ public class CompactView implements NodesListener, NodeSelectedListener {
         }
 
         private void setHoverNodeLabel() {
-            String str = "Provider: " + node.getNodeProvider() + "<br>";
-            if (node.getNodeOwner().trim().length() > 0) {
-                str += "Used by: " + node.getNodeOwner() + "<br>";
-            }
-            str += node.getNodeState().toString() + " since " + JSUtil.getTime(node.getTimeStamp());
-            this.hoverLabel.setContents(str);
+            this.hoverLabel.setContents(describeNode(node));
         }
 
         public void setSelectedTile(boolean selected) {
@@ -607,34 +815,38 @@ public class CompactView implements NodesListener, NodeSelectedListener {
         }
 
         private void highlightGroup(boolean selected) {
-            // highlight every node following this one in the flow layout,
-            // until we hit one from another host/ns
-            if (host != null || nodesource != null) {
-                int id = CompactView.this.curTiles.indexOf((host == null) ? nodesource.getSourceName() : host
-                        .getId());
-
-                while (true) {
-                    id++;
-                    if (flow.getWidgetCount() == id)
-                        break;
-
-                    NodeTile nt = (NodeTile) CompactView.this.flow.getWidget(id);
-                    // reaching the end
-                    if (nt == null) {
-                        break;
-                    }
-                    // reaching next host/ms
-                    if ((this.host != null && nt.host != null) || nt.nodesource != null) {
-                        break;
-                    }
-                    if (selected) {
-                        nt.getElement().getStyle().setBackgroundColor("#d9e4f6");
-                        nt.getElement().getStyle().setBorderColor("#d9e4f6");
-                    } else {
-                        nt.getElement().getStyle().setBackgroundColor("white");
-                        nt.getElement().getStyle().setBorderColor("white");
+            // highlight every node held by this host/ns
+            if (nodesource != null) {
+                NodeSourceTiles nsTiles = nodeSourceTiles.get(nodesource.getSourceName());
+                if (nsTiles != null) {
+                    highlightTiles(nsTiles.deploying.values(), selected);
+                    for (HostTiles hostTiles : nsTiles.hosts.values()) {
+                        hostTiles.tile.highlight(selected);
+                        highlightTiles(hostTiles.nodes.values(), selected);
                     }
                 }
+            } else if (host != null) {
+                NodeSourceTiles nsTiles = nodeSourceTiles.get(host.getSourceName());
+                HostTiles hostTiles = (nsTiles != null) ? nsTiles.hosts.get(host.getHostName()) : null;
+                if (hostTiles != null) {
+                    highlightTiles(hostTiles.nodes.values(), selected);
+                }
+            }
+        }
+
+        private void highlightTiles(Collection<NodeTile> tiles, boolean selected) {
+            for (NodeTile nt : tiles) {
+                nt.highlight(selected);
+            }
+        }
+
+        private void highlight(boolean selected) {
+            if (selected) {
+                getElement().getStyle().setBackgroundColor("#d9e4f6");
+                getElement().getStyle().setBorderColor("#d9e4f6");
+            } else {
+                getElement().getStyle().setBackgroundColor("white");
+                getElement().getStyle().setBorderColor("white");
             }
         }
 
@@ -36,6 +36,8 @@
  */
 package org.ow2.proactive_grid_cloud_portal.rm.client;
 
+import java.util.Map;
+
 /**
  * Enumeration of all states of a RMNode :<BR>
  * -deploying : node deployment is on going. <BR>
@@ -127,6 +129,49 @@ public enum NodeState {
      * @param state arbitrary node state
      * @return icon name corresponding the state
      */
+    /**
+     * @param counts number of nodes in each state
+     * @return the non zero counts, ie "3 Free, 1 Busy"
+     */
+    public static String formatCounts(Map<NodeState, Integer> counts) {
+        StringBuilder str = new StringBuilder();
+        for (NodeState state : values()) {
+            Integer count = counts.get(state);
+            if (count != null && count > 0) {
+                if (str.length() > 0) {
+                    str.append(", ");
+                }
+                str.append(count).append(' ').append(state);
+            }
+        }
+        return str.toString();
+    }
+
+    /**
+     * @return the CSS color of a node in this state when drawn as a plain square
+     */
+    public String getColor() {
+        switch (this) {
+            case BUSY:
+                return "#f5a623";
+            case CONFIGURING:
+                return "#7fb3e0";
+            case DEPLOYING:
+                return "#4a90d9";
+            case DOWN:
+                return "#d0021b";
+            case FREE:
+                return "#5cb85c";
+            case LOCKED:
+                return "#9b59b6";
+            case LOST:
+                return "#8b572a";
+            case TO_BE_REMOVED:
+                return "#9b9b9b";
+        }
+        return "#000000";
+    }
+
     public String getIcon() {
         switch (this) {
             case BUSY:
@@ -0,0 +1,159 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host.Node;
+
+
+/**
+ * Changes in the nodes held by the RM since the previous delta received by the client,
+ * as returned by {@link RMService#getMonitoringDelta(String, long, java.util.Set, boolean)}
+ * <p>
+ * Counters always describe the whole state.
+ */
+class NodesDelta {
+
+    /** revision to send back to get the next delta */
+    private long revision;
+    /** true if this delta holds every node, previous ones must then be dropped */
+    private boolean full;
+
+    /** added nodesources, or nodesources whose description changed */
+    private List<NodeSource> nodeSources = new ArrayList<NodeSource>();
+    /** names of the removed nodesources */
+    private List<String> removedNodeSources = new ArrayList<String>();
+    /** added nodes, or nodes whose state changed */
+    private List<Node> nodes = new ArrayList<Node>();
+    /** urls of the removed nodes */
+    private List<String> removedNodes = new ArrayList<String>();
+
+    /** number of nodes in each state */
+    private Map<NodeState, Integer> nodeStates = new HashMap<NodeState, Integer>();
+    private int physicalHosts;
+    private int virtualHosts;
+
+    /** true if only the nodes of the nodesources loaded by the client are sent */
+    private boolean summary;
+    /** number of nodes in each state, by nodesource name, only when {@link #summary} */
+    private Map<String, Map<NodeState, Integer>> nodeSourceStates = new HashMap<String, Map<NodeState, Integer>>();
+
+    NodesDelta(long revision, boolean full) {
+        this.revision = revision;
+        this.full = full;
+    }
+
+    long getRevision() {
+        return revision;
+    }
+
+    boolean isFull() {
+        return full;
+    }
+
+    /**
+     * @return true if no node or nodesource changed
+     */
+    boolean isEmpty() {
+        return !full && nodeSources.isEmpty() && removedNodeSources.isEmpty() && nodes.isEmpty() &&
+            removedNodes.isEmpty();
+    }
+
+    List<NodeSource> getNodeSources() {
+        return nodeSources;
+    }
+
+    List<String> getRemovedNodeSources() {
+        return removedNodeSources;
+    }
+
+    List<Node> getNodes() {
+        return nodes;
+    }
+
+    List<String> getRemovedNodes() {
+        return removedNodes;
+    }
+
+    /**
+     * @return number of nodes in the given state
+     */
+    int getNumNodes(NodeState state) {
+        Integer num = nodeStates.get(state);
+        return num == null ? 0 : num;
+    }
+
+    void setNumNodes(NodeState state, int num) {
+        nodeStates.put(state, num);
+    }
+
+    int getPhysicalHosts() {
+        return physicalHosts;
+    }
+
+    void setPhysicalHosts(int physicalHosts) {
+        this.physicalHosts = physicalHosts;
+    }
+
+    int getVirtualHosts() {
+        return virtualHosts;
+    }
+
+    void setVirtualHosts(int virtualHosts) {
+        this.virtualHosts = virtualHosts;
+    }
+
+    boolean isSummary() {
+        return summary;
+    }
+
+    void setSummary(boolean summary) {
+        this.summary = summary;
+    }
+
+    /**
+     * @return number of nodes in each state, by nodesource name
+     */
+    Map<String, Map<NodeState, Integer>> getNodeSourceStates() {
+        return nodeSourceStates;
+    }
+
+}
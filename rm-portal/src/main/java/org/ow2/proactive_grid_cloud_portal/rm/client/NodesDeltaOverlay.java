@@ -0,0 +1,221 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsArrayString;
+
+
+/**
+ * Overlay type over the nodes delta sent by {@link RMService#getMonitoringDelta(String, long, java.util.Set, boolean)}
+ * <p>
+ * Fields are read on demand from the natively parsed JSON.
+ */
+class NodesDeltaOverlay extends JavaScriptObject {
+
+    protected NodesDeltaOverlay() {
+    }
+
+    final native double getRevision() /*-{
+        return this.revision;
+    }-*/;
+
+    final native boolean isFull() /*-{
+        return this.full;
+    }-*/;
+
+    final native JsArray<NodeSourceOverlay> getNodeSources() /*-{
+        return this.nodeSource;
+    }-*/;
+
+    final native JsArrayString getRemovedNodeSources() /*-{
+        return this.removedNodeSources;
+    }-*/;
+
+    final native JsArray<NodeOverlay> getNodes() /*-{
+        return this.nodesEvents;
+    }-*/;
+
+    final native JsArrayString getRemovedNodes() /*-{
+        return this.removedNodes;
+    }-*/;
+
+    /**
+     * @return the node states for which a number of nodes is given
+     */
+    final native JsArrayString getNodeStates() /*-{
+        var states = [];
+        for (var state in this.nodeStates) {
+            if (this.nodeStates.hasOwnProperty(state)) {
+                states.push(state);
+            }
+        }
+        return states;
+    }-*/;
+
+    final native int getNumNodes(String state) /*-{
+        return this.nodeStates[state];
+    }-*/;
+
+    final native int getPhysicalHosts() /*-{
+        return this.physicalHosts;
+    }-*/;
+
+    final native int getVirtualHosts() /*-{
+        return this.virtualHosts;
+    }-*/;
+
+    final native boolean isSummary() /*-{
+        return this.summary === true;
+    }-*/;
+
+    /**
+     * @return the nodesources for which a number of nodes per state is given
+     */
+    final native JsArrayString getNodeSourcesWithStates() /*-{
+        var names = [];
+        for (var name in this.nodeSourceStates) {
+            if (this.nodeSourceStates.hasOwnProperty(name)) {
+                names.push(name);
+            }
+        }
+        return names;
+    }-*/;
+
+    /**
+     * @return the node states for which a number of nodes of the given nodesource is given
+     */
+    final native JsArrayString getNodeStates(String nodeSource) /*-{
+        var states = [];
+        for (var state in this.nodeSourceStates[nodeSource]) {
+            if (this.nodeSourceStates[nodeSource].hasOwnProperty(state)) {
+                states.push(state);
+            }
+        }
+        return states;
+    }-*/;
+
+    final native int getNumNodes(String nodeSource, String state) /*-{
+        return this.nodeSourceStates[nodeSource][state];
+    }-*/;
+
+
+    static class NodeSourceOverlay extends JavaScriptObject {
+
+        protected NodeSourceOverlay() {
+        }
+
+        final native String getSourceName() /*-{
+            return this.sourceName;
+        }-*/;
+
+        final native String getSourceDescription() /*-{
+            return typeof this.sourceDescription === 'string' ? this.sourceDescription : "";
+        }-*/;
+
+        final native String getNodeSourceAdmin() /*-{
+            return this.nodeSourceAdmin;
+        }-*/;
+    }
+
+
+    static class NodeOverlay extends JavaScriptObject {
+
+        protected NodeOverlay() {
+        }
+
+        final native String getNodeUrl() /*-{
+            return this.nodeUrl;
+        }-*/;
+
+        final native String getNodeState() /*-{
+            return this.nodeState;
+        }-*/;
+
+        final native String getNodeInfo() /*-{
+            return this.nodeInfo;
+        }-*/;
+
+        final native double getTimeStamp() /*-{
+            return this.timeStamp;
+        }-*/;
+
+        final native String getTimeStampFormatted() /*-{
+            return this.timeStampFormatted;
+        }-*/;
+
+        final native String getNodeProvider() /*-{
+            return this.nodeProvider;
+        }-*/;
+
+        final native String getNodeOwner() /*-{
+            return typeof this.nodeOwner === 'string' ? this.nodeOwner : "";
+        }-*/;
+
+        final native String getSourceName() /*-{
+            return this.nodeSource;
+        }-*/;
+
+        final native String getHostName() /*-{
+            return this.hostName;
+        }-*/;
+
+        final native String getVmName() /*-{
+            return typeof this.vmname === 'string' ? this.vmname : "";
+        }-*/;
+
+        final native String getDescription() /*-{
+            return typeof this.nodeInfo === 'string' ? this.nodeInfo : "";
+        }-*/;
+
+        final native String getDefaultJMXUrl() /*-{
+            return typeof this.defaultJMXUrl === 'string' ? this.defaultJMXUrl : "";
+        }-*/;
+
+        final native String getProactiveJMXUrl() /*-{
+            return typeof this.proactiveJMXUrl === 'string' ? this.proactiveJMXUrl : "";
+        }-*/;
+
+        /**
+         * @return the JSON text of this node
+         */
+        final native String toJson() /*-{
+            return JSON.stringify(this);
+        }-*/;
+    }
+}
@@ -39,6 +39,8 @@ package org.ow2.proactive_grid_cloud_portal.rm.client;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.ow2.proactive_grid_cloud_portal.common.client.Controller;
@@ -47,6 +49,7 @@ import org.ow2.proactive_grid_cloud_portal.common.client.LoadingMessage;
 import org.ow2.proactive_grid_cloud_portal.common.client.LoginPage;
 import org.ow2.proactive_grid_cloud_portal.common.client.Model.StatHistory;
 import org.ow2.proactive_grid_cloud_portal.common.client.Model.StatHistory.Range;
+import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONException;
 import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
@@ -54,11 +57,16 @@ import org.ow2.proactive_grid_cloud_portal.common.client.Settings;
 import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
 import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host;
 import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host.Node;
+import org.ow2.proactive_grid_cloud_portal.rm.client.NodesDeltaOverlay.NodeOverlay;
+import org.ow2.proactive_grid_cloud_portal.rm.client.NodesDeltaOverlay.NodeSourceOverlay;
 import org.ow2.proactive_grid_cloud_portal.rm.client.PluginDescriptor.Field;
 import org.ow2.proactive_grid_cloud_portal.rm.shared.RMConfig;
 
 import com.google.gwt.core.client.Callback;
 import com.google.gwt.core.client.GWT.UncaughtExceptionHandler;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.dom.client.Document;
 import com.google.gwt.http.client.Request;
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONObject;
@@ -131,11 +139,18 @@ public class RMController extends Controller implements UncaughtExceptionHandler
     /** shown when logged in */
     private RMPage rmPage = null;
 
-    /** result of the latest call to {@link RMServiceAsync#getStatHistory(String, String, AsyncCallback)} */
+    /** result of the latest call to {@link RMServiceAsync#getStatHistory(String, String, int, AsyncCallback)} */
     private Request statHistReq = null;
     /** system.currenttimemillis of last StatHistory call */
     private long lastStatHistReq = 0;
 
+    /** true while a call to {@link RMServiceAsync#getMonitoringDelta} is pending */
+    private boolean monitoringReqPending = false;
+    /** true if the next monitoring call must refresh the nodes, ie a nodesource was loaded */
+    private boolean nodesRefreshRequested = false;
+    /** system.currenttimemillis of the last monitoring call refreshing the nodes */
+    private long lastNodesRefresh = 0;
+
     private Timer autoLoginTimer;
 
     /**
@@ -376,7 +391,9 @@ public class RMController extends Controller implements UncaughtExceptionHandler
         if (dt > updateFreq * 1000 || changedRange) {
             this.lastStatHistReq = now;
 
-            this.statHistReq = rm.getStatHistory(LoginModel.getInstance().getSessionId(), range, new AsyncCallback<String>() {
+            // no chart is wider than the window, one point per pixel is enough
+            int maxPoints = Document.get().getClientWidth();
+            this.statHistReq = rm.getStatHistory(LoginModel.getInstance().getSessionId(), range, maxPoints, new AsyncCallback<String>() {
                 @Override
                 public void onSuccess(String result) {
 
@@ -479,24 +496,65 @@ public class RMController extends Controller implements UncaughtExceptionHandler
     }
 
     /**
-     * Perform the server call to fetch current nodes states,
-     * store it on the model, notify listeners
+     * Fetch the hosts and nodes of a nodesource when only the number of nodes
+     * of each nodesource is held, then refresh them every {@link RMConfig#getClientNodesRefreshTime()}
+     *
+     * @param nsName name of the nodesource displayed by a view
+     */
+    public void loadNodeSource(String nsName) {
+        if (model.isSummary() && model.loadNodeSource(nsName)) {
+            this.nodesRefreshRequested = true;
+            fetchRMMonitoring();
+        }
+    }
+
+    /**
+     * Perform the server call to fetch the changes in nodes states,
+     * apply them on the model, notify listeners
+     * <p>
+     * In summary mode, the nodes of the loaded nodesources are only refreshed
+     * every {@link RMConfig#getClientNodesRefreshTime()}, or right after a nodesource is loaded
      */
     private void fetchRMMonitoring() {
+        // the next call sends the revision of this one
+        if (monitoringReqPending) {
+            return;
+        }
+
         final long t = System.currentTimeMillis();
-        
-        rm.getMonitoring(LoginModel.getInstance().getSessionId(), new AsyncCallback<String>() {
+        boolean refreshNodes = !model.isSummary() || nodesRefreshRequested ||
+            t - lastNodesRefresh >= RMConfig.get().getClientNodesRefreshTime();
+        if (refreshNodes) {
+            nodesRefreshRequested = false;
+            lastNodesRefresh = t;
+        }
+
+        monitoringReqPending = true;
+        rm.getMonitoringDelta(LoginModel.getInstance().getSessionId(), model.getNodesRevision(),
+                model.getLoadedNodeSources(), refreshNodes, new AsyncCallback<String>() {
             public void onSuccess(String result) {
+                monitoringReqPending = false;
                 if (!LoginModel.getInstance().isLoggedIn())
                     return;
 
-                HashMap<String, NodeSource> nodes = parseRMMonitoring(result);
-                model.setNodes(nodes);
-                LogModel.getInstance().logMessage("Fetched " + nodes.size() + " node sources in " +
-                    (System.currentTimeMillis() - t) + "ms");
+                NodesDelta delta;
+                try {
+                    delta = parseRMMonitoringDelta(result);
+                } catch (JSONException e) {
+                    LogModel.getInstance().logCriticalMessage(e.getMessage());
+                    return;
+                }
+                model.applyNodesDelta(delta);
+                LogModel.getInstance().logMessage("Fetched " + delta.getNodes().size() + " new or changed nodes, " +
+                    delta.getRemovedNodes().size() + " removed nodes in " + (System.currentTimeMillis() - t) + "ms");
+
+                if (nodesRefreshRequested) {
+                    fetchRMMonitoring();
+                }
             }
 
             public void onFailure(Throwable caught) {
+                monitoringReqPending = false;
                 if (JSONUtils.getJsonErrorCode(caught) == 401) {
                     teardown("You have been disconnected from the server.");
                 } else {
@@ -507,159 +565,84 @@ public class RMController extends Controller implements UncaughtExceptionHandler
     }
 
     /**
-     * Parse the node state JSON string
+     * Parse the nodes delta JSON string
      * 
-     * @param json the "rm/monitoring" json result
+     * @param json the result of {@link RMService#getMonitoringDelta(String, long, java.util.Set, boolean)}
      * @return a POJO representation
+     * @throws JSONException if it fails to parse the JSON
      */
-    private HashMap<String, NodeSource> parseRMMonitoring(String json) {
-
-        JSONObject obj = this.parseJSON(json).isObject();
-        HashMap<String, NodeSource> ns = new HashMap<String, NodeSource>();
+    private NodesDelta parseRMMonitoringDelta(String json) throws JSONException {
 
-        JSONArray nodesources = obj.get("nodeSource").isArray();
-        for (int i = 0; i < nodesources.size(); i++) {
-            JSONObject nsObj = nodesources.get(i).isObject();
+        NodesDeltaOverlay obj = JSONUtils.parseJSONOverlay(json);
+        NodesDelta delta = new NodesDelta(Math.round(obj.getRevision()), obj.isFull());
 
-            String sourceName = nsObj.get("sourceName").isString().stringValue();
-            String sourceDescription = "";
-            JSONString js = (nsObj.get("sourceDescription")).isString();
-            if (js != null)
-                sourceDescription = js.stringValue();
-            String nodeSourceAdmin = nsObj.get("nodeSourceAdmin").isString().stringValue();
+        JsArray<NodeSourceOverlay> nodesources = obj.getNodeSources();
+        for (int i = 0; i < nodesources.length(); i++) {
+            NodeSourceOverlay ns = nodesources.get(i);
+            delta.getNodeSources().add(
+                    new NodeSource(ns.getSourceName(), ns.getSourceDescription(), ns.getNodeSourceAdmin()));
+        }
 
-            ns.put(sourceName, new NodeSource(sourceName, sourceDescription, nodeSourceAdmin));
+        JsArrayString removedNodeSources = obj.getRemovedNodeSources();
+        for (int i = 0; i < removedNodeSources.length(); i++) {
+            delta.getRemovedNodeSources().add(removedNodeSources.get(i));
         }
 
-        int numDeploying = 0;
-        int numLost = 0;
-        int numConfiguring = 0;
-        int numFree = 0;
-        int numLocked = 0;
-        int numBusy = 0;
-        int numDown = 0;
-        int numToBeRemoved = 0;
-
-        JSONArray nodes = obj.get("nodesEvents").isArray();
-        for (int i = 0; i < nodes.size(); i++) {
+        JsArray<NodeOverlay> nodes = obj.getNodes();
+        for (int i = 0; i < nodes.length(); i++) {
             try {
-                JSONObject nodeObj = nodes.get(i).isObject();
-
-                String hostName = nodeObj.get("hostName").isString().stringValue();
-                String nss = nodeObj.get("nodeSource").isString().stringValue();
-
-                String nodeUrl = nodeObj.get("nodeUrl").isString().stringValue();
-                String nodeState = nodeObj.get("nodeState").isString().stringValue();
-                String nodeInfo = nodeObj.get("nodeInfo").isString().stringValue();
-                String timeStampFormatted = nodeObj.get("timeStampFormatted").isString().stringValue();
-                long timeStamp = Math.round(nodeObj.get("timeStamp").isNumber().doubleValue());
-                String nodeProvider = nodeObj.get("nodeProvider").isString().stringValue();
-                String nodeOwner = "";
-                JSONString nodeOwnerStr = nodeObj.get("nodeOwner").isString();
-                if (nodeOwnerStr != null)
-                    nodeOwner = nodeOwnerStr.stringValue();
-                String vmName = "";
-                JSONString vmStr = nodeObj.get("vmname").isString();
-                if (vmStr != null)
-                    vmName = vmStr.stringValue();
-                String description = "";
-                JSONString descStr = nodeObj.get("nodeInfo").isString();
-                if (descStr != null)
-                    description = descStr.stringValue();
-
-                String defaultJMXUrl = "";
-                JSONString jmxStr = nodeObj.get("defaultJMXUrl").isString();
-                if (jmxStr != null) {
-                    defaultJMXUrl = jmxStr.stringValue();
-                }
-                String proactiveJMXUrl = "";
-                JSONString paJmx = nodeObj.get("proactiveJMXUrl").isString();
-                if (paJmx != null) {
-                    proactiveJMXUrl = paJmx.stringValue();
-                }
-
-                Node n = new Node(nodeUrl, nodeState, nodeInfo, timeStamp, timeStampFormatted, nodeProvider,
-                    nodeOwner, nss, hostName, vmName, description, defaultJMXUrl, proactiveJMXUrl);
-
-                // deploying node
-                if (hostName == null || hostName.length() == 0) {
-                    ns.get(nss).getDeploying().put(nodeUrl, n);
-                }
-                // already deployed node
-                else {
-
-                    Host host = ns.get(nss).getHosts().get(hostName);
-                    if (host == null) {
-                        host = new Host(hostName, nss);
-                        ns.get(nss).getHosts().put(hostName, host);
-                    }
-                    host.getNodes().put(nodeUrl, n);
-                    if (nodeUrl.toLowerCase().contains("virt-")) {
-                        host.setVirtual(true);
-                    }
-                }
-
-                switch (n.getNodeState()) {
-                    case BUSY:
-                        numBusy++;
-                        break;
-                    case CONFIGURING:
-                        numConfiguring++;
-                        break;
-                    case DEPLOYING:
-                        numDeploying++;
-                        break;
-                    case DOWN:
-                        numDown++;
-                        break;
-                    case FREE:
-                        numFree++;
-                        break;
-                    case LOCKED:
-                        numLocked++;
-                        break;
-                    case LOST:
-                        numLost++;
-                        break;
-                    case TO_BE_REMOVED:
-                        numToBeRemoved++;
-                        break;
-                }
+                delta.getNodes().add(parseNode(nodes.get(i)));
             } catch (Throwable t) {
                 System.out.println("Failed to parse node : ");
-                System.out.println(nodes.get(i).toString());
+                System.out.println(nodes.get(i).toJson());
                 t.printStackTrace();
 
                 LogModel.getInstance().logCriticalMessage(t.getClass().getName() + ": " + t.getMessage() + " for input: " +
-                    nodes.get(i).toString());
+                    nodes.get(i).toJson());
             }
         }
 
-        model.setNumBusy(numBusy);
-        model.setNumConfiguring(numConfiguring);
-        model.setNumDeploying(numDeploying);
-        model.setNumDown(numDown);
-        model.setNumFree(numFree);
-        model.setNumLocked(numLocked);
-        model.setNumLost(numLost);
-        model.setNumToBeRemoved(numToBeRemoved);
-
-        int numPhysical = 0;
-        int numVirtual = 0;
-        for (NodeSource nos : ns.values()) {
-            for (Host h : nos.getHosts().values()) {
-                if (h.isVirtual()) {
-                    numVirtual++;
-                } else {
-                    numPhysical++;
+        JsArrayString removedNodes = obj.getRemovedNodes();
+        for (int i = 0; i < removedNodes.length(); i++) {
+            delta.getRemovedNodes().add(removedNodes.get(i));
+        }
+
+        JsArrayString nodeStates = obj.getNodeStates();
+        for (int i = 0; i < nodeStates.length(); i++) {
+            String state = nodeStates.get(i);
+            try {
+                delta.setNumNodes(NodeState.parse(state), obj.getNumNodes(state));
+            } catch (IllegalArgumentException e) {
+                LogModel.getInstance().logMessage(e.getMessage());
+            }
+        }
+        delta.setPhysicalHosts(obj.getPhysicalHosts());
+        delta.setVirtualHosts(obj.getVirtualHosts());
+
+        delta.setSummary(obj.isSummary());
+        JsArrayString nodeSourcesWithStates = obj.getNodeSourcesWithStates();
+        for (int i = 0; i < nodeSourcesWithStates.length(); i++) {
+            String nsName = nodeSourcesWithStates.get(i);
+            Map<NodeState, Integer> states = new HashMap<NodeState, Integer>();
+            JsArrayString nsStates = obj.getNodeStates(nsName);
+            for (int j = 0; j < nsStates.length(); j++) {
+                try {
+                    states.put(NodeState.parse(nsStates.get(j)), obj.getNumNodes(nsName, nsStates.get(j)));
+                } catch (IllegalArgumentException e) {
+                    LogModel.getInstance().logMessage(e.getMessage());
                 }
             }
+            delta.getNodeSourceStates().put(nsName, states);
         }
 
-        model.setNumPhysicalHosts(numPhysical);
-        model.setNumVirtualHosts(numVirtual);
+        return delta;
+    }
 
-        return ns;
+    private Node parseNode(NodeOverlay node) {
+        return new Node(node.getNodeUrl(), node.getNodeState(), node.getNodeInfo(), Math.round(node.getTimeStamp()),
+            node.getTimeStampFormatted(), node.getNodeProvider(), node.getNodeOwner(), node.getSourceName(),
+            node.getHostName(), node.getVmName(), node.getDescription(), node.getDefaultJMXUrl(),
+            node.getProactiveJMXUrl());
     }
 
     /**
@@ -774,7 +757,7 @@ public class RMController extends Controller implements UncaughtExceptionHandler
         // there's no real incentive to storing locked node states
         // here, let's just try to do what the user says, and report
         // the error if it's nonsense
-        rm.lockNodes(LoginModel.getInstance().getSessionId(), nodeUrls, new AsyncCallback<String>() {
+        rm.lockNodes(LoginModel.getInstance().getSessionId(), nodeUrls, new AsyncCallback<Map<String, Boolean>>() {
             @Override
             public void onFailure(Throwable caught) {
                 LogModel.getInstance().logImportantMessage("Failed to lock " + nodeUrls.size() + " nodes: " +
@@ -783,8 +766,8 @@ public class RMController extends Controller implements UncaughtExceptionHandler
             }
 
             @Override
-            public void onSuccess(String result) {
-                LogModel.getInstance().logMessage("Successfully locked " + nodeUrls.size() + " nodes");
+            public void onSuccess(Map<String, Boolean> result) {
+                logNodesActionOutcome("lock", "locked", result);
             }
         });
     }
@@ -793,7 +776,7 @@ public class RMController extends Controller implements UncaughtExceptionHandler
         // there's no real incentive to storing locked node states
         // here, let's just try to do what the user says, and report
         // the error if it's nonsense
-        rm.unlockNodes(LoginModel.getInstance().getSessionId(), nodeUrls, new AsyncCallback<String>() {
+        rm.unlockNodes(LoginModel.getInstance().getSessionId(), nodeUrls, new AsyncCallback<Map<String, Boolean>>() {
             @Override
             public void onFailure(Throwable caught) {
                 LogModel.getInstance().logImportantMessage("Failed to unlock " + nodeUrls.size() + " nodes: " +
@@ -802,12 +785,35 @@ public class RMController extends Controller implements UncaughtExceptionHandler
             }
 
             @Override
-            public void onSuccess(String result) {
-                LogModel.getInstance().logMessage("Successfully unlocked " + nodeUrls.size() + " nodes");
+            public void onSuccess(Map<String, Boolean> result) {
+                logNodesActionOutcome("unlock", "unlocked", result);
             }
         });
     }
 
+    /**
+     * Logs the per-node outcome of an action applied on several nodes
+     *
+     * @param actionName name of the action, ie "lock"
+     * @param actionDone past participle of the action, ie "locked"
+     * @param outcome for each node url, true if the action succeeded
+     */
+    private void logNodesActionOutcome(String actionName, String actionDone, Map<String, Boolean> outcome) {
+        List<String> failedUrls = new ArrayList<String>();
+        for (Map.Entry<String, Boolean> entry : outcome.entrySet()) {
+            if (!entry.getValue()) {
+                failedUrls.add(entry.getKey());
+            }
+        }
+
+        if (failedUrls.isEmpty()) {
+            LogModel.getInstance().logMessage("Successfully " + actionDone + " " + outcome.size() + " nodes");
+        } else {
+            LogModel.getInstance().logImportantMessage("Failed to " + actionName + " " + failedUrls.size() + "/" +
+                outcome.size() + " nodes: " + failedUrls);
+        }
+    }
+
     /**
      * Remove nodes according to the current selection:
      * if a host is selected, multiple nodes will be removed
@@ -858,13 +864,12 @@ public class RMController extends Controller implements UncaughtExceptionHandler
             });
         } else if (model.getSelectedHost() != null) {
             final Host h = model.getSelectedHost();
+            final Set<String> nodeUrls = getSelectedNodesUrls();
             confirmRemoveNode("Confirm removal of <strong>" + numNodes + " node" +
                 ((numNodes > 1) ? "s" : "") + "</strong> on <strong>host " + h.getHostName() + "</strong>",
                     new NodeRemovalCallback() {
                         public void run(boolean force) {
-                            for (Node n : h.getNodes().values()) {
-                                rm.removeNode(LoginModel.getInstance().getSessionId(), n.getNodeUrl(), force, callback);
-                            }
+                            removeNodes(nodeUrls, force);
                         }
                     });
         } else if (model.getSelectedNodeSource() != null) {
@@ -877,6 +882,22 @@ public class RMController extends Controller implements UncaughtExceptionHandler
         }
     }
 
+    private void removeNodes(final Set<String> nodeUrls, boolean force) {
+        rm.removeNodes(LoginModel.getInstance().getSessionId(), nodeUrls, force,
+                new AsyncCallback<Map<String, Boolean>>() {
+                    @Override
+                    public void onFailure(Throwable caught) {
+                        LogModel.getInstance().logImportantMessage("Failed to remove " + nodeUrls.size() +
+                            " nodes: " + JSONUtils.getJsonErrorMessage(caught));
+                    }
+
+                    @Override
+                    public void onSuccess(Map<String, Boolean> result) {
+                        logNodesActionOutcome("remove", "removed", result);
+                    }
+                });
+    }
+
     private abstract class NodeRemovalCallback {
         public abstract void run(boolean force);
     }
@@ -944,18 +965,26 @@ public class RMController extends Controller implements UncaughtExceptionHandler
     /**
      * Override user settings, rewrite cookies, refresh corresponding ui elements
      *  @param refreshTime refresh time for update thread in ms
+     *  @param compactViewMode rendering of the compact view, see {@link RMConfig#COMPACT_VIEW_MODE}
      *
      */
-    public void setUserSettings(String refreshTime) {
+    public void setUserSettings(String refreshTime, String compactViewMode) {
 
         boolean refreshChanged = !refreshTime.equals("" + RMConfig.get().getClass());
         RMConfig.get().set(RMConfig.CLIENT_REFRESH_TIME, refreshTime);
         Settings.get().setSetting(RMConfig.CLIENT_REFRESH_TIME, refreshTime);
 
+        boolean compactViewChanged = !compactViewMode.equals(RMConfig.get().getCompactViewMode());
+        RMConfig.get().set(RMConfig.COMPACT_VIEW_MODE, compactViewMode);
+        Settings.get().setSetting(RMConfig.COMPACT_VIEW_MODE, compactViewMode);
+
         if (refreshChanged) {
             this.stopTimer();
             this.startTimer();
         }
+        if (compactViewChanged && this.model.getNodes() != null) {
+            this.model.fireNodesUpdated();
+        }
     }
 
     /**
@@ -57,6 +57,24 @@ public abstract class RMModel implements Model {
      */
     public abstract Map<String, NodeSource> getNodes();
 
+    /**
+     * @return true if only the nodes of the loaded nodesources are held,
+     *         the others only being described by their number of nodes per state
+     */
+    public abstract boolean isSummary();
+
+    /**
+     * @param nsName name of a nodesource
+     * @return true if the hosts and nodes of the nodesource are held
+     */
+    public abstract boolean isNodeSourceLoaded(String nsName);
+
+    /**
+     * @param nsName name of a nodesource
+     * @return number of nodes of the nodesource in each state, only in summary mode
+     */
+    public abstract Map<NodeState, Integer> getNodeSourceStates(String nsName);
+
     /**
      * @return current limit of alive nodes.
      */
@@ -39,7 +39,9 @@ package org.ow2.proactive_grid_cloud_portal.rm.client;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.ow2.proactive_grid_cloud_portal.common.client.Listeners.LogListener;
 import org.ow2.proactive_grid_cloud_portal.common.client.Listeners.StatsListener;
@@ -68,6 +70,18 @@ public class RMModelImpl extends RMModel implements RMEventDispatcher {
     private String login = null;
     private String sessionId = null;
     private HashMap<String, NodeSource> nodes = null;
+    /** every node held by {@link #nodes}, by url */
+    private HashMap<String, Node> nodesByUrl = null;
+    /** every host held by {@link #nodes}, by {@link Host#getId()} */
+    private HashMap<String, Host> hostsById = null;
+    /** revision of the last nodes delta applied, -1 before the first one */
+    private long nodesRevision = -1;
+    /** true if only the nodes of {@link #loadedNodeSources} are received */
+    private boolean summary = false;
+    /** names of the nodesources whose nodes are requested in summary mode */
+    private Set<String> loadedNodeSources = null;
+    /** number of nodes in each state, by nodesource name, in summary mode */
+    private Map<String, Map<NodeState, Integer>> nodeSourceStates = null;
     private Node selectedNode = null;
     private Host selectedHost = null;
     private NodeSource selectedNodeSource = null;
@@ -103,6 +117,10 @@ public class RMModelImpl extends RMModel implements RMEventDispatcher {
         super();
 
         this.nodes = new HashMap<String, NodeSource>();
+        this.nodesByUrl = new HashMap<String, Node>();
+        this.hostsById = new HashMap<String, Host>();
+        this.loadedNodeSources = new HashSet<String>();
+        this.nodeSourceStates = new HashMap<String, Map<NodeState, Integer>>();
         this.infrastructures = new HashMap<String, PluginDescriptor>();
         this.policies = new HashMap<String, PluginDescriptor>();
         this.requestedStatHistoryRange = new HashMap<String, Range>();
@@ -128,6 +146,234 @@ public class RMModelImpl extends RMModel implements RMEventDispatcher {
         }
     }
 
+    /**
+     * Notifies the nodes listeners again with the same nodes,
+     * so that they are displayed again after a display setting changed
+     */
+    void fireNodesUpdated() {
+        setNodes(this.nodes);
+    }
+
+    long getNodesRevision() {
+        return this.nodesRevision;
+    }
+
+    @Override
+    public boolean isSummary() {
+        return this.summary;
+    }
+
+    @Override
+    public boolean isNodeSourceLoaded(String nsName) {
+        return !this.summary || this.loadedNodeSources.contains(nsName);
+    }
+
+    @Override
+    public Map<NodeState, Integer> getNodeSourceStates(String nsName) {
+        Map<NodeState, Integer> states = this.nodeSourceStates.get(nsName);
+        return states == null ? new HashMap<NodeState, Integer>() : states;
+    }
+
+    Set<String> getLoadedNodeSources() {
+        return this.loadedNodeSources;
+    }
+
+    /**
+     * Request the nodes of a nodesource in summary mode
+     *
+     * @return false if they were already requested
+     */
+    boolean loadNodeSource(String nsName) {
+        return this.loadedNodeSources.add(nsName);
+    }
+
+    /**
+     * Apply the changes in nodes states received from the server, update counters
+     * and notify listeners if any node changed.
+     * <p>
+     * Listeners compare the new nodes with the ones they received previously,
+     * so nodesources and hosts holding changes are copied instead of being modified,
+     * the others are shared with the previous nodes.
+     */
+    void applyNodesDelta(NodesDelta delta) {
+        this.nodesRevision = delta.getRevision();
+
+        this.numBusy = delta.getNumNodes(NodeState.BUSY);
+        this.numConfiguring = delta.getNumNodes(NodeState.CONFIGURING);
+        this.numDeploying = delta.getNumNodes(NodeState.DEPLOYING);
+        this.numDown = delta.getNumNodes(NodeState.DOWN);
+        this.numFree = delta.getNumNodes(NodeState.FREE);
+        this.numLocked = delta.getNumNodes(NodeState.LOCKED);
+        this.numLost = delta.getNumNodes(NodeState.LOST);
+        this.numToBeRemoved = delta.getNumNodes(NodeState.TO_BE_REMOVED);
+        this.numPhysicalHosts = delta.getPhysicalHosts();
+        this.numVirtualHosts = delta.getVirtualHosts();
+        this.summary = delta.isSummary();
+        this.nodeSourceStates = delta.getNodeSourceStates();
+
+        // in summary mode, listeners display the number of nodes of each nodesource
+        if (delta.isEmpty() && !delta.isSummary()) {
+            return;
+        }
+
+        HashMap<String, NodeSource> newNodes;
+        if (delta.isFull()) {
+            newNodes = new HashMap<String, NodeSource>();
+            this.nodesByUrl = new HashMap<String, Node>();
+            this.hostsById = new HashMap<String, Host>();
+        } else {
+            newNodes = new HashMap<String, NodeSource>(this.nodes);
+        }
+        /* nodesources and hosts created while applying this delta, that can be modified */
+        Set<Object> copies = new HashSet<Object>();
+
+        for (String nsName : delta.getRemovedNodeSources()) {
+            NodeSource ns = newNodes.remove(nsName);
+            this.loadedNodeSources.remove(nsName);
+            if (ns != null) {
+                for (Node n : ns.getDeploying().values()) {
+                    this.nodesByUrl.remove(n.getNodeUrl());
+                }
+                for (Host h : ns.getHosts().values()) {
+                    for (String nodeUrl : h.getNodes().keySet()) {
+                        this.nodesByUrl.remove(nodeUrl);
+                    }
+                    this.hostsById.remove(h.getId());
+                }
+            }
+        }
+        for (NodeSource ns : delta.getNodeSources()) {
+            NodeSource oldNs = newNodes.get(ns.getSourceName());
+            if (oldNs != null) {
+                ns.getDeploying().putAll(oldNs.getDeploying());
+                ns.getHosts().putAll(oldNs.getHosts());
+            }
+            newNodes.put(ns.getSourceName(), ns);
+            copies.add(ns);
+        }
+
+        for (String nodeUrl : delta.getRemovedNodes()) {
+            Node oldNode = this.nodesByUrl.remove(nodeUrl);
+            if (oldNode != null) {
+                removeNode(newNodes, copies, oldNode);
+            }
+        }
+        for (Node n : delta.getNodes()) {
+            Node oldNode = this.nodesByUrl.get(n.getNodeUrl());
+            if (oldNode != null) {
+                removeNode(newNodes, copies, oldNode);
+            }
+            putNode(newNodes, copies, n);
+        }
+
+        resolveSelection(newNodes);
+        setNodes(newNodes);
+    }
+
+    /**
+     * Replace the selected items by their current version, the previous ones
+     * having been copied when applying a delta. A removed item stays selected.
+     */
+    private void resolveSelection(Map<String, NodeSource> newNodes) {
+        if (this.selectedNode != null) {
+            Node current = this.nodesByUrl.get(this.selectedNode.getNodeUrl());
+            if (current != null) {
+                this.selectedNode = current;
+            }
+        }
+        if (this.selectedHost != null) {
+            Host current = this.hostsById.get(this.selectedHost.getId());
+            if (current != null) {
+                this.selectedHost = current;
+            }
+        }
+        if (this.selectedNodeSource != null) {
+            NodeSource current = newNodes.get(this.selectedNodeSource.getSourceName());
+            if (current != null) {
+                this.selectedNodeSource = current;
+            }
+        }
+    }
+
+    private void putNode(Map<String, NodeSource> nodes, Set<Object> copies, Node n) {
+        NodeSource ns = getWritableNodeSource(nodes, copies, n.getSourceName());
+        if (ns == null) {
+            return;
+        }
+
+        String hostName = n.getHostName();
+        // deploying node
+        if (hostName == null || hostName.length() == 0) {
+            ns.getDeploying().put(n.getNodeUrl(), n);
+        }
+        // already deployed node
+        else {
+            Host host = getWritableHost(ns, copies, hostName);
+            if (host == null) {
+                host = new Host(hostName, ns.getSourceName());
+                ns.getHosts().put(hostName, host);
+                copies.add(host);
+                this.hostsById.put(host.getId(), host);
+            }
+            host.getNodes().put(n.getNodeUrl(), n);
+            if (n.getNodeUrl().toLowerCase().contains("virt-")) {
+                host.setVirtual(true);
+            }
+        }
+        this.nodesByUrl.put(n.getNodeUrl(), n);
+    }
+
+    private void removeNode(Map<String, NodeSource> nodes, Set<Object> copies, Node n) {
+        NodeSource ns = getWritableNodeSource(nodes, copies, n.getSourceName());
+        if (ns == null) {
+            return;
+        }
+
+        String hostName = n.getHostName();
+        if (hostName == null || hostName.length() == 0) {
+            ns.getDeploying().remove(n.getNodeUrl());
+        } else {
+            Host host = getWritableHost(ns, copies, hostName);
+            if (host != null) {
+                host.getNodes().remove(n.getNodeUrl());
+                if (host.getNodes().isEmpty()) {
+                    ns.getHosts().remove(hostName);
+                    this.hostsById.remove(host.getId());
+                }
+            }
+        }
+    }
+
+    /* the nodesource with the given name, copied first if it is shared with the previous nodes */
+    private NodeSource getWritableNodeSource(Map<String, NodeSource> nodes, Set<Object> copies, String nsName) {
+        NodeSource ns = nodes.get(nsName);
+        if (ns != null && !copies.contains(ns)) {
+            NodeSource copy = new NodeSource(ns.getSourceName(), ns.getSourceDescription(),
+                ns.getNodeSourceAdmin());
+            copy.getDeploying().putAll(ns.getDeploying());
+            copy.getHosts().putAll(ns.getHosts());
+            nodes.put(nsName, copy);
+            copies.add(copy);
+            ns = copy;
+        }
+        return ns;
+    }
+
+    /* the host with the given name, copied first if it is shared with the previous nodes */
+    private Host getWritableHost(NodeSource ns, Set<Object> copies, String hostName) {
+        Host host = ns.getHosts().get(hostName);
+        if (host != null && !copies.contains(host)) {
+            Host copy = new Host(hostName, ns.getSourceName());
+            copy.setVirtual(host.isVirtual());
+            copy.getNodes().putAll(host.getNodes());
+            ns.getHosts().put(hostName, copy);
+            copies.add(copy);
+            this.hostsById.put(copy.getId(), copy);
+            host = copy;
+        }
+        return host;
+    }
+
     @Override
     public Node getSelectedNode() {
         return this.selectedNode;
@@ -164,20 +410,7 @@ public class RMModelImpl extends RMModel implements RMEventDispatcher {
             this.selectedNode = null;
             this.selectedHost = null;
             this.selectedNodeSource = null;
-
-            for (NodeSource ns : this.nodes.values()) {
-                for (Node n : ns.getDeploying().values()) {
-                    if (n.getNodeUrl().equals(nodeUrl)) {
-                        this.selectedNode = n;
-                    }
-                }
-                for (Host h : ns.getHosts().values()) {
-                    for (Node n : h.getNodes().values()) {
-                        if (n.getNodeUrl().equals(nodeUrl))
-                            this.selectedNode = n;
-                    }
-                }
-            }
+            this.selectedNode = this.nodesByUrl.get(nodeUrl);
             for (NodeSelectedListener list : this.nodeSelectedListeners) {
                 list.nodeSelected(this.selectedNode);
             }
@@ -205,14 +438,7 @@ public class RMModelImpl extends RMModel implements RMEventDispatcher {
             this.selectedHost = null;
             this.selectedNode = null;
             this.selectedNodeSource = null;
-
-            for (NodeSource ns : this.nodes.values()) {
-                for (Host h : ns.getHosts().values()) {
-                    if (h.getId().equals(hostId)) {
-                        this.selectedHost = h;
-                    }
-                }
-            }
+            this.selectedHost = this.hostsById.get(hostId);
             for (NodeSelectedListener list : this.nodeSelectedListeners) {
                 list.hostSelected(this.selectedHost);
             }
@@ -240,11 +466,7 @@ public class RMModelImpl extends RMModel implements RMEventDispatcher {
             this.selectedNodeSource = null;
             this.selectedHost = null;
             this.selectedNode = null;
-            for (NodeSource ns : this.nodes.values()) {
-                if (ns.getSourceName().equals(nsName)) {
-                    this.selectedNodeSource = ns;
-                }
-            }
+            this.selectedNodeSource = this.nodes.get(nsName);
             for (NodeSelectedListener list : this.nodeSelectedListeners) {
                 list.nodeSourceSelected(this.selectedNodeSource);
             }
@@ -42,6 +42,7 @@ import java.util.Set;
 
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
 
 import com.google.gwt.user.client.rpc.RemoteService;
 import com.google.gwt.user.client.rpc.RemoteServiceRelativePath;
@@ -92,6 +93,24 @@ public interface RMService extends RemoteService {
      */
     String getMonitoring(String sessionId) throws RestServerException, ServiceException;
 
+    /**
+     * Changes in the nodes currently held by the RM since the last call of the same session.
+     * Above the configured summary threshold, only the nodes of the loaded nodesources
+     * are sent, along with the number of nodes per state of every nodesource
+     * @param sessionId current session
+     * @param revision revision of the last delta applied by the client, or -1
+     * @param loadedNodeSources names of the nodesources whose nodes are displayed by the client
+     * @param refreshNodes false to only refresh the counters and nodesources, the nodes held by the
+     * 		client being kept as they are; must be true when the loaded nodesources changed
+     * @return a JSON object containing the added, changed and removed nodes and nodesources
+     * 		and the nodes counters, or all the nodes if the revision is not the last one
+     * 		sent to the session
+     * @throws RestServerException 
+     * @throws ServiceException
+     */
+    String getMonitoringDelta(String sessionId, long revision, Set<String> loadedNodeSources, boolean refreshNodes)
+            throws RestServerException, ServiceException;
+
     /**
      * List of all supported Infrastructure Managers, and their parameters
      * @param sessionId current session
@@ -131,21 +150,23 @@ public interface RMService extends RemoteService {
      * lock a set of nodes
      * @param sessionId current session
      * @param nodeUrls nodes to lock
-     * @return true upon success
+     * @return for each node url, true if the node was locked
      * @throws RestServerException 
      * @throws ServiceException
      */
-    String lockNodes(String sessionId, Set<String> nodeUrls) throws RestServerException, ServiceException;
+    Map<String, Boolean> lockNodes(String sessionId, Set<String> nodeUrls) throws RestServerException,
+            ServiceException;
 
     /**
      * Unlock a set of nodes
      * @param sessionId current session
      * @param nodeUrls nodes to unlock
-     * @return true upon success
+     * @return for each node url, true if the node was unlocked
      * @throws RestServerException 
      * @throws ServiceException
      */
-    String unlockNodes(String sessionId, Set<String> nodeUrls) throws RestServerException, ServiceException;
+    Map<String, Boolean> unlockNodes(String sessionId, Set<String> nodeUrls) throws RestServerException,
+            ServiceException;
 
     /**
      * Release a node
@@ -157,6 +178,17 @@ public interface RMService extends RemoteService {
      */
     String releaseNode(String sessionId, String url) throws RestServerException, ServiceException;
 
+    /**
+     * Release a set of nodes
+     * @param sessionId current session
+     * @param nodeUrls nodes to release
+     * @return for each node url, true if the node was released
+     * @throws RestServerException 
+     * @throws ServiceException
+     */
+    Map<String, Boolean> releaseNodes(String sessionId, Set<String> nodeUrls) throws RestServerException,
+            ServiceException;
+
     /**
      * Remove a node
      * @param sessionId currend session
@@ -169,6 +201,18 @@ public interface RMService extends RemoteService {
     String removeNode(String sessionId, String url, boolean force) throws RestServerException,
             ServiceException;
 
+    /**
+     * Remove a set of nodes
+     * @param sessionId current session
+     * @param nodeUrls nodes to remove
+     * @param force do not wait for task completion
+     * @return for each node url, true if the node was removed
+     * @throws RestServerException 
+     * @throws ServiceException
+     */
+    Map<String, Boolean> removeNodes(String sessionId, Set<String> nodeUrls, boolean force)
+            throws RestServerException, ServiceException;
+
     /**
      * Remove a node
      * @param sessionId currend session
@@ -211,9 +255,21 @@ public interface RMService extends RemoteService {
     String getNodeMBeanInfo(String sessionId, String nodeJmxUrl, String objectName, List<String> attrs)
             throws RestServerException, ServiceException;
 
-    String getNodeMBeanHistory(String sessionId, String jmxServerUrl, String mbeanName, List<String> strings, String timeRange) throws RestServerException, ServiceException;
+    /**
+     * Retrieves the history of attributes of the specified mbean.
+     *
+     * @param maxPoints maximum number of points of each series, typically the width of the chart in pixels,
+     *        the series being downsampled when longer. 0 for all the points
+     */
+    String getNodeMBeanHistory(String sessionId, String jmxServerUrl, String mbeanName, List<String> strings, String timeRange, int maxPoints) throws RestServerException, ServiceException;
 
-    String getNodeMBeansHistory(String sessionId, String nodeJmxUrl, String objectName, List<String> attrs, String timeRange)
+    /**
+     * Retrieves the history of attributes of the specified mbeans.
+     *
+     * @param maxPoints maximum number of points of each series, typically the width of the chart in pixels,
+     *        the series being downsampled when longer. 0 for all the points
+     */
+    String getNodeMBeansHistory(String sessionId, String nodeJmxUrl, String objectName, List<String> attrs, String timeRange, int maxPoints)
             throws RestServerException, ServiceException;
 
     /**
@@ -229,6 +285,21 @@ public interface RMService extends RemoteService {
     String getNodeMBeansInfo(String sessionId, String nodeJmxUrl, String objectNames, List<String> attrs)
             throws RestServerException, ServiceException;
 
+    /**
+     * Retrieves attributes of several mbeans of the same node at once,
+     * the queries being resolved concurrently.
+     *
+     * @param sessionId current session
+     * @param nodeJmxUrl mbean server url
+     * @param queries mbean attributes to fetch, current values or history
+     *
+     * @return for each query in the same order, the mbean attributes values,
+     *         or null if this query failed
+     * @throws RestServerException if all the queries failed
+     */
+    List<String> getNodeMBeansBatch(String sessionId, String nodeJmxUrl, List<MBeanQuery> queries)
+            throws RestServerException, ServiceException;
+
     /**
      * Statistic history for the following values:<pre>
      * 	{ "BusyNodesCount",
@@ -248,9 +319,11 @@ public interface RMService extends RemoteService {
      *            <li>'w' 1 week
      *            <li>'M' 1 month
      *            <li>'y' 1 year</ul>
+     * @param maxPoints maximum number of points of each source, the series being downsampled when longer.
+     *      0 for all the points
      * @return will contain the server response, a JSON object containing a key for each source
      */
-    String getStatHistory(String sessionId, String range) throws RestServerException, ServiceException;
+    String getStatHistory(String sessionId, String range, int maxPoints) throws RestServerException, ServiceException;
 
     /**
      * Executes a script on a node
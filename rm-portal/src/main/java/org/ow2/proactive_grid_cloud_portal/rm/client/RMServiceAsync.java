@@ -43,6 +43,7 @@ import java.util.Set;
 import org.ow2.proactive_grid_cloud_portal.common.client.Model;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
 
 import com.google.gwt.http.client.Request;
 import com.google.gwt.user.client.rpc.AsyncCallback;
@@ -89,6 +90,21 @@ public interface RMServiceAsync {
      */
     void getMonitoring(String sessionId, AsyncCallback<String> callback);
 
+    /**
+     * Changes in the nodes currently held by the RM since the last call of the same session.
+     * Above the configured summary threshold, only the nodes of the loaded nodesources
+     * are sent, along with the number of nodes per state of every nodesource
+     * @param sessionId current session
+     * @param revision revision of the last delta applied by the client, or -1
+     * @param loadedNodeSources names of the nodesources whose nodes are displayed by the client
+     * @param refreshNodes false to only refresh the counters and nodesources, the nodes held by the
+     * 		client being kept as they are; must be true when the loaded nodesources changed
+     * @param callback async callback to return a JSON object containing the added, changed
+     * 		and removed nodes and nodesources and the nodes counters
+     */
+    void getMonitoringDelta(String sessionId, long revision, Set<String> loadedNodeSources, boolean refreshNodes,
+            AsyncCallback<String> callback);
+
     /**
      * List of all supported Infrastructure Managers, and their parameters
      * @param sessionId current session
@@ -124,17 +140,17 @@ public interface RMServiceAsync {
      * Lock a set of nodes
      * @param sessionId current session
      * @param nodeUrls urls of nodes to lock
-     * @param callback true upon success
+     * @param callback for each node url, true if the node was locked
      */
-    void lockNodes(String sessionId, Set<String> nodeUrls, AsyncCallback<String> callback);
+    void lockNodes(String sessionId, Set<String> nodeUrls, AsyncCallback<Map<String, Boolean>> callback);
 
     /**
      * Unlock a set of nodes
      * @param sessionId current session
      * @param nodeUrls urls of nodes to unlock
-     * @param callback true upon success
+     * @param callback for each node url, true if the node was unlocked
      */
-    void unlockNodes(String sessionId, Set<String> nodeUrls, AsyncCallback<String> callback);
+    void unlockNodes(String sessionId, Set<String> nodeUrls, AsyncCallback<Map<String, Boolean>> callback);
 
     /**
      * Release a node
@@ -144,6 +160,14 @@ public interface RMServiceAsync {
      */
     void releaseNode(String sessionId, String url, AsyncCallback<String> callback);
 
+    /**
+     * Release a set of nodes
+     * @param sessionId current session
+     * @param nodeUrls urls of nodes to release
+     * @param callback for each node url, true if the node was released
+     */
+    void releaseNodes(String sessionId, Set<String> nodeUrls, AsyncCallback<Map<String, Boolean>> callback);
+
     /**
      * Remove a node
      * @param sessionId current session
@@ -153,6 +177,16 @@ public interface RMServiceAsync {
      */
     void removeNode(String sessionId, String url, boolean force, AsyncCallback<String> callback);
 
+    /**
+     * Remove a set of nodes
+     * @param sessionId current session
+     * @param nodeUrls urls of nodes to remove
+     * @param force do not wait for task completion
+     * @param callback for each node url, true if the node was removed
+     */
+    void removeNodes(String sessionId, Set<String> nodeUrls, boolean force,
+            AsyncCallback<Map<String, Boolean>> callback);
+
     /**
      * Remove a node source
      * @param sessionId current session
@@ -202,10 +236,35 @@ public interface RMServiceAsync {
     void getNodeMBeansInfo(String sessionId, String nodeJmxUrl, String objectNames, List<String> attrs,
             AsyncCallback<String> callback);
 
-    void getNodeMBeanHistory(String sessionId, String nodeJmxUrl, String objectName, List<String> attrs, String timeRange, AsyncCallback callback)
+    /**
+     * Retrieves attributes of several mbeans of the same node at once,
+     * the queries being resolved concurrently.
+     *
+     * @param sessionId current session
+     * @param nodeJmxUrl mbean server url
+     * @param queries mbean attributes to fetch, current values or history
+     * @param callback will return for each query in the same order, the mbean attributes values,
+     *        or null if this query failed
+     */
+    void getNodeMBeansBatch(String sessionId, String nodeJmxUrl, List<MBeanQuery> queries,
+            AsyncCallback<List<String>> callback);
+
+    /**
+     * Retrieves the history of attributes of the specified mbean.
+     *
+     * @param maxPoints maximum number of points of each series, typically the width of the chart in pixels,
+     *        the series being downsampled when longer. 0 for all the points
+     */
+    void getNodeMBeanHistory(String sessionId, String nodeJmxUrl, String objectName, List<String> attrs, String timeRange, int maxPoints, AsyncCallback callback)
             throws RestServerException, ServiceException;
 
-    void getNodeMBeansHistory(String sessionId, String nodeJmxUrl, String objectName, List<String> attrs, String timeRange, AsyncCallback callback)
+    /**
+     * Retrieves the history of attributes of the specified mbeans.
+     *
+     * @param maxPoints maximum number of points of each series, typically the width of the chart in pixels,
+     *        the series being downsampled when longer. 0 for all the points
+     */
+    void getNodeMBeansHistory(String sessionId, String nodeJmxUrl, String objectName, List<String> attrs, String timeRange, int maxPoints, AsyncCallback callback)
             throws RestServerException, ServiceException;
 
     /**
@@ -227,10 +286,12 @@ public interface RMServiceAsync {
      *            <li>'w' 1 week
      *            <li>'M' 1 month
      *            <li>'y' 1 year</ul>
+     * @param maxPoints maximum number of points of each source, the series being downsampled when longer.
+     *      0 for all the points
      * @param callback will contain the server response, a JSON object containing a key for each source
      * @return
      */
-    Request getStatHistory(String sessionId, String range, AsyncCallback<String> callback);
+    Request getStatHistory(String sessionId, String range, int maxPoints, AsyncCallback<String> callback);
 
     /**
      * Executes a script on a node
@@ -46,7 +46,6 @@ import org.ow2.proactive_grid_cloud_portal.common.client.Model.StatHistory.Range
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMListeners.NodesListener;
 
 import com.google.gwt.i18n.client.DateTimeFormat;
-import com.google.gwt.i18n.client.DateTimeFormat.PredefinedFormat;
 import com.google.gwt.user.client.ui.AbsolutePanel;
 import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
 import com.google.gwt.visualization.client.DataTable;
@@ -334,10 +333,10 @@ public class RMStatsView implements StatsListener, NodesListener {
         long now = new Date().getTime() / 1000;
         long dur = freeNodes.range.getDuration();
         long step = dur / freeNodes.values.size();
+        DateTimeFormat nodeLineFormat = DateTimeFormat.getFormat(freeNodes.range.getFormat());
         for (int i = 0; i < freeNodes.values.size(); i++) {
             long t = now - dur + step * i;
-            PredefinedFormat format = freeNodes.range.getFormat();
-            String timeStamp = DateTimeFormat.getFormat(format).format(new Date(t * 1000));
+            String timeStamp = nodeLineFormat.format(new Date(t * 1000));
 
             nodeLineTable.setValue(i, nodeLineTimeId, timeStamp);
 
@@ -365,10 +364,10 @@ public class RMStatsView implements StatsListener, NodesListener {
         loadTable.addRows(loadHist.values.size());
         dur = loadHist.range.getDuration();
         step = dur / loadHist.values.size();
+        DateTimeFormat loadFormat = DateTimeFormat.getFormat(loadHist.range.getFormat());
         for (int i = 0; i < loadHist.values.size(); i++) {
             long t = now - dur + step * i;
-            PredefinedFormat format = loadHist.range.getFormat();
-            String timeStamp = DateTimeFormat.getFormat(format).format(new Date(t * 1000));
+            String timeStamp = loadFormat.format(new Date(t * 1000));
 
             loadTable.setValue(i, loadTimeId, timeStamp);
             loadTable.setValue(i, loadValId, loadHist.values.get(i));
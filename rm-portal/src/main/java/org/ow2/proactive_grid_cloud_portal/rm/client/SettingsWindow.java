@@ -36,10 +36,13 @@
  */
 package org.ow2.proactive_grid_cloud_portal.rm.client;
 
+import java.util.LinkedHashMap;
+
 import org.ow2.proactive_grid_cloud_portal.common.client.Images;
 import org.ow2.proactive_grid_cloud_portal.rm.shared.RMConfig;
 
 import com.smartgwt.client.data.DataSource;
+import com.smartgwt.client.data.fields.DataSourceEnumField;
 import com.smartgwt.client.data.fields.DataSourceIntegerField;
 import com.smartgwt.client.types.Alignment;
 import com.smartgwt.client.widgets.IButton;
@@ -91,8 +94,16 @@ public class SettingsWindow {
         refreshValidator.setMax(60000);
         refreshTime.setValidators(new IsIntegerValidator(), refreshValidator);
 
+        DataSourceEnumField compactView = new DataSourceEnumField("compactView", "Compact view");
+        LinkedHashMap<String, String> compactViewModes = new LinkedHashMap<String, String>();
+        compactViewModes.put(RMConfig.COMPACT_VIEW_AUTO, "Automatic");
+        compactViewModes.put(RMConfig.COMPACT_VIEW_TILES, "Tiles");
+        compactViewModes.put(RMConfig.COMPACT_VIEW_HEATMAP, "Heat map");
+        compactView.setValueMap(compactViewModes);
+        compactView.setRequired(true);
+
         final DataSource ds = new DataSource();
-        ds.setFields(refreshTime);
+        ds.setFields(refreshTime, compactView);
 
         final DynamicForm form = new DynamicForm();
         form.setDataSource(ds);
@@ -100,6 +111,7 @@ public class SettingsWindow {
         form.setWidth(350);
         form.setMargin(10);
         form.setValue("refreshTime", RMConfig.get().getClientRefreshTime());
+        form.setValue("compactView", RMConfig.get().getCompactViewMode());
 
         final IButton applyButton = new IButton("Ok");
         applyButton.setIcon(Images.instance.ok_16().getSafeUri().asString());
@@ -109,8 +121,9 @@ public class SettingsWindow {
                     return;
 
                 String refreshTime = form.getValueAsString("refreshTime");
+                String compactView = form.getValueAsString("compactView");
 
-                controller.setUserSettings(refreshTime);
+                controller.setUserSettings(refreshTime, compactView);
                 window.hide();
             }
         });
@@ -120,9 +133,11 @@ public class SettingsWindow {
             public void onClick(ClickEvent event) {
                 RMConfig.get().reload();
                 int refresh = RMConfig.get().getClientRefreshTime();
+                String compactView = RMConfig.get().getCompactViewMode();
 
                 form.setValue("refreshTime", refresh);
-                controller.setUserSettings("" + refresh);
+                form.setValue("compactView", compactView);
+                controller.setUserSettings("" + refresh, compactView);
             }
         });
 
@@ -36,9 +36,10 @@
  */
 package org.ow2.proactive_grid_cloud_portal.rm.client;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.ow2.proactive_grid_cloud_portal.common.client.Images;
 import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host;
@@ -59,6 +60,10 @@ import com.smartgwt.client.widgets.tree.Tree;
 import com.smartgwt.client.widgets.tree.TreeGrid;
 import com.smartgwt.client.widgets.tree.TreeGridField;
 import com.smartgwt.client.widgets.tree.TreeNode;
+import com.smartgwt.client.widgets.tree.events.FolderClosedEvent;
+import com.smartgwt.client.widgets.tree.events.FolderClosedHandler;
+import com.smartgwt.client.widgets.tree.events.FolderOpenedEvent;
+import com.smartgwt.client.widgets.tree.events.FolderOpenedHandler;
 import com.smartgwt.client.widgets.tree.events.NodeClickEvent;
 import com.smartgwt.client.widgets.tree.events.NodeClickHandler;
 import com.smartgwt.client.widgets.tree.events.NodeContextClickEvent;
@@ -69,6 +74,9 @@ import com.smartgwt.client.widgets.tree.events.NodeContextClickHandler;
  * Displays current nodes in a hierarchical tree view
  * <p>
  * NodeSource > Host > Node
+ * <p>
+ * The children of a nodesource or a host are only added to the tree while it is expanded,
+ * and a refresh only walks the nodesources and hosts that are not shared with the previous nodes.
  * 
  * 
  * 
@@ -87,7 +95,7 @@ public class TreeView implements NodesListener, NodeSelectedListener {
 
     /** parameter for {@link #nodesUpdated(Map)} last time it was called */
     private Map<String, NodeSource> oldNodes = null;
-    /** treenodes currently held by {@link #tree} */
+    /** treenodes currently held by {@link #tree}, by nodesource name, host id or node url */
     private HashMap<String, TreeNode> curNodes = null;
 
     /** prevent event cycling */
@@ -104,6 +112,8 @@ public class TreeView implements NodesListener, NodeSelectedListener {
 
     private class THost extends TreeNode {
         Host rmHost = null;
+        /** true if the nodes of {@link #rmHost} are in the tree */
+        boolean childrenLoaded = false;
 
         public THost(String name, Host h) {
             super(name);
@@ -113,6 +123,8 @@ public class TreeView implements NodesListener, NodeSelectedListener {
 
     private class TNS extends TreeNode {
         NodeSource rmNS = null;
+        /** true if the deploying nodes and hosts of {@link #rmNS} are in the tree */
+        boolean childrenLoaded = false;
 
         public TNS(String name, NodeSource ns) {
             super(name);
@@ -171,6 +183,34 @@ public class TreeView implements NodesListener, NodeSelectedListener {
             }
         });
 
+        // children are added when a folder is expanded, and removed when it is collapsed;
+        // in summary mode, the hosts of a nodesource are also fetched when it is expanded
+        this.treeGrid.addFolderOpenedHandler(new FolderOpenedHandler() {
+            @Override
+            public void onFolderOpened(FolderOpenedEvent event) {
+                TreeNode n = event.getNode();
+                if (n instanceof TNS) {
+                    loadChildren((TNS) n);
+                    controller.loadNodeSource(((TNS) n).rmNS.getSourceName());
+                } else if (n instanceof THost) {
+                    loadChildren((THost) n);
+                }
+            }
+        });
+        this.treeGrid.addFolderClosedHandler(new FolderClosedHandler() {
+            @Override
+            public void onFolderClosed(FolderClosedEvent event) {
+                TreeNode n = event.getNode();
+                if (n instanceof TNS) {
+                    ((TNS) n).childrenLoaded = false;
+                    removeChildren(n);
+                } else if (n instanceof THost) {
+                    ((THost) n).childrenLoaded = false;
+                    removeChildren(n);
+                }
+            }
+        });
+
         this.treeGrid.addNodeContextClickHandler(new NodeContextClickHandler() {
             @Override
             public void onNodeContextClick(NodeContextClickEvent event) {
@@ -250,141 +290,267 @@ public class TreeView implements NodesListener, NodeSelectedListener {
      * @see org.ow2.proactive_grid_cloud_portal.rm.client.Listeners.NodesListener#nodesUpdated(java.util.Map)
      */
     public void nodesUpdated(Map<String, NodeSource> nodes) {
-
-        /* Add to _this.tree_ the nodes contained in _nodes_ but not present
-         * in _oldNodes_
-         */
+        RMModel model = controller.getModel();
         for (NodeSource ns : nodes.values()) {
             String nsName = ns.getSourceName();
-            TNS nsTreeNode = new TNS(nsName + " <span style='color:#777;'>" + ns.getSourceDescription() +
-                ", Owner: " + ns.getNodeSourceAdmin() + "</span>", ns);
-            nsTreeNode.setAttribute("nodeId", nsName);
-            nsTreeNode.setIcon(RMImages.instance.nodesource_16().getSafeUri().asString());
-
-            /* NodeSources */
-            NodeSource oldNs = (oldNodes != null) ? oldNodes.get(nsName) : null;
-            if (oldNs == null) {
+            String nsTitle = nsName + " <span style='color:#777;'>" + ns.getSourceDescription() +
+                ", Owner: " + ns.getNodeSourceAdmin() + "</span>";
+            /* hosts not fetched yet: show the number of nodes instead */
+            if (!model.isNodeSourceLoaded(nsName)) {
+                nsTitle += " <span style='color:#777;'>(" +
+                    NodeState.formatCounts(model.getNodeSourceStates(nsName)) + ")</span>";
+            }
+
+            /* new NodeSource: its children are added when it is expanded */
+            TNS nsTreeNode = (TNS) this.curNodes.get(nsName);
+            if (nsTreeNode == null) {
+                nsTreeNode = new TNS(nsTitle, ns);
+                nsTreeNode.setAttribute("nodeId", nsName);
+                nsTreeNode.setIcon(RMImages.instance.nodesource_16().getSafeUri().asString());
+                nsTreeNode.setIsFolder(true);
                 this.tree.add(nsTreeNode, this.tree.getRoot());
                 this.curNodes.put(nsName, nsTreeNode);
+                continue;
+            }
+            if (!nsTitle.equals(nsTreeNode.getAttribute("name"))) {
+                nsTreeNode.setAttribute("name", nsTitle);
             }
 
-            for (Node n : ns.getDeploying().values()) {
-                String nodeUrl = n.getNodeUrl();
-                TNode nodeTreeNode = new TNode(nodeUrl, n);
-                nodeTreeNode.setAttribute("nodeId", nodeUrl);
-
-                /* Deploying nodes */
-                Node oldNode = (oldNs != null) ? oldNs.getDeploying().get(nodeUrl) : null;
-                if (oldNode == null) {
-                    this.tree.add(nodeTreeNode, this.curNodes.get(nsName));
-                    this.curNodes.put(nodeUrl, nodeTreeNode);
-                    nodeTreeNode.setIcon(n.getNodeState().getIcon());
-                } else {
-                    this.curNodes.get(nodeUrl).setIcon(n.getNodeState().getIcon());
-                }
+            /* the model copies a nodesource before changing it: the same one holds no change */
+            NodeSource oldNs = nsTreeNode.rmNS;
+            nsTreeNode.rmNS = ns;
+            if (oldNs != ns && nsTreeNode.childrenLoaded) {
+                updateChildren(nsTreeNode, oldNs, ns);
             }
+        }
 
-            for (Host h : ns.getHosts().values()) {
-                String hostName = h.getHostName();
-                THost hostTreeNode = new THost(hostName, h);
-                hostTreeNode.setAttribute("nodeId", h.getId());
-                if (h.isVirtual()) {
-                    hostTreeNode.setIcon(RMImages.instance.host_virtual_16().getSafeUri().asString());
-                } else {
-                    hostTreeNode.setIcon(RMImages.instance.host_16().getSafeUri().asString());
-                }
+        /* NodeSources to be removed */
+        for (String nsName : this.oldNodes.keySet()) {
+            if (!nodes.containsKey(nsName) && curNodes.containsKey(nsName)) {
+                removeTreeNode(curNodes.get(nsName));
+            }
+        }
 
-                /* Hosts */
-                Host oldHost = (oldNs != null) ? oldNs.getHosts().get(hostName) : null;
-                if (oldHost == null) {
-                    this.tree.add(hostTreeNode, this.curNodes.get(nsName));
-                    this.curNodes.put(h.getId(), hostTreeNode);
-                }
+        this.oldNodes = nodes;
 
-                for (Node n : h.getNodes().values()) {
-                    String nodeUrl = n.getNodeUrl();
-                    TNode nodeTreeNode = new TNode(nodeUrl, n);
-                    nodeTreeNode.setAttribute("nodeId", nodeUrl);
-
-                    /* Deployed Nodes */
-                    Node oldNode = (oldHost != null) ? oldHost.getNodes().get(nodeUrl) : null;
-
-                    if (oldNode == null) {
-                        this.tree.add(nodeTreeNode, this.curNodes.get(h.getId()));
-                        this.curNodes.put(nodeUrl, nodeTreeNode);
-                        nodeTreeNode.setAttribute("nodeState", n.getNodeState().toString());
-                        nodeTreeNode.setIcon(n.getNodeState().getIcon());
-                    } else {
-                        TNode curTreeNode = (TNode) curNodes.get(nodeUrl);
-                        curTreeNode.setAttribute("nodeState", n.getNodeState().toString());
-                        curTreeNode.rmNode = n;
-                        curTreeNode.setIcon(n.getNodeState().getIcon());
-                    }
-                }
+        this.treeGrid.markForRedraw();
+    }
+
+    /* applies the changes between two versions of a nodesource to its expanded tree node */
+    private void updateChildren(TNS nsTreeNode, NodeSource oldNs, NodeSource ns) {
+        List<TreeNode> added = new ArrayList<TreeNode>();
+
+        /* Deploying nodes */
+        for (Node n : ns.getDeploying().values()) {
+            Node oldNode = oldNs.getDeploying().get(n.getNodeUrl());
+            if (oldNode == null) {
+                added.add(createNodeTreeNode(n));
+            } else if (oldNode != n) {
+                updateNodeTreeNode(n);
+            }
+        }
+        for (String nodeUrl : oldNs.getDeploying().keySet()) {
+            if (!ns.getDeploying().containsKey(nodeUrl) && curNodes.containsKey(nodeUrl)) {
+                removeTreeNode(curNodes.get(nodeUrl));
+            }
+        }
+
+        /* Hosts */
+        for (Host h : ns.getHosts().values()) {
+            THost hostTreeNode = (THost) curNodes.get(h.getId());
+            if (hostTreeNode == null) {
+                added.add(createHostTreeNode(h));
+                continue;
+            }
+            /* the model copies a host before changing it: the same one holds no change */
+            Host oldHost = hostTreeNode.rmHost;
+            hostTreeNode.rmHost = h;
+            if (oldHost != h && hostTreeNode.childrenLoaded) {
+                updateChildren(hostTreeNode, oldHost, h);
+            }
+        }
+        for (Host oldHost : oldNs.getHosts().values()) {
+            if (!ns.getHosts().containsKey(oldHost.getHostName()) && curNodes.containsKey(oldHost.getId())) {
+                removeTreeNode(curNodes.get(oldHost.getId()));
             }
         }
 
-        /* Remove from _this.tree_ the nodes contained in _curNodes_ but not in _nodes_
-         */
-        for (Entry<String, NodeSource> oldNs : this.oldNodes.entrySet()) {
-            /* Keep NodeSource */
-            if (nodes.containsKey(oldNs.getKey())) {
+        addTreeNodes(added, nsTreeNode);
+    }
 
-                NodeSource newNs = nodes.get(oldNs.getKey());
-                for (Entry<String, Node> oldDepl : oldNs.getValue().getDeploying().entrySet()) {
-                    /* Keep deploying Node */
-                    if (newNs.getDeploying().containsKey(oldDepl.getKey())) {
+    /* applies the changes between two versions of a host to its expanded tree node */
+    private void updateChildren(THost hostTreeNode, Host oldHost, Host h) {
+        List<TreeNode> added = new ArrayList<TreeNode>();
+        for (Node n : h.getNodes().values()) {
+            Node oldNode = oldHost.getNodes().get(n.getNodeUrl());
+            if (oldNode == null) {
+                added.add(createNodeTreeNode(n));
+            } else if (oldNode != n) {
+                updateNodeTreeNode(n);
+            }
+        }
+        for (String nodeUrl : oldHost.getNodes().keySet()) {
+            if (!h.getNodes().containsKey(nodeUrl) && curNodes.containsKey(nodeUrl)) {
+                removeTreeNode(curNodes.get(nodeUrl));
+            }
+        }
+        addTreeNodes(added, hostTreeNode);
+    }
 
-                    }
-                    /* Deploying Node to be removed */
-                    else if (curNodes.containsKey(oldDepl.getKey())) {
-                        this.tree.remove(curNodes.remove(oldDepl.getKey()));
-                    }
-                }
+    /* adds the deploying nodes and the hosts of an expanded nodesource */
+    private void loadChildren(TNS nsTreeNode) {
+        if (nsTreeNode.childrenLoaded) {
+            return;
+        }
+        nsTreeNode.childrenLoaded = true;
 
-                for (Entry<String, Host> oldHost : oldNs.getValue().getHosts().entrySet()) {
-                    /* Keep host */
-                    if (newNs.getHosts().containsKey(oldHost.getKey())) {
-
-                        Host newHost = newNs.getHosts().get(oldHost.getKey());
-                        for (Entry<String, Node> oldNode : oldHost.getValue().getNodes().entrySet()) {
-                            /* Keep node */
-                            if (newHost.getNodes().containsKey(oldNode.getKey())) {
-                            }
-                            /* Node to be removed */
-                            else if (curNodes.containsKey(oldNode.getKey())) {
-                                this.tree.remove(curNodes.remove(oldNode.getKey()));
-                            }
-                        }
+        List<TreeNode> added = new ArrayList<TreeNode>();
+        for (Node n : nsTreeNode.rmNS.getDeploying().values()) {
+            added.add(createNodeTreeNode(n));
+        }
+        for (Host h : nsTreeNode.rmNS.getHosts().values()) {
+            added.add(createHostTreeNode(h));
+        }
+        addTreeNodes(added, nsTreeNode);
+    }
 
-                    }
-                    /* Host to be removed */
-                    else if (curNodes.containsKey(oldHost.getValue().getId())) {
-                        this.tree.remove(curNodes.remove(oldHost.getValue().getId()));
-                    }
-                }
+    /* adds the nodes of an expanded host */
+    private void loadChildren(THost hostTreeNode) {
+        if (hostTreeNode.childrenLoaded) {
+            return;
+        }
+        hostTreeNode.childrenLoaded = true;
 
-            }
-            /* NodeSource to be removed */
-            else if (curNodes.containsKey(oldNs.getKey())) {
-                this.tree.remove(curNodes.remove(oldNs.getKey()));
+        List<TreeNode> added = new ArrayList<TreeNode>();
+        for (Node n : hostTreeNode.rmHost.getNodes().values()) {
+            added.add(createNodeTreeNode(n));
+        }
+        addTreeNodes(added, hostTreeNode);
+    }
+
+    /* adds the tree nodes under the same parent in one go */
+    private void addTreeNodes(List<TreeNode> treeNodes, TreeNode parent) {
+        if (!treeNodes.isEmpty()) {
+            this.tree.addList(treeNodes.toArray(new TreeNode[treeNodes.size()]), parent);
+        }
+    }
+
+    /* removes the children of a collapsed folder */
+    private void removeChildren(TreeNode folder) {
+        String folderId = folder.getAttribute("nodeId");
+        for (TreeNode tn : this.tree.getAllNodes(folder)) {
+            if (!folderId.equals(tn.getAttribute("nodeId"))) {
+                this.curNodes.remove(tn.getAttribute("nodeId"));
             }
         }
+        this.tree.removeList(this.tree.getChildren(folder));
+    }
 
-        this.oldNodes = nodes;
+    /* removes a tree node and its children */
+    private void removeTreeNode(TreeNode treeNode) {
+        for (TreeNode tn : this.tree.getAllNodes(treeNode)) {
+            this.curNodes.remove(tn.getAttribute("nodeId"));
+        }
+        this.curNodes.remove(treeNode.getAttribute("nodeId"));
+        this.tree.remove(treeNode);
+    }
 
-        this.treeGrid.markForRedraw();
+    private THost createHostTreeNode(Host h) {
+        THost hostTreeNode = new THost(h.getHostName(), h);
+        hostTreeNode.setAttribute("nodeId", h.getId());
+        hostTreeNode.setIsFolder(true);
+        if (h.isVirtual()) {
+            hostTreeNode.setIcon(RMImages.instance.host_virtual_16().getSafeUri().asString());
+        } else {
+            hostTreeNode.setIcon(RMImages.instance.host_16().getSafeUri().asString());
+        }
+        this.curNodes.put(h.getId(), hostTreeNode);
+        return hostTreeNode;
+    }
+
+    private TNode createNodeTreeNode(Node n) {
+        TNode nodeTreeNode = new TNode(n.getNodeUrl(), n);
+        nodeTreeNode.setAttribute("nodeId", n.getNodeUrl());
+        nodeTreeNode.setAttribute("nodeState", n.getNodeState().toString());
+        nodeTreeNode.setIcon(n.getNodeState().getIcon());
+        this.curNodes.put(n.getNodeUrl(), nodeTreeNode);
+        return nodeTreeNode;
+    }
+
+    private void updateNodeTreeNode(Node n) {
+        TNode curTreeNode = (TNode) curNodes.get(n.getNodeUrl());
+        if (curTreeNode == null) {
+            return;
+        }
+        curTreeNode.rmNode = n;
+        curTreeNode.setAttribute("nodeState", n.getNodeState().toString());
+        curTreeNode.setIcon(n.getNodeState().getIcon());
+    }
+
+    /* adds the children of a folder before expanding it */
+    private void open(TreeNode folder) {
+        if (folder instanceof TNS) {
+            loadChildren((TNS) folder);
+            controller.loadNodeSource(((TNS) folder).rmNS.getSourceName());
+        } else if (folder instanceof THost) {
+            loadChildren((THost) folder);
+        }
+        this.tree.openFolder(folder);
     }
 
     void expandAll() {
-        tree.openAll();
+        for (String nsName : this.oldNodes.keySet()) {
+            TreeNode nsTreeNode = curNodes.get(nsName);
+            if (nsTreeNode == null) {
+                continue;
+            }
+            open(nsTreeNode);
+            for (Host h : this.oldNodes.get(nsName).getHosts().values()) {
+                TreeNode hostTreeNode = curNodes.get(h.getId());
+                if (hostTreeNode != null) {
+                    open(hostTreeNode);
+                }
+            }
+        }
     }
 
     void closeAll() {
         tree.closeAll();
+        for (String nsName : this.oldNodes.keySet()) {
+            TreeNode nsTreeNode = curNodes.get(nsName);
+            if (nsTreeNode instanceof TNS) {
+                ((TNS) nsTreeNode).childrenLoaded = false;
+                removeChildren(nsTreeNode);
+            }
+        }
+    }
+
+    /**
+     * Expands the nodesource and the host holding the given item, so that its tree node exists
+     *
+     * @return the tree node of the given nodesource name, host id or node url, or null
+     */
+    private TreeNode reveal(String nsName, String hostName, String id) {
+        TreeNode nsTreeNode = curNodes.get(nsName);
+        if (nsTreeNode == null) {
+            return null;
+        }
+        if (!id.equals(nsName)) {
+            open(nsTreeNode);
+        }
+        if (hostName != null && hostName.length() > 0) {
+            Host h = ((TNS) nsTreeNode).rmNS.getHosts().get(hostName);
+            TreeNode hostTreeNode = (h != null) ? curNodes.get(h.getId()) : null;
+            if (hostTreeNode != null && !id.equals(h.getId())) {
+                open(hostTreeNode);
+            }
+        }
+        return curNodes.get(id);
     }
 
     private void scrollList(TreeNode tn) {
+        if (tn == null)
+            return;
         int id = treeGrid.getRecordIndex(tn);
         if (id < 0)
             return;
@@ -399,8 +565,10 @@ public class TreeView implements NodesListener, NodeSelectedListener {
         }
 
         this.treeGrid.deselectAllRecords();
-        TreeNode tn = this.curNodes.get(node.getNodeUrl());
-        this.treeGrid.selectRecord(tn, true);
+        TreeNode tn = reveal(node.getSourceName(), node.getHostName(), node.getNodeUrl());
+        if (tn != null) {
+            this.treeGrid.selectRecord(tn, true);
+        }
         scrollList(tn);
     }
 
@@ -418,7 +586,9 @@ public class TreeView implements NodesListener, NodeSelectedListener {
 
         this.treeGrid.deselectAllRecords();
         TreeNode tn = this.curNodes.get(ns.getSourceName());
-        this.treeGrid.selectRecord(tn, true);
+        if (tn != null) {
+            this.treeGrid.selectRecord(tn, true);
+        }
         scrollList(tn);
     }
 
@@ -430,8 +600,10 @@ public class TreeView implements NodesListener, NodeSelectedListener {
         }
 
         this.treeGrid.deselectAllRecords();
-        TreeNode tn = this.curNodes.get(h.getId());
-        this.treeGrid.selectRecord(tn, true);
+        TreeNode tn = reveal(h.getSourceName(), h.getHostName(), h.getId());
+        if (tn != null) {
+            this.treeGrid.selectRecord(tn, true);
+        }
         scrollList(tn);
     }
 }
@@ -45,9 +45,9 @@ import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMController;
-import org.ow2.proactive_grid_cloud_portal.rm.client.RMModel;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMServiceAsync;
 import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.Reloadable;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
 
 import com.google.gwt.i18n.client.DateTimeFormat;
 import com.google.gwt.json.client.JSONArray;
@@ -77,6 +77,9 @@ public abstract class MBeanChart extends VLayout implements Reloadable {
 
     protected final int MAX_ROWS_NUMBER = 100;
 
+    /** number of history points requested while the chart is not displayed */
+    protected static final int DEFAULT_HISTORY_POINTS = 500;
+
     protected RMController controller;
     protected String jmxServerUrl;
     protected String mbeanName;
@@ -134,14 +137,51 @@ public abstract class MBeanChart extends VLayout implements Reloadable {
     @Override
     public void reload() {
         final RMServiceAsync rm = controller.getRMService();
-        final RMModel model = controller.getModel();
+        final LoginModel loginModel = LoginModel.getInstance();
+        final MBeanQuery query = getQuery();
+
+        AsyncCallback<String> callback = createCallback();
+
+        if (query.isHistory()) {
+            try {
+                rm.getNodeMBeanHistory(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), query.getTimeRange(), query.getMaxPoints(), callback);
+            } catch (Exception e) {
+                LogModel.getInstance().logCriticalMessage(e.getMessage());
+            }
+        } else {
+            rm.getNodeMBeanInfo(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), callback);
+        }
+    }
+
+    /**
+     * @return the query fetching the values currently displayed by this chart,
+     *         so that it can be sent in a batch with the queries of other charts
+     */
+    public MBeanQuery getQuery() {
+        boolean realTime = timeRange.equals(Model.StatHistory.Range.MINUTE_1);
+        return new MBeanQuery(mbeanName, Arrays.asList(attrs), realTime ? null : String.valueOf(timeRange.getChar()),
+                getHistoryMaxPoints(), false);
+    }
+
+    /**
+     * @return the number of history points this chart can draw, one per pixel
+     */
+    protected int getHistoryMaxPoints() {
+        int width = chartContainer.getOffsetWidth();
+        return width > 0 ? width : DEFAULT_HISTORY_POINTS;
+    }
+
+    /**
+     * @return a callback updating this chart with the result of the query returned by {@link #getQuery()}
+     */
+    public AsyncCallback<String> createCallback() {
         final long t = System.currentTimeMillis();
 
         final boolean realTime = timeRange.equals(Model.StatHistory.Range.MINUTE_1);
 
         final LoginModel loginModel = LoginModel.getInstance();
-        
-        AsyncCallback callback = new AsyncCallback<String>() {
+
+        return new AsyncCallback<String>() {
             public void onSuccess(String result) {
                 if (onFinish != null) {
                     onFinish.run();
@@ -168,16 +208,10 @@ public abstract class MBeanChart extends VLayout implements Reloadable {
                 }
             }
         };
+    }
 
-        if (realTime) {
-            rm.getNodeMBeanInfo(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), callback);
-        } else {
-            try {
-                rm.getNodeMBeanHistory(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), String.valueOf(timeRange.getChar()), callback);
-            } catch (Exception e) {
-                LogModel.getInstance().logCriticalMessage(e.getMessage());
-            }
-        }
+    public String getJmxServerUrl() {
+        return jmxServerUrl;
     }
 
     protected int getJsonInternalSize(JSONObject json) {
@@ -231,15 +265,15 @@ public abstract class MBeanChart extends VLayout implements Reloadable {
         long dur = timeRange.getDuration();
         long size = getJsonInternalSize(json);
         long step = dur / size;
+        DateTimeFormat format = DateTimeFormat.getFormat(timeRange.getFormat());
 
+        loadTable.addRows((int) size);
         for (int i=0; i < size; i++) {
 
             double[] slice = getJsonSlice(json, i);
             long t = now - dur + step * i;
-            DateTimeFormat.PredefinedFormat format = timeRange.getFormat();
-            String timeStamp = DateTimeFormat.getFormat(format).format(new Date(t * 1000));
+            String timeStamp = format.format(new Date(t * 1000));
 
-            loadTable.addRow();
             loadTable.setValue(i, 0, timeStamp);
 
             for (int sliceIndex = 0; sliceIndex < slice.length; sliceIndex++) {
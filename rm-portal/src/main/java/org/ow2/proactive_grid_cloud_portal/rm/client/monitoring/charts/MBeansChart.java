@@ -38,13 +38,11 @@ package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.charts;
 
 import java.util.Arrays;
 
-import org.ow2.proactive_grid_cloud_portal.common.client.Model;
-import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMController;
-import org.ow2.proactive_grid_cloud_portal.rm.client.RMModel;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMServiceAsync;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
 
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONNumber;
@@ -65,51 +63,29 @@ public abstract class MBeansChart extends MBeanChart {
     @Override
     public void reload() {
         final RMServiceAsync rm = controller.getRMService();
-        final RMModel model = controller.getModel();
-        final long t = System.currentTimeMillis();
-        final boolean realTime = timeRange.equals(Model.StatHistory.Range.MINUTE_1);
-
         final LoginModel loginModel = LoginModel.getInstance();
-        
-        AsyncCallback<String> callback = new AsyncCallback<String>() {
-            public void onSuccess(String result) {
-                if (onFinish != null) {
-                    onFinish.run();
-                }
-                if (!loginModel.isLoggedIn())
-                    return;
-
-                LogModel.getInstance().logMessage("Fetched " + mbeanName + ":" + Arrays.toString(attrs) + " in " +
-                        (System.currentTimeMillis() - t) + "ms");
-
-                if (realTime) {
-                    processResult(result);
-                } else {
-                    processHistoryResult(result);
-                }
-            }
+        final MBeanQuery query = getQuery();
 
-            public void onFailure(Throwable caught) {
-                if (onFinish != null) {
-                    onFinish.run();
-                }
-                if (JSONUtils.getJsonErrorCode(caught) == 401) {
-                    LogModel.getInstance().logMessage("You have been disconnected from the server.");
-                }
-            }
-        };
+        AsyncCallback<String> callback = createCallback();
 
-        if (realTime) {
-            rm.getNodeMBeansInfo(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), callback);
-        } else {
+        if (query.isHistory()) {
             try {
-                rm.getNodeMBeansHistory(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), String.valueOf(timeRange.getChar()), callback);
+                rm.getNodeMBeansHistory(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), query.getTimeRange(), query.getMaxPoints(), callback);
             } catch (Exception e) {
                 LogModel.getInstance().logCriticalMessage(e.getMessage());
             }
+        } else {
+            rm.getNodeMBeansInfo(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), callback);
         }
     }
 
+    @Override
+    public MBeanQuery getQuery() {
+        MBeanQuery query = super.getQuery();
+        return new MBeanQuery(query.getObjectName(), query.getAttrs(), query.getTimeRange(), query.getMaxPoints(),
+                true);
+    }
+
     protected int getJsonInternalSize(JSONObject json) {
 
         // assuming the response structure is the following
@@ -0,0 +1,125 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
+import org.ow2.proactive_grid_cloud_portal.rm.client.RMController;
+import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.Reloadable;
+import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.charts.MBeanChart;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+
+
+/**
+ * Reloads charts of the same node at once, their queries being sent in a single batch
+ */
+public class MBeanChartsBatch implements Reloadable {
+
+    private RMController controller;
+    private MBeanChart[] charts;
+    private boolean reloading = false;
+
+    private Runnable onFinish;
+
+    public MBeanChartsBatch(RMController controller, MBeanChart... charts) {
+        this.controller = controller;
+        this.charts = charts;
+    }
+
+    public synchronized void stopReloading() {
+        reloading = false;
+    }
+
+    public void reload() {
+        if (reloading || charts.length == 0) {
+            return;
+        }
+        reloading = true;
+
+        final List<MBeanQuery> queries = new ArrayList<MBeanQuery>(charts.length);
+        final List<AsyncCallback<String>> callbacks = new ArrayList<AsyncCallback<String>>(charts.length);
+        for (MBeanChart chart : charts) {
+            queries.add(chart.getQuery());
+            callbacks.add(chart.createCallback());
+        }
+
+        controller.getRMService().getNodeMBeansBatch(LoginModel.getInstance().getSessionId(),
+                charts[0].getJmxServerUrl(), queries, new AsyncCallback<List<String>>() {
+                    public void onSuccess(List<String> results) {
+                        if (!reloading) {
+                            return;
+                        }
+                        for (int i = 0; i < callbacks.size(); i++) {
+                            String result = results.get(i);
+                            if (result != null) {
+                                callbacks.get(i).onSuccess(result);
+                            } else {
+                                callbacks.get(i).onFailure(new Exception("Failed to fetch " + queries.get(i)));
+                            }
+                        }
+                        finish();
+                    }
+
+                    public void onFailure(Throwable caught) {
+                        if (!reloading) {
+                            return;
+                        }
+                        for (AsyncCallback<String> callback : callbacks) {
+                            callback.onFailure(caught);
+                        }
+                        finish();
+                    }
+                });
+    }
+
+    private void finish() {
+        reloading = false;
+        if (onFinish != null) {
+            onFinish.run();
+        }
+    }
+
+    @Override
+    public void onFinish(Runnable onFinish) {
+        this.onFinish = onFinish;
+    }
+
+}
@@ -53,14 +53,14 @@ public class MemoryView extends VLayout implements Reloadable {
     private MBeanChart ram;
     private MBeanChart swap;
 
-    private ReloadableChain chain;
+    private MBeanChartsBatch chain;
 
     public MemoryView(RMController controller, String url) {
         // memory view
         ram = new MemoryLineChart(controller, url);
         swap = new SwapLineChart(controller, url);
 
-        chain = new ReloadableChain(ram, swap);
+        chain = new MBeanChartsBatch(controller, ram, swap);
 
         setWidth100();
         addMember(ram);
@@ -67,7 +67,7 @@ import com.smartgwt.client.widgets.tab.TabSet;
 public class MonitoringNodeView extends VLayout implements AsyncCallback<String> {
 
     private Timer updater = null;
-    private ReloadableChain chain;
+    private MBeanChartsBatch chain;
     private TabSet tabs;
     private Label status;
 
@@ -105,7 +105,7 @@ public class MonitoringNodeView extends VLayout implements AsyncCallback<String>
         jvmDetails.load(controller, nodeUrl, "java.lang:type=Runtime", Arrays.asList(jvmAttrs));
         jvmDetails.setWidth100();
 
-        chain = new ReloadableChain(heapMemory, threads, classes, cpuUsage);
+        chain = new MBeanChartsBatch(controller, heapMemory, threads, classes, cpuUsage);
 
         HLayout firstRow = new HLayout();
         HLayout secondRow = new HLayout();
@@ -47,6 +47,7 @@ import org.ow2.proactive_grid_cloud_portal.rm.client.RMController;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMModel;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMServiceAsync;
 import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.Reloadable;
+import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.charts.MBeanChart;
 import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.charts.MBeanDetailedView;
 import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.charts.NetworkDetailedAreaChart;
 
@@ -67,7 +68,7 @@ import com.smartgwt.client.widgets.viewer.DetailViewerRecord;
 public class NetworkView extends VLayout implements Reloadable {
 
     private Runnable onFinish;
-    private ReloadableChain chain;
+    private MBeanChartsBatch chain;
 
     public NetworkView(final RMController controller, final String url) {
         setWidth100();
@@ -108,7 +109,7 @@ public class NetworkView extends VLayout implements Reloadable {
         final RMServiceAsync rm = controller.getRMService();
         final RMModel model = controller.getModel();
         final long t = System.currentTimeMillis();
-        final List<Reloadable> charts = new LinkedList<Reloadable>();
+        final List<MBeanChart> charts = new LinkedList<MBeanChart>();
 
         final LoginModel loginModel = LoginModel.getInstance();
         
@@ -156,7 +157,7 @@ public class NetworkView extends VLayout implements Reloadable {
                             }
 
                             synchronized (NetworkView.this) {
-                                chain = new ReloadableChain(charts.toArray(new Reloadable[charts.size()]));
+                                chain = new MBeanChartsBatch(controller, charts.toArray(new MBeanChart[charts.size()]));
                                 if (onFinish != null) {
                                     chain.onFinish(onFinish);
                                 }
@@ -64,7 +64,7 @@ public class Overview extends VLayout implements Reloadable {
     private MBeanChart network;
     private MBeanChart disk;
 
-    private ReloadableChain chain;
+    private MBeanChartsBatch chain;
 
     public Overview(RMController controller, String url, AsyncCallback<String> extraCallback) {
 
@@ -78,7 +78,7 @@ public class Overview extends VLayout implements Reloadable {
 
         disk.reload();
 
-        chain = new ReloadableChain(cpuUsage, memory, network);
+        chain = new MBeanChartsBatch(controller, cpuUsage, memory, network);
 
         VLayout osInfoRow = new VLayout();
         HLayout cpuMemRow = new HLayout();
@@ -0,0 +1,299 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Reduces the number of points of history series with the Largest-Triangle-Three-Buckets algorithm,
+ * which keeps the visual shape of a series (peaks and drops) when drawn on a small number of pixels.
+ * <p>
+ * Points are assumed evenly spaced, as they are in RRD histories: the point kept for each bucket
+ * is later drawn at the position of the bucket, which is off by less than a bucket width.
+ */
+final class HistoryDownsampling {
+
+    private HistoryDownsampling() {
+    }
+
+    /**
+     * Downsamples each array of numbers found in a JSON history document, including the ones
+     * in nested JSON documents escaped as strings. The rest of the document is left untouched,
+     * the values of the points that are kept are copied as they are.
+     * <p>
+     * Arrays of the same length are the series of the same time range, they keep the same points
+     * so that they stay aligned in time.
+     *
+     * @param json history document
+     * @param maxPoints maximum number of points to keep in each series, no downsampling if lower than 3
+     * @return the downsampled document
+     */
+    static String downsample(String json, int maxPoints) {
+        if (maxPoints < 3 || json == null) {
+            return json;
+        }
+
+        /* bounds and tokens of each array to downsample, series grouped by length */
+        List<int[]> bounds = new ArrayList<>();
+        List<List<String>> arrays = new ArrayList<>();
+        Map<Integer, List<double[]>> seriesByLength = new HashMap<>();
+
+        int start = json.indexOf('[');
+        while (start >= 0) {
+            int end = json.indexOf(']', start);
+            if (end < 0) {
+                break;
+            }
+
+            List<String> tokens = readNumbers(json, start + 1, end);
+            if (tokens != null && tokens.size() > maxPoints) {
+                bounds.add(new int[] { start, end });
+                arrays.add(tokens);
+                List<double[]> series = seriesByLength.get(tokens.size());
+                if (series == null) {
+                    series = new ArrayList<>();
+                    seriesByLength.put(tokens.size(), series);
+                }
+                series.add(toValues(tokens));
+            }
+            start = json.indexOf('[', tokens != null ? end : start + 1);
+        }
+
+        if (arrays.isEmpty()) {
+            return json;
+        }
+
+        Map<Integer, int[]> selections = new HashMap<>();
+        for (Map.Entry<Integer, List<double[]>> series : seriesByLength.entrySet()) {
+            double[][] values = series.getValue().toArray(new double[series.getValue().size()][]);
+            selections.put(series.getKey(), largestTriangleThreeBuckets(values, maxPoints));
+        }
+
+        StringBuilder result = new StringBuilder(json.length());
+        int copied = 0;
+        for (int i = 0; i < arrays.size(); i++) {
+            List<String> tokens = arrays.get(i);
+            result.append(json, copied, bounds.get(i)[0] + 1);
+            appendSelection(result, tokens, selections.get(tokens.size()));
+            copied = bounds.get(i)[1];
+        }
+        return result.append(json, copied, json.length()).toString();
+    }
+
+    /**
+     * @param values evenly spaced points, NaN for missing ones
+     * @param threshold number of points to keep
+     * @return the sorted indexes of the points to keep: the first one, the last one,
+     *         and the point of each bucket forming the largest triangle with its neighbours
+     */
+    static int[] largestTriangleThreeBuckets(double[] values, int threshold) {
+        return largestTriangleThreeBuckets(new double[][] { values }, threshold);
+    }
+
+    /**
+     * Selects the same points in several series sampled at the same times: the area of a point
+     * is the sum of its triangle areas in each series, relative to the range of values of the series
+     * so that a series with large values does not hide the peaks of the others.
+     *
+     * @param series series of the same length, NaN for missing points
+     * @param threshold number of points to keep
+     * @return the sorted indexes of the points to keep in every series
+     */
+    static int[] largestTriangleThreeBuckets(double[][] series, int threshold) {
+        int n = series[0].length;
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        double[] scales = new double[series.length];
+        for (int s = 0; s < series.length; s++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (double value : series[s]) {
+                if (!Double.isNaN(value)) {
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            scales[s] = max > min ? 1 / (max - min) : 1;
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+
+        int a = 0;
+        // last value of each series that was not missing, a gap must not hide the points around it
+        double[] aValues = new double[series.length];
+        for (int s = 0; s < series.length; s++) {
+            aValues[s] = series[s][0];
+        }
+        double[] avgX = new double[series.length];
+        double[] avgY = new double[series.length];
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // average of the next bucket, the third point of the triangles
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            for (int s = 0; s < series.length; s++) {
+                avgX[s] = 0;
+                avgY[s] = 0;
+                int avgCount = 0;
+                for (int i = nextStart; i < nextEnd; i++) {
+                    if (!Double.isNaN(series[s][i])) {
+                        avgX[s] += i;
+                        avgY[s] += series[s][i];
+                        avgCount++;
+                    }
+                }
+                if (avgCount > 0) {
+                    avgX[s] /= avgCount;
+                    avgY[s] /= avgCount;
+                } else {
+                    avgX[s] = (nextStart + nextEnd - 1) / 2.0;
+                    avgY[s] = Double.NaN;
+                }
+            }
+
+            int from = (int) Math.floor(bucket * bucketSize) + 1;
+            int to = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            // a bucket with no value at all keeps a missing point, so that the gap is still drawn
+            double maxArea = -2;
+            int chosen = from;
+            for (int i = from; i < to; i++) {
+                double area = -1;
+                for (int s = 0; s < series.length; s++) {
+                    double value = series[s][i];
+                    if (Double.isNaN(value)) {
+                        continue;
+                    }
+                    double ay = Double.isNaN(aValues[s]) ? value : aValues[s];
+                    double cy = Double.isNaN(avgY[s]) ? ay : avgY[s];
+                    double seriesArea = Math.abs((a - avgX[s]) * (value - ay) - (a - i) * (cy - ay)) * scales[s];
+                    area = area < 0 ? seriesArea : area + seriesArea;
+                }
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+
+            selected[bucket + 1] = chosen;
+            a = chosen;
+            for (int s = 0; s < series.length; s++) {
+                if (!Double.isNaN(series[s][chosen])) {
+                    aValues[s] = series[s][chosen];
+                }
+            }
+        }
+
+        selected[threshold - 1] = n - 1;
+        return selected;
+    }
+
+    /**
+     * @return the tokens of a flat array of numbers and nulls between the given indexes,
+     *         or null if it contains anything else
+     */
+    private static List<String> readNumbers(String json, int from, int to) {
+        List<String> tokens = new ArrayList<>();
+        int tokenStart = -1;
+        for (int i = from; i <= to; i++) {
+            char c = i < to ? json.charAt(i) : ',';
+            if (c == ',') {
+                if (tokenStart < 0) {
+                    if (i < to || !tokens.isEmpty()) {
+                        // empty element
+                        return null;
+                    }
+                } else {
+                    String token = json.substring(tokenStart, i).trim();
+                    if (!isNumberToken(token)) {
+                        return null;
+                    }
+                    tokens.add(token);
+                    tokenStart = -1;
+                }
+            } else if (tokenStart < 0 && !Character.isWhitespace(c)) {
+                tokenStart = i;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isNumberToken(String token) {
+        if (token.equals("null") || token.equals("NaN")) {
+            return true;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (!(c >= '0' && c <= '9') && c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') {
+                return false;
+            }
+        }
+        return !token.isEmpty();
+    }
+
+    private static double[] toValues(List<String> tokens) {
+        double[] values = new double[tokens.size()];
+        for (int i = 0; i < values.length; i++) {
+            try {
+                values[i] = Double.parseDouble(tokens.get(i));
+            } catch (NumberFormatException e) {
+                values[i] = Double.NaN;
+            }
+        }
+        return values;
+    }
+
+    private static void appendSelection(StringBuilder result, List<String> tokens, int[] selected) {
+        for (int i = 0; i < selected.length; i++) {
+            if (i > 0) {
+                result.append(',');
+            }
+            result.append(tokens.get(selected[i]));
+        }
+    }
+}
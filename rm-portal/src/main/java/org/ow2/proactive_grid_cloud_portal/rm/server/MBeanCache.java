@@ -0,0 +1,223 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+
+
+/**
+ * MBean values fetched from the nodes, kept for the views monitoring the same node.
+ * <p>
+ * A value is kept for a fixed time to live, so that viewers refreshing at the monitoring period
+ * trigger a single remote query per period, however many they are and whatever their session.
+ * Concurrent requests for the same value wait for the first one instead of querying the node again.
+ * Failures are neither cached nor shared: a request waiting for a load that failed
+ * queries the node itself.
+ * <p>
+ * Values are only shared with the sessions the REST server recently let read the node:
+ * the first request of a session for a node is always sent to the REST server with its
+ * own session, and a failure revokes the authorization of the session.
+ */
+class MBeanCache {
+
+    private final ConcurrentMap<List<Object>, Entry> entries = new ConcurrentHashMap<>();
+
+    /** time at which the REST server let a session read a node, by session and node */
+    private final ConcurrentMap<List<String>, Long> authorizations = new ConcurrentHashMap<>();
+
+    private final long timeToLive;
+
+    private final long authorizationTimeToLive;
+
+    private volatile long lastEviction = System.currentTimeMillis();
+
+    /**
+     * @param timeToLive time in milliseconds during which a fetched value is returned
+     * @param authorizationTimeToLive time in milliseconds during which a session that read a node
+     *            is served the values fetched for other sessions
+     */
+    MBeanCache(long timeToLive, long authorizationTimeToLive) {
+        this.timeToLive = timeToLive;
+        this.authorizationTimeToLive = authorizationTimeToLive;
+    }
+
+    /**
+     * Returns the cached value for the given key, loading it when missing or expired, or when
+     * the session is not known to be allowed to read the node.
+     *
+     * @param sessionId the session of the request, the one used by the loader
+     * @param node url of the node the value is read from
+     * @param key identifies the value on every session, typically the node url, object name, attributes and range
+     * @param loader fetches the value from the node
+     */
+    String get(String sessionId, String node, List<Object> key, Callable<String> loader)
+            throws RestServerException, ServiceException {
+        long now = System.currentTimeMillis();
+        evictExpiredEntries(now);
+
+        List<String> authorization = Arrays.asList(sessionId, node);
+        Long authorizationTime = authorizations.get(authorization);
+        try {
+            if (authorizationTime == null || now - authorizationTime >= authorizationTimeToLive) {
+                // let the REST server check this session before sharing values with it
+                String value = load(loader);
+                authorizations.put(authorization, System.currentTimeMillis());
+                entries.put(key, new Entry(value));
+                return value;
+            }
+            return get(key, loader, now);
+        } catch (RestServerException | ServiceException e) {
+            authorizations.remove(authorization);
+            throw e;
+        }
+    }
+
+    private String get(List<Object> key, Callable<String> loader, long now)
+            throws RestServerException, ServiceException {
+        Entry entry = entries.get(key);
+        boolean loaded = false;
+        if (entry == null || entry.isExpired(now)) {
+            Entry loading = new Entry(loader);
+            boolean owner = entry == null ? entries.putIfAbsent(key, loading) == null
+                    : entries.replace(key, entry, loading);
+
+            Entry current = owner ? loading : entries.get(key);
+            if (current == null) {
+                // the concurrent load failed and was removed, do not wait for another one
+                current = loading;
+            }
+            if (current == loading) {
+                loading.value.run();
+                loaded = true;
+            }
+            entry = current;
+        }
+
+        try {
+            return entry.value.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while waiting for MBean values");
+        } catch (ExecutionException e) {
+            entries.remove(key, entry);
+            if (!loaded) {
+                // the failure belongs to another request, do not report it to this one
+                return load(loader);
+            }
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private String load(Callable<String> loader) throws RestServerException, ServiceException {
+        try {
+            return loader.call();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    private ServiceException rethrow(Throwable cause) throws RestServerException, ServiceException {
+        if (cause instanceof RestServerException) {
+            throw (RestServerException) cause;
+        } else if (cause instanceof ServiceException) {
+            throw (ServiceException) cause;
+        }
+        throw new ServiceException(cause.getMessage());
+    }
+
+    private void evictExpiredEntries(long now) {
+        if (now - lastEviction < timeToLive) {
+            return;
+        }
+        lastEviction = now;
+
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isExpired(now)) {
+                it.remove();
+            }
+        }
+
+        Iterator<Long> authorizationTimes = authorizations.values().iterator();
+        while (authorizationTimes.hasNext()) {
+            if (now - authorizationTimes.next() >= authorizationTimeToLive) {
+                authorizationTimes.remove();
+            }
+        }
+    }
+
+    private final class Entry {
+
+        private final FutureTask<String> value;
+
+        /** time at which the load completed, the entry does not expire while loading */
+        private volatile long loadTime = Long.MAX_VALUE;
+
+        private Entry(Callable<String> loader) {
+            this.value = new FutureTask<String>(loader) {
+                @Override
+                protected void done() {
+                    loadTime = System.currentTimeMillis();
+                }
+            };
+        }
+
+        private Entry(final String value) {
+            this(new Callable<String>() {
+                @Override
+                public String call() {
+                    return value;
+                }
+            });
+            this.value.run();
+        }
+
+        private boolean isExpired(long now) {
+            return now - loadTime >= timeToLive;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+
+/**
+ * The node sources and nodes of a "rm/monitoring" document, indexed by name and url
+ * so that the document can be sent to a client as a delta from the previous one it received.
+ * <p>
+ * A snapshot is immutable and holds every node, it is shared by all the sessions.
+ * Which nodes are sent to a client is decided when the delta is built.
+ * <p>
+ * A delta has the following fields:
+ * <ul>
+ * <li>{@code revision}: to send back to get the next delta</li>
+ * <li>{@code full}: true if the delta is the whole state, the client must then drop what it holds</li>
+ * <li>{@code nodeSource} and {@code nodesEvents}: added or changed node sources and nodes,
+ * in the same format as the monitoring document</li>
+ * <li>{@code removedNodeSources} and {@code removedNodes}: names and urls of removed node sources and nodes</li>
+ * <li>{@code nodeStates}, {@code physicalHosts} and {@code virtualHosts}: counters for the whole state</li>
+ * <li>{@code summary}: true if only the nodes of the node sources loaded by the client are sent,
+ * {@code nodeSourceStates} then holds the number of nodes per state of each node source</li>
+ * </ul>
+ */
+class MonitoringSnapshot {
+
+    private final long revision;
+
+    /** the document the snapshot was read from, to recognize it without parsing it again */
+    private final String document;
+
+    /** JSON text of each node source, by name */
+    private final Map<String, String> nodeSources;
+
+    /** JSON text of each node, by url, by node source name */
+    private final Map<String, Map<String, String>> nodes;
+
+    private final int nodesCount;
+
+    /** number of nodes per state */
+    private final Map<String, Integer> nodeStates;
+
+    /** number of nodes per state, by node source name */
+    private final Map<String, Map<String, Integer>> nodeSourceStates;
+
+    private final int physicalHosts;
+
+    private final int virtualHosts;
+
+    private MonitoringSnapshot(long revision, String document, Map<String, String> nodeSources,
+            Map<String, Map<String, String>> nodes, int nodesCount, Map<String, Integer> nodeStates,
+            Map<String, Map<String, Integer>> nodeSourceStates, int physicalHosts, int virtualHosts) {
+        this.revision = revision;
+        this.document = document;
+        this.nodeSources = nodeSources;
+        this.nodes = nodes;
+        this.nodesCount = nodesCount;
+        this.nodeStates = nodeStates;
+        this.nodeSourceStates = nodeSourceStates;
+        this.physicalHosts = physicalHosts;
+        this.virtualHosts = virtualHosts;
+    }
+
+    /**
+     * @param monitoring the "rm/monitoring" JSON document
+     * @param revision revision of the resulting snapshot
+     */
+    static MonitoringSnapshot read(String monitoring, long revision) throws JSONException {
+        return read(monitoring, revision, null);
+    }
+
+    /**
+     * @param monitoring the "rm/monitoring" JSON document
+     * @param revision revision of the resulting snapshot
+     * @param previous a previous snapshot whose texts are reused for the unchanged node sources
+     *        and nodes, so that successive snapshots share most of their content; may be null
+     */
+    static MonitoringSnapshot read(String monitoring, long revision, MonitoringSnapshot previous)
+            throws JSONException {
+        JSONObject document = new JSONObject(monitoring);
+
+        Map<String, String> nodeSources = new LinkedHashMap<>();
+        JSONArray nodeSourcesArray = document.getJSONArray("nodeSource");
+        for (int i = 0; i < nodeSourcesArray.length(); i++) {
+            JSONObject nodeSource = nodeSourcesArray.getJSONObject(i);
+            String name = nodeSource.getString("sourceName");
+            String previousText = previous == null ? null : previous.nodeSources.get(name);
+            nodeSources.put(name, reuse(nodeSource.toString(), previousText));
+        }
+
+        Map<String, Map<String, String>> nodes = new LinkedHashMap<>();
+        Map<String, Integer> nodeStates = new TreeMap<>();
+        Map<String, Map<String, Integer>> nodeSourceStates = new TreeMap<>();
+        /* host ids, mapped to true if the host is virtual */
+        Map<String, Boolean> hosts = new LinkedHashMap<>();
+
+        JSONArray nodesArray = document.getJSONArray("nodesEvents");
+        for (int i = 0; i < nodesArray.length(); i++) {
+            JSONObject node = nodesArray.getJSONObject(i);
+            String nodeUrl = node.getString("nodeUrl");
+            String nodeSource = node.optString("nodeSource");
+
+            Map<String, String> nodeSourceNodes = nodes.get(nodeSource);
+            if (nodeSourceNodes == null) {
+                nodeSourceNodes = new LinkedHashMap<>();
+                nodes.put(nodeSource, nodeSourceNodes);
+            }
+            Map<String, String> previousNodes = previous == null ? null : previous.nodes.get(nodeSource);
+            String previousText = previousNodes == null ? null : previousNodes.get(nodeUrl);
+            nodeSourceNodes.put(nodeUrl, reuse(node.toString(), previousText));
+
+            String nodeState = node.getString("nodeState");
+            increment(nodeStates, nodeState);
+            Map<String, Integer> states = nodeSourceStates.get(nodeSource);
+            if (states == null) {
+                states = new TreeMap<>();
+                nodeSourceStates.put(nodeSource, states);
+            }
+            increment(states, nodeState);
+
+            String hostName = node.optString("hostName");
+            if (!hostName.isEmpty()) {
+                String hostId = nodeSource + "-host-" + hostName;
+                boolean virtual = nodeUrl.toLowerCase().contains("virt-");
+                Boolean hostVirtual = hosts.get(hostId);
+                hosts.put(hostId, virtual || (hostVirtual != null && hostVirtual));
+            }
+        }
+
+        int virtualHosts = 0;
+        for (boolean virtual : hosts.values()) {
+            if (virtual) {
+                virtualHosts++;
+            }
+        }
+
+        return new MonitoringSnapshot(revision, monitoring, nodeSources, nodes, nodesArray.length(), nodeStates,
+            nodeSourceStates, hosts.size() - virtualHosts, virtualHosts);
+    }
+
+    private static String reuse(String text, String previousText) {
+        return text.equals(previousText) ? previousText : text;
+    }
+
+    private static void increment(Map<String, Integer> counts, String key) {
+        Integer count = counts.get(key);
+        counts.put(key, count == null ? 1 : count + 1);
+    }
+
+    long getRevision() {
+        return revision;
+    }
+
+    /**
+     * @return the same content with another revision
+     */
+    MonitoringSnapshot withRevision(long revision) {
+        return new MonitoringSnapshot(revision, document, nodeSources, nodes, nodesCount, nodeStates,
+            nodeSourceStates, physicalHosts, virtualHosts);
+    }
+
+    /**
+     * @return true if the snapshot was read from this document
+     */
+    boolean isReadFrom(String monitoring) {
+        return document.equals(monitoring);
+    }
+
+    /**
+     * @return true if both snapshots hold the same node sources and nodes
+     */
+    boolean hasSameContent(MonitoringSnapshot other) {
+        return nodeSources.equals(other.nodeSources) && nodes.equals(other.nodes);
+    }
+
+    /**
+     * @param loadedNodeSources names of the node sources whose nodes the client displays, null for all
+     * @param summaryThreshold number of nodes above which only the nodes of the loaded node sources are sent
+     * @return the node sources whose nodes are sent to the client, or null for all
+     */
+    Set<String> getSentNodeSources(Set<String> loadedNodeSources, int summaryThreshold) {
+        if (loadedNodeSources == null || nodesCount <= summaryThreshold) {
+            return null;
+        }
+        return Collections.unmodifiableSet(new HashSet<>(loadedNodeSources));
+    }
+
+    /**
+     * @param previous the snapshot the client already holds, or null to send everything
+     * @return the JSON delta turning {@code previous} into this snapshot, with all the nodes
+     */
+    String deltaFrom(MonitoringSnapshot previous) {
+        return deltaFrom(previous, previous, null, this, null);
+    }
+
+    /**
+     * @param previous the snapshot of the node sources and counters the client holds, or null to send everything
+     * @param heldNodes the snapshot of the nodes the client holds
+     * @param heldNodeSources node sources whose nodes the client holds, null for all
+     * @param sentNodes the snapshot of the nodes to send, {@code heldNodes} to keep the nodes the client holds
+     * @param sentNodeSources node sources whose nodes are sent, null for all
+     * @return the JSON delta turning what the client holds into this snapshot
+     */
+    String deltaFrom(MonitoringSnapshot previous, MonitoringSnapshot heldNodes, Set<String> heldNodeSources,
+            MonitoringSnapshot sentNodes, Set<String> sentNodeSources) {
+        StringBuilder delta = new StringBuilder();
+        delta.append("{\"revision\":").append(revision);
+        delta.append(",\"full\":").append(previous == null);
+
+        Map<String, String> previousNodeSources = previous == null ? null : previous.nodeSources;
+        if (previous == null) {
+            heldNodes = null;
+        }
+
+        delta.append(",\"nodeSource\":");
+        appendChanged(delta, nodeSources, previousNodeSources);
+        delta.append(",\"removedNodeSources\":");
+        appendRemoved(delta, nodeSources, previousNodeSources);
+
+        delta.append(",\"nodesEvents\":[");
+        boolean first = true;
+        for (Map.Entry<String, Map<String, String>> entry : sentNodes.nodes.entrySet()) {
+            if (isSent(entry.getKey(), sentNodeSources)) {
+                Map<String, String> held = heldNodes == null ? null
+                        : heldNodes.getNodes(entry.getKey(), heldNodeSources);
+                first = appendChanged(delta, entry.getValue(), held, first);
+            }
+        }
+        delta.append("],\"removedNodes\":");
+        Collection<String> removed = new HashSet<>();
+        if (heldNodes != null) {
+            for (Map.Entry<String, Map<String, String>> entry : heldNodes.nodes.entrySet()) {
+                if (isSent(entry.getKey(), heldNodeSources)) {
+                    Map<String, String> sent = sentNodes.getNodes(entry.getKey(), sentNodeSources);
+                    for (String url : entry.getValue().keySet()) {
+                        if (sent == null || !sent.containsKey(url)) {
+                            removed.add(url);
+                        }
+                    }
+                }
+            }
+        }
+        delta.append(new JSONArray(removed));
+
+        delta.append(",\"nodeStates\":").append(new JSONObject(nodeStates));
+        delta.append(",\"physicalHosts\":").append(physicalHosts);
+        delta.append(",\"virtualHosts\":").append(virtualHosts);
+        delta.append(",\"summary\":").append(sentNodeSources != null);
+        if (sentNodeSources != null) {
+            delta.append(",\"nodeSourceStates\":{");
+            first = true;
+            for (Map.Entry<String, Map<String, Integer>> entry : nodeSourceStates.entrySet()) {
+                if (!first) {
+                    delta.append(',');
+                }
+                delta.append(JSONObject.quote(entry.getKey())).append(':').append(new JSONObject(entry.getValue()));
+                first = false;
+            }
+            delta.append('}');
+        }
+        delta.append('}');
+
+        return delta.toString();
+    }
+
+    /* the nodes of a node source if they are sent, null otherwise */
+    private Map<String, String> getNodes(String nodeSource, Set<String> sentNodeSources) {
+        return isSent(nodeSource, sentNodeSources) ? nodes.get(nodeSource) : null;
+    }
+
+    private static boolean isSent(String nodeSource, Set<String> sentNodeSources) {
+        return sentNodeSources == null || sentNodeSources.contains(nodeSource);
+    }
+
+    /* appends the JSON array of the values that are new or differ from the previous ones */
+    private static void appendChanged(StringBuilder delta, Map<String, String> current,
+            Map<String, String> previous) {
+        delta.append('[');
+        appendChanged(delta, current, previous, true);
+        delta.append(']');
+    }
+
+    /* appends the values that are new or differ from the previous ones, returns false once a value was appended */
+    private static boolean appendChanged(StringBuilder delta, Map<String, String> current,
+            Map<String, String> previous, boolean first) {
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            if (previous == null || !entry.getValue().equals(previous.get(entry.getKey()))) {
+                if (!first) {
+                    delta.append(',');
+                }
+                delta.append(entry.getValue());
+                first = false;
+            }
+        }
+        return first;
+    }
+
+    /* appends the JSON array of the previous keys that are not current anymore */
+    private static void appendRemoved(StringBuilder delta, Map<String, String> current,
+            Map<String, String> previous) {
+        Collection<String> removed = new HashSet<>();
+        if (previous != null) {
+            for (String key : previous.keySet()) {
+                if (!current.containsKey(key)) {
+                    removed.add(key);
+                }
+            }
+        }
+        delta.append(new JSONArray(removed));
+    }
+
+}
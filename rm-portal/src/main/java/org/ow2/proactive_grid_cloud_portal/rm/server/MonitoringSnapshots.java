@@ -0,0 +1,202 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.codehaus.jettison.json.JSONException;
+
+
+/**
+ * The monitoring snapshots shared by all the sessions, one per revision of the RM state.
+ * <p>
+ * A new snapshot is only read when the monitoring document changed, so that the sessions
+ * refreshing at the same period share the same snapshot. For each session, only the revisions
+ * its client holds are kept, a snapshot being forgotten once no session holds it anymore.
+ */
+class MonitoringSnapshots {
+
+    private final long sessionTimeout;
+
+    /** snapshots held by a session or the latest one, by revision */
+    private final Map<Long, MonitoringSnapshot> snapshots = new HashMap<>();
+
+    private final Map<String, Session> sessions = new HashMap<>();
+
+    private MonitoringSnapshot latest;
+
+    /**
+     * @param sessionTimeout time in milliseconds after which a session that did not ask
+     *        for a delta is forgotten
+     */
+    MonitoringSnapshots(long sessionTimeout) {
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    /**
+     * @param sessionId the session asking for the delta
+     * @param monitoring the "rm/monitoring" JSON document read on behalf of the session
+     * @param revision revision of the last delta applied by the client
+     * @param loadedNodeSources names of the node sources whose nodes the client displays, null for all
+     * @param refreshNodes false to keep the nodes held by the client
+     * @param summaryThreshold number of nodes above which only the nodes of the loaded node sources are sent
+     * @return the JSON delta from what the client holds, everything if the revision is not the last one
+     *         sent to the session
+     */
+    String getDelta(String sessionId, String monitoring, long revision, Set<String> loadedNodeSources,
+            boolean refreshNodes, int summaryThreshold) throws JSONException {
+        MonitoringSnapshot current;
+        MonitoringSnapshot previous = null;
+        MonitoringSnapshot heldNodes = null;
+        Set<String> heldNodeSources = null;
+        MonitoringSnapshot sentNodes;
+        Set<String> sentNodeSources;
+
+        synchronized (this) {
+            current = publish(monitoring);
+
+            Session session = sessions.get(sessionId);
+            if (session != null && session.revision == revision) {
+                previous = snapshots.get(session.revision);
+                heldNodes = snapshots.get(session.nodesRevision);
+                heldNodeSources = session.nodeSources;
+            }
+            if (heldNodes == null) {
+                // the client did not receive the previous snapshot, send everything
+                previous = null;
+            }
+
+            if (!refreshNodes && previous != null) {
+                // only the counters and node sources are refreshed
+                sentNodes = heldNodes;
+                sentNodeSources = heldNodeSources;
+            } else {
+                sentNodes = current;
+                sentNodeSources = current.getSentNodeSources(loadedNodeSources, summaryThreshold);
+            }
+
+            long now = System.currentTimeMillis();
+            sessions.put(sessionId, new Session(current.getRevision(), sentNodes.getRevision(), sentNodeSources,
+                now));
+            forgetStaleSessions(now);
+        }
+
+        // snapshots are immutable, the delta is built without holding the lock
+        return current.deltaFrom(previous, heldNodes, heldNodeSources, sentNodes, sentNodeSources);
+    }
+
+    /**
+     * Forgets the snapshots held by a session.
+     */
+    synchronized void forget(String sessionId) {
+        sessions.remove(sessionId);
+        forgetUnusedSnapshots();
+    }
+
+    synchronized int getSnapshotsCount() {
+        return snapshots.size();
+    }
+
+    /* the snapshot of the document, a new revision only if its content changed */
+    private MonitoringSnapshot publish(String monitoring) throws JSONException {
+        if (latest != null && latest.isReadFrom(monitoring)) {
+            return latest;
+        }
+
+        MonitoringSnapshot read = MonitoringSnapshot.read(monitoring, latest == null ? 1 : latest.getRevision() + 1,
+                latest);
+        if (latest != null && read.hasSameContent(latest)) {
+            read = read.withRevision(latest.getRevision());
+        }
+        latest = read;
+        snapshots.put(read.getRevision(), read);
+        forgetUnusedSnapshots();
+        return read;
+    }
+
+    private void forgetStaleSessions(long now) {
+        Iterator<Session> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().lastRequest > sessionTimeout) {
+                it.remove();
+            }
+        }
+        forgetUnusedSnapshots();
+    }
+
+    private void forgetUnusedSnapshots() {
+        Set<Long> held = new HashSet<>();
+        if (latest != null) {
+            held.add(latest.getRevision());
+        }
+        for (Session session : sessions.values()) {
+            held.add(session.revision);
+            held.add(session.nodesRevision);
+        }
+        snapshots.keySet().retainAll(held);
+    }
+
+    /**
+     * What the client of a session holds
+     */
+    private static final class Session {
+
+        /** revision of the counters and node sources */
+        private final long revision;
+
+        /** revision of the nodes */
+        private final long nodesRevision;
+
+        /** node sources whose nodes the client holds, null for all */
+        private final Set<String> nodeSources;
+
+        private final long lastRequest;
+
+        private Session(long revision, long nodesRevision, Set<String> nodeSources, long lastRequest) {
+            this.revision = revision;
+            this.nodesRevision = nodesRevision;
+            this.nodeSources = nodeSources;
+            this.lastRequest = lastRequest;
+        }
+
+    }
+
+}
@@ -40,12 +40,22 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
@@ -60,6 +70,7 @@ import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMService;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
 import org.ow2.proactive_grid_cloud_portal.rm.shared.RMConfig;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpResponse;
@@ -69,6 +80,7 @@ import org.apache.http.entity.mime.content.ByteArrayBody;
 import org.apache.http.entity.mime.content.FileBody;
 import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.codehaus.jettison.json.JSONException;
 import org.jboss.resteasy.client.jaxrs.ResteasyClient;
 import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
 import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
@@ -99,6 +111,33 @@ public class RMServiceImpl extends Service implements RMService {
 
     private CloseableHttpClient httpClient;
 
+    /**
+     * Sessions which did not ask for a monitoring delta for this long are forgotten.
+     */
+    private static final long MONITORING_SESSION_TIMEOUT = 10 * 60 * 1000;
+
+    /**
+     * Monitoring snapshots shared by the sessions, so that the next one can be sent as a delta.
+     */
+    private final MonitoringSnapshots monitoringSnapshots = new MonitoringSnapshots(MONITORING_SESSION_TIMEOUT);
+
+    /**
+     * Time during which a session the REST server let read a node is served the MBean values
+     * fetched for other sessions, its next request being checked again by the REST server.
+     */
+    private static final long NODE_AUTHORIZATION_TIMEOUT = 5 * 60 * 1000;
+
+    /**
+     * MBean values of the nodes, shared by the sessions monitoring the same node.
+     */
+    private MBeanCache mbeanCache;
+
+    /**
+     * RestEasy client proxy shared by all requests, built lazily and rebuilt
+     * only when the REST URL changes.
+     */
+    private volatile RestClientProxyHolder restClientProxyHolder;
+
     @Override
     public void init() {
         loadProperties();
@@ -113,6 +152,9 @@ public class RMServiceImpl extends Service implements RMService {
                         .useSystemProperties().build();
 
         threadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+
+        // shorter than the period so that a viewer always gets newer values than the ones it displays
+        mbeanCache = new MBeanCache(RMConfig.get().getMonitoringPeriod() * 3 / 4, NODE_AUTHORIZATION_TIMEOUT);
     }
 
     /*
@@ -137,6 +179,8 @@ public class RMServiceImpl extends Service implements RMService {
      * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#logout(java.lang.String)
      */
     public void logout(String sessionId) throws ServiceException {
+        monitoringSnapshots.forget(sessionId);
+
         RestClient restClientProxy = getRestClientProxy();
 
         try {
@@ -213,6 +257,30 @@ public class RMServiceImpl extends Service implements RMService {
         });
     }
 
+    /*
+     * (non-Javadoc)
+     * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#getMonitoringDelta(java.lang.String, long, java.util.Set, boolean)
+     */
+    public String getMonitoringDelta(String sessionId, long revision, Set<String> loadedNodeSources,
+            boolean refreshNodes) throws RestServerException, ServiceException {
+        String monitoring;
+        try {
+            monitoring = getMonitoring(sessionId);
+        } catch (RestServerException e) {
+            if (e.getStatus() == 401) {
+                monitoringSnapshots.forget(sessionId);
+            }
+            throw e;
+        }
+
+        try {
+            return monitoringSnapshots.getDelta(sessionId, monitoring, revision, loadedNodeSources, refreshNodes,
+                    RMConfig.get().getSummaryThreshold());
+        } catch (JSONException e) {
+            throw new ServiceException("Invalid monitoring document: " + e.getMessage());
+        }
+    }
+
     /**
      * Create a Credentials file with the provided authentication parameters
      *
@@ -310,7 +378,7 @@ public class RMServiceImpl extends Service implements RMService {
      * (non-Javadoc)
      * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#lockNodes(java.lang.String, java.util.Set)
      */
-    public String lockNodes(final String sessionId,
+    public Map<String, Boolean> lockNodes(final String sessionId,
             Set<String> urls) throws RestServerException, ServiceException {
         return executeFunction(new BiFunction<RestClient, Set<String>, InputStream>() {
             @Override
@@ -324,7 +392,7 @@ public class RMServiceImpl extends Service implements RMService {
      * (non-Javadoc)
      * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#unlockNodes(java.lang.String, java.util.Set)
      */
-    public String unlockNodes(final String sessionId, Set<String> urls) throws RestServerException,
+    public Map<String, Boolean> unlockNodes(final String sessionId, Set<String> urls) throws RestServerException,
             ServiceException {
         return executeFunction(new BiFunction<RestClient, Set<String>, InputStream>() {
             @Override
@@ -349,6 +417,20 @@ public class RMServiceImpl extends Service implements RMService {
         });
     }
 
+    /*
+     * (non-Javadoc)
+     * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#removeNodes(java.lang.String, java.util.Set, boolean)
+     */
+    public Map<String, Boolean> removeNodes(final String sessionId, Set<String> urls, final boolean force)
+            throws RestServerException, ServiceException {
+        return executeFunctionOnEachNode(new BiFunction<RestClient, String, InputStream>() {
+            @Override
+            public InputStream apply(RestClient restClient, String url) {
+                return restClient.removeNode(sessionId, url, force);
+            }
+        }, urls, "remove");
+    }
+
     /*
      * (non-Javadoc)
      * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#removeNodesource(java.lang.String, java.lang.String)
@@ -377,6 +459,20 @@ public class RMServiceImpl extends Service implements RMService {
         });
     }
 
+    /*
+     * (non-Javadoc)
+     * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#releaseNodes(java.lang.String, java.util.Set)
+     */
+    public Map<String, Boolean> releaseNodes(final String sessionId, Set<String> urls)
+            throws RestServerException, ServiceException {
+        return executeFunctionOnEachNode(new BiFunction<RestClient, String, InputStream>() {
+            @Override
+            public InputStream apply(RestClient restClient, String url) {
+                return restClient.releaseNode(sessionId, url);
+            }
+        }, urls, "release");
+    }
+
     /*
      * (non-Javadoc)
      * @see Service#getVersion()
@@ -412,58 +508,142 @@ public class RMServiceImpl extends Service implements RMService {
     public String getNodeMBeanInfo(final String sessionId, final String nodeJmxUrl, final String objectName,
             final List<String> attrs)
             throws RestServerException, ServiceException {
-        return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
-            @Override
-            public InputStream apply(RestClient restClient) {
-                return restClient.getNodeMBeanInfo(sessionId, nodeJmxUrl, objectName, attrs);
-            }
-        });
+        return getCachedMBeans(sessionId, nodeJmxUrl,
+                Arrays.<Object> asList("info", nodeJmxUrl, objectName, attrs, null),
+                new Function<RestClient, InputStream>() {
+                    @Override
+                    public InputStream apply(RestClient restClient) {
+                        return restClient.getNodeMBeanInfo(sessionId, nodeJmxUrl, objectName, attrs);
+                    }
+                });
     }
 
     @Override
     public String getNodeMBeanHistory(final String sessionId, final String nodeJmxUrl,
             final String objectName, final List<String> attrs,
-            final String timeRange) throws RestServerException, ServiceException {
-        return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
-            @Override
-            public InputStream apply(RestClient restClient) {
-                return restClient.getNodeMBeanHistory(sessionId, nodeJmxUrl, objectName, attrs, timeRange);
-            }
-        });
+            final String timeRange, int maxPoints) throws RestServerException, ServiceException {
+        String history = getCachedMBeans(sessionId, nodeJmxUrl,
+                Arrays.<Object> asList("history", nodeJmxUrl, objectName, attrs, timeRange),
+                new Function<RestClient, InputStream>() {
+                    @Override
+                    public InputStream apply(RestClient restClient) {
+                        return restClient.getNodeMBeanHistory(sessionId, nodeJmxUrl, objectName, attrs, timeRange);
+                    }
+                });
+        return HistoryDownsampling.downsample(history, maxPoints);
     }
 
     @Override
     public String getNodeMBeansInfo(final String sessionId, final String nodeJmxUrl, final String objectNames,
             final List<String> attrs) throws RestServerException, ServiceException {
-        return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
-            @Override
-            public InputStream apply(RestClient restClient) {
-                return restClient.getNodeMBeansInfo(sessionId, nodeJmxUrl, objectNames, attrs);
-            }
-        });
+        return getCachedMBeans(sessionId, nodeJmxUrl,
+                Arrays.<Object> asList("mbeans info", nodeJmxUrl, objectNames, attrs, null),
+                new Function<RestClient, InputStream>() {
+                    @Override
+                    public InputStream apply(RestClient restClient) {
+                        return restClient.getNodeMBeansInfo(sessionId, nodeJmxUrl, objectNames, attrs);
+                    }
+                });
     }
 
     @Override
     public String getNodeMBeansHistory(final String sessionId, final String nodeJmxUrl,
             final String objectNames,
-            final List<String> attrs, final String timeRange) throws RestServerException, ServiceException {
-        return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
+            final List<String> attrs, final String timeRange, int maxPoints)
+            throws RestServerException, ServiceException {
+        String history = getCachedMBeans(sessionId, nodeJmxUrl,
+                Arrays.<Object> asList("mbeans history", nodeJmxUrl, objectNames, attrs, timeRange),
+                new Function<RestClient, InputStream>() {
+                    @Override
+                    public InputStream apply(RestClient restClient) {
+                        return restClient.getNodeMBeansHistory(sessionId, nodeJmxUrl, objectNames, attrs, timeRange);
+                    }
+                });
+        return HistoryDownsampling.downsample(history, maxPoints);
+    }
+
+    @Override
+    public List<String> getNodeMBeansBatch(final String sessionId, final String nodeJmxUrl,
+            final List<MBeanQuery> queries) throws RestServerException, ServiceException {
+        if (queries.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final Queue<Integer> pendingQueries = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < queries.size(); i++) {
+            pendingQueries.add(i);
+        }
+        final String[] results = new String[queries.size()];
+        final Queue<Exception> failures = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(new Callable<Void>() {
             @Override
-            public InputStream apply(RestClient restClient) {
-                return restClient.getNodeMBeansHistory(sessionId, nodeJmxUrl, objectNames, attrs, timeRange);
+            public Void call() {
+                Integer index;
+                while ((index = pendingQueries.poll()) != null) {
+                    try {
+                        results[index] = getNodeMBeans(sessionId, nodeJmxUrl, queries.get(index));
+                    } catch (RestServerException | ServiceException e) {
+                        LOGGER.debug("Failed to fetch " + queries.get(index) + " from " + nodeJmxUrl, e);
+                        failures.add(e);
+                    }
+                }
+                return null;
+            }
+        }, Math.min(RMConfig.get().getBulkActionsParallelism(), queries.size()), "MBeans batch");
+
+        if (failures.size() == queries.size()) {
+            Exception failure = failures.peek();
+            if (failure instanceof RestServerException) {
+                throw (RestServerException) failure;
+            }
+            throw (ServiceException) failure;
+        }
+
+        // workers are done, their writes are visible once invokeAll returned
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    private String getNodeMBeans(String sessionId, String nodeJmxUrl, MBeanQuery query)
+            throws RestServerException, ServiceException {
+        if (query.isSeveralMBeans()) {
+            if (query.isHistory()) {
+                return getNodeMBeansHistory(sessionId, nodeJmxUrl, query.getObjectName(), query.getAttrs(),
+                        query.getTimeRange(), query.getMaxPoints());
+            }
+            return getNodeMBeansInfo(sessionId, nodeJmxUrl, query.getObjectName(), query.getAttrs());
+        }
+        if (query.isHistory()) {
+            return getNodeMBeanHistory(sessionId, nodeJmxUrl, query.getObjectName(), query.getAttrs(),
+                    query.getTimeRange(), query.getMaxPoints());
+        }
+        return getNodeMBeanInfo(sessionId, nodeJmxUrl, query.getObjectName(), query.getAttrs());
+    }
+
+    /**
+     * Fetches MBean values through the cache, identical requests of the sessions watching
+     * the same node resulting in a single call to the REST server.
+     */
+    private String getCachedMBeans(String sessionId, String nodeJmxUrl, List<Object> key,
+            final Function<RestClient, InputStream> function) throws RestServerException, ServiceException {
+        return mbeanCache.get(sessionId, nodeJmxUrl, key, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return executeFunctionReturnStreamAsString(function);
             }
         });
     }
 
     @Override
     public String getStatHistory(final String sessionId,
-            final String range) throws RestServerException, ServiceException {
-        return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
+            final String range, int maxPoints) throws RestServerException, ServiceException {
+        String history = executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
                 return restClient.getStatHistory(sessionId, range);
             }
         });
+        return HistoryDownsampling.downsample(history, maxPoints);
     }
 
     @Override
@@ -477,43 +657,199 @@ public class RMServiceImpl extends Service implements RMService {
         });
     }
 
-    private RestClient getRestClientProxy() {
-        ResteasyClient client =
-                new ResteasyClientBuilder().asyncExecutor(threadPool)
-                        .httpEngine(new ApacheHttpClient4Engine(httpClient)).build();
+    /**
+     * Returns the RestEasy client proxy shared by all requests.
+     * <p>
+     * The proxy is thread-safe since it relies on the pooled {@link #httpClient},
+     * so it is only created again when the configured REST URL changes.
+     *
+     * @return a client proxy targeting the current REST URL
+     */
+    RestClient getRestClientProxy() {
+        String restUrl = RMConfig.get().getRestUrl();
+
+        RestClientProxyHolder holder = restClientProxyHolder;
 
-        ResteasyWebTarget target = client.target(RMConfig.get().getRestUrl());
+        if (holder == null || !holder.restUrl.equals(restUrl)) {
+            synchronized (this) {
+                holder = restClientProxyHolder;
 
-        return target.proxy(RestClient.class);
+                if (holder == null || !holder.restUrl.equals(restUrl)) {
+                    if (holder != null) {
+                        // the engine does not close the shared HTTP client, which other clients use
+                        holder.client.close();
+                    }
+                    ResteasyClient client =
+                            new ResteasyClientBuilder().asyncExecutor(threadPool)
+                                    .httpEngine(new ApacheHttpClient4Engine(httpClient, false)).build();
+
+                    ResteasyWebTarget target = client.target(restUrl);
+
+                    holder = new RestClientProxyHolder(restUrl, client, target.proxy(RestClient.class));
+                    restClientProxyHolder = holder;
+                }
+            }
+        }
+
+        return holder.proxy;
     }
 
-    private String executeFunction(BiFunction<RestClient, Set<String>, InputStream> action, Set<String> urls,
-            String actionName) throws ServiceException, RestServerException {
+    /**
+     * Applies the given action on the nodes by chunks of {@link RMConfig#getNodesBatchSize()} urls,
+     * the chunks being sent concurrently. When the request for a whole chunk fails, the action
+     * is applied again on each node of the chunk separately so that the failing nodes are identified.
+     *
+     * @return for each node url, true if the action succeeded
+     */
+    private Map<String, Boolean> executeFunction(final BiFunction<RestClient, Set<String>, InputStream> action,
+            Set<String> urls, final String actionName) throws ServiceException, RestServerException {
 
-        RestClient restClientProxy = getRestClientProxy();
+        final RestClient restClientProxy = getRestClientProxy();
 
-        int failures = 0;
-        int success = 0;
+        final Queue<Set<String>> pendingChunks =
+                new ConcurrentLinkedQueue<>(partition(urls, RMConfig.get().getNodesBatchSize()));
+        final Map<String, Boolean> outcome = new ConcurrentHashMap<>(urls.size());
 
-        for (String url : urls) {
-            InputStream inputStream = null;
+        int nbChunks = pendingChunks.size();
 
-            try {
-                inputStream = action.apply(restClientProxy, Collections.singleton(url));
-                success++;
-            } catch (WebApplicationException e) {
-                failures++;
-            } finally {
-                IOUtils.closeQuietly(inputStream);
+        runConcurrently(new Callable<Void>() {
+            @Override
+            public Void call() throws RestServerException {
+                Set<String> chunk;
+                while ((chunk = pendingChunks.poll()) != null) {
+                    if (applyOnNodes(action, restClientProxy, chunk)) {
+                        for (String url : chunk) {
+                            outcome.put(url, Boolean.TRUE);
+                        }
+                    } else if (chunk.size() == 1) {
+                        outcome.put(chunk.iterator().next(), Boolean.FALSE);
+                    } else {
+                        LOGGER.warn("Failed to " + actionName + " a chunk of " + chunk.size() +
+                            " nodes, retrying node by node");
+
+                        for (String url : chunk) {
+                            outcome.put(url, applyOnNodes(action, restClientProxy, Collections.singleton(url)));
+                        }
+                    }
+                }
+                return null;
+            }
+        }, Math.min(RMConfig.get().getBulkActionsParallelism(), nbChunks), actionName);
+
+        // ConcurrentHashMap is not serializable through GWT-RPC
+        return new HashMap<>(outcome);
+    }
+
+    /**
+     * @return true if the action succeeded on all the nodes
+     * @throws RestServerException if the session is not valid anymore, so that the client disconnects
+     */
+    private boolean applyOnNodes(BiFunction<RestClient, Set<String>, InputStream> action,
+            RestClient restClientProxy, Set<String> urls) throws RestServerException {
+        InputStream inputStream = null;
+
+        try {
+            inputStream = action.apply(restClientProxy, urls);
+            return true;
+        } catch (WebApplicationException e) {
+            rethrowIfUnauthorized(e);
+            LOGGER.debug("Failed to apply action on nodes " + urls, e);
+            return false;
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * Applies the given action on each node separately, for actions the REST server only offers
+     * for a single node. At most {@link RMConfig#getBulkActionsParallelism()} requests are sent concurrently.
+     *
+     * @return for each node url, true if the REST server answered true
+     */
+    private Map<String, Boolean> executeFunctionOnEachNode(
+            final BiFunction<RestClient, String, InputStream> action, Set<String> urls, String actionName)
+            throws ServiceException, RestServerException {
+
+        final RestClient restClientProxy = getRestClientProxy();
+
+        final Queue<String> pendingUrls = new ConcurrentLinkedQueue<>(urls);
+        final Map<String, Boolean> outcome = new ConcurrentHashMap<>(urls.size());
+
+        runConcurrently(new Callable<Void>() {
+            @Override
+            public Void call() throws RestServerException {
+                String url;
+                while ((url = pendingUrls.poll()) != null) {
+                    outcome.put(url, applyOnNode(action, restClientProxy, url));
+                }
+                return null;
             }
+        }, Math.min(RMConfig.get().getBulkActionsParallelism(), urls.size()), actionName);
+
+        // ConcurrentHashMap is not serializable through GWT-RPC
+        return new HashMap<>(outcome);
+    }
+
+    /**
+     * @return true if the REST server answered true
+     * @throws RestServerException if the session is not valid anymore, so that the client disconnects
+     */
+    private boolean applyOnNode(BiFunction<RestClient, String, InputStream> action, RestClient restClientProxy,
+            String url) throws RestServerException {
+        InputStream inputStream = null;
+
+        try {
+            inputStream = action.apply(restClientProxy, url);
+            return Boolean.parseBoolean(convertToString(inputStream).trim());
+        } catch (WebApplicationException e) {
+            rethrowIfUnauthorized(e);
+            LOGGER.debug("Failed to apply action on node " + url, e);
+            return false;
+        } catch (IOException e) {
+            LOGGER.debug("Failed to apply action on node " + url, e);
+            return false;
+        } finally {
+            IOUtils.closeQuietly(inputStream);
         }
+    }
 
-        if (failures > 0) {
-            throw new RestServerException(
-                    "Failed to " + actionName + " all requested nodes: " + success + " succeeded, " + failures + " failed.");
+    /**
+     * Runs the same worker on several threads of the {@link #threadPool} and waits for all of them.
+     * Workers are expected to share a queue of pending work items.
+     */
+    private void runConcurrently(Callable<Void> worker, int nbWorkers, String actionName)
+            throws ServiceException, RestServerException {
+        try {
+            for (Future<Void> future : threadPool.invokeAll(Collections.nCopies(nbWorkers, worker))) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while waiting for " + actionName + " to complete");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RestServerException) {
+                throw (RestServerException) e.getCause();
+            }
+            throw new ServiceException("Error while applying " + actionName + ": " + e.getCause().getMessage());
         }
+    }
 
-        return "";
+    /**
+     * Splits the given set into sets of at most {@code chunkSize} elements
+     */
+    static <T> List<Set<T>> partition(Set<T> elements, int chunkSize) {
+        List<Set<T>> chunks = new ArrayList<>((elements.size() + chunkSize - 1) / chunkSize);
+
+        Set<T> chunk = null;
+        for (T element : elements) {
+            if (chunk == null || chunk.size() == chunkSize) {
+                chunk = new HashSet<>(chunkSize);
+                chunks.add(chunk);
+            }
+            chunk.add(element);
+        }
+
+        return chunks;
     }
 
     private String executeFunctionReturnStreamAsString(
@@ -541,6 +877,31 @@ public class RMServiceImpl extends Service implements RMService {
         throw new RestServerException(e.getResponse().getStatus(), e.getMessage());
     }
 
+    /**
+     * Reports an expired session to the client rather than the failure of the action on a node
+     */
+    private void rethrowIfUnauthorized(WebApplicationException e) throws RestServerException {
+        if (e.getResponse().getStatus() == 401) {
+            rethrowRestServerException(e);
+        }
+    }
+
+    private static final class RestClientProxyHolder {
+
+        private final String restUrl;
+
+        private final ResteasyClient client;
+
+        private final RestClient proxy;
+
+        private RestClientProxyHolder(String restUrl, ResteasyClient client, RestClient proxy) {
+            this.restUrl = restUrl;
+            this.client = client;
+            this.proxy = proxy;
+        }
+
+    }
+
     private interface BiFunction<T, U, R> {
 
         R apply(T t, U u);
@@ -0,0 +1,118 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.user.client.rpc.IsSerializable;
+
+
+/**
+ * Attributes to fetch from the MBeans of a node, sent with other queries
+ * to the same node in a single batch.
+ */
+public class MBeanQuery implements IsSerializable {
+
+    private String objectName;
+
+    private ArrayList<String> attrs;
+
+    private String timeRange;
+
+    private int maxPoints;
+
+    private boolean severalMBeans;
+
+    public MBeanQuery() {
+    }
+
+    /**
+     * @param objectName name of the mbean, or pattern matching several mbeans
+     * @param attrs attributes to fetch
+     * @param timeRange range of the history to fetch, or null for the current values
+     * @param severalMBeans true if objectName is a pattern matching several mbeans
+     */
+    public MBeanQuery(String objectName, List<String> attrs, String timeRange, boolean severalMBeans) {
+        this(objectName, attrs, timeRange, 0, severalMBeans);
+    }
+
+    /**
+     * @param objectName name of the mbean, or pattern matching several mbeans
+     * @param attrs attributes to fetch
+     * @param timeRange range of the history to fetch, or null for the current values
+     * @param maxPoints maximum number of points of each history series, 0 for all of them
+     * @param severalMBeans true if objectName is a pattern matching several mbeans
+     */
+    public MBeanQuery(String objectName, List<String> attrs, String timeRange, int maxPoints,
+            boolean severalMBeans) {
+        this.objectName = objectName;
+        this.attrs = new ArrayList<String>(attrs);
+        this.timeRange = timeRange;
+        this.maxPoints = maxPoints;
+        this.severalMBeans = severalMBeans;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public List<String> getAttrs() {
+        return attrs;
+    }
+
+    public String getTimeRange() {
+        return timeRange;
+    }
+
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    public boolean isHistory() {
+        return timeRange != null;
+    }
+
+    public boolean isSeveralMBeans() {
+        return severalMBeans;
+    }
+
+    @Override
+    public String toString() {
+        return objectName + ":" + attrs;
+    }
+}
@@ -92,6 +92,33 @@ public class RMConfig extends Config {
     public static final String MONITORING_PERIOD = "rm.monitoring.period";
     public static final String MONITORING_PERIOD_DEFAULT = "10000";
 
+    /** maximum number of node urls sent in a single lock/unlock request */
+    public static final String NODES_BATCH_SIZE = "rm.nodes.batch.size";
+    private static final String d_NODES_BATCH_SIZE = "50";
+
+    /** maximum number of concurrent REST requests issued by the server for an action on several nodes */
+    public static final String BULK_ACTIONS_PARALLELISM = "rm.bulk.actions.parallelism";
+    private static final String d_BULK_ACTIONS_PARALLELISM = "8";
+
+    /** number of nodes above which clients only receive the nodes of the node sources they display */
+    public static final String SUMMARY_THRESHOLD = "rm.summary.threshold";
+    private static final String d_SUMMARY_THRESHOLD = "5000";
+
+    /** refresh rate in millis of the nodes displayed by a client that only receives the nodes of some node sources */
+    public static final String CLIENT_NODES_REFRESH_TIME = "rm.client.nodes.refresh.time";
+    private static final String d_CLIENT_NODES_REFRESH_TIME = "10000";
+
+    /** rendering of the compact view: tiles, heatmap, or auto to draw a heat map above a number of tiles */
+    public static final String COMPACT_VIEW_MODE = "rm.client.compact.view";
+    public static final String COMPACT_VIEW_AUTO = "auto";
+    public static final String COMPACT_VIEW_TILES = "tiles";
+    public static final String COMPACT_VIEW_HEATMAP = "heatmap";
+    private static final String d_COMPACT_VIEW_MODE = COMPACT_VIEW_AUTO;
+
+    /** number of tiles above which the compact view is drawn as a heat map in auto mode */
+    public static final String COMPACT_HEATMAP_THRESHOLD = "rm.client.compact.heatmap.threshold";
+    private static final String d_COMPACT_HEATMAP_THRESHOLD = "2000";
+
     /** hostname used to form the jmx url to monitor the node sources in the RM */
     public static final String RM_JMX_HOSTNAME = "rm.jmx.hostname";
     public static final String RM_JMX_HOSTNAME_DEFAULT = "localhost";
@@ -136,6 +163,12 @@ public class RMConfig extends Config {
         properties.put(RM_JMX_PORT, RM_JMX_PORT_DEFAULT);
         properties.put(RM_JMX_SERVER_NAME, RM_JMX_SERVER_NAME_DEFAULT);
         properties.put(RM_JMX_PREFIX, RM_JMX_PREFIX_DEFAULT);
+        properties.put(NODES_BATCH_SIZE, d_NODES_BATCH_SIZE);
+        properties.put(BULK_ACTIONS_PARALLELISM, d_BULK_ACTIONS_PARALLELISM);
+        properties.put(SUMMARY_THRESHOLD, d_SUMMARY_THRESHOLD);
+        properties.put(CLIENT_NODES_REFRESH_TIME, d_CLIENT_NODES_REFRESH_TIME);
+        properties.put(COMPACT_VIEW_MODE, d_COMPACT_VIEW_MODE);
+        properties.put(COMPACT_HEATMAP_THRESHOLD, d_COMPACT_HEATMAP_THRESHOLD);
     }
 
     @Override
@@ -205,6 +238,51 @@ public class RMConfig extends Config {
         return Integer.parseInt(properties.get(MONITORING_PERIOD));
     }
     
+    /**
+     * @return maximum number of node urls sent in a single lock/unlock request
+     */
+    public int getNodesBatchSize() {
+        return Math.max(1, Integer.parseInt(properties.get(NODES_BATCH_SIZE)));
+    }
+
+    /**
+     * @return maximum number of concurrent REST requests issued for an action on several nodes
+     */
+    public int getBulkActionsParallelism() {
+        return Math.max(1, Integer.parseInt(properties.get(BULK_ACTIONS_PARALLELISM)));
+    }
+
+    /**
+     * @return number of nodes above which clients only receive the nodes of the node sources they display,
+     *         and the number of nodes per state of the others
+     */
+    public int getSummaryThreshold() {
+        return Math.max(1, Integer.parseInt(properties.get(SUMMARY_THRESHOLD)));
+    }
+
+    /**
+     * @return refresh rate in millis of the nodes displayed by a client when only the nodes
+     *         of some node sources are received
+     */
+    public int getClientNodesRefreshTime() {
+        return Math.max(1, Integer.parseInt(properties.get(CLIENT_NODES_REFRESH_TIME)));
+    }
+
+    /**
+     * @return rendering of the compact view: {@link #COMPACT_VIEW_AUTO}, {@link #COMPACT_VIEW_TILES}
+     *         or {@link #COMPACT_VIEW_HEATMAP}
+     */
+    public String getCompactViewMode() {
+        return properties.get(COMPACT_VIEW_MODE);
+    }
+
+    /**
+     * @return number of tiles above which the compact view is drawn as a heat map in auto mode
+     */
+    public int getCompactHeatMapThreshold() {
+        return Math.max(1, Integer.parseInt(properties.get(COMPACT_HEATMAP_THRESHOLD)));
+    }
+
     /**
      * @return hostname used to form the jmx url to monitor the node sources in the RM
      */
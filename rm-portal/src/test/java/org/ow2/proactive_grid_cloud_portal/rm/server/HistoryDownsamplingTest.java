@@ -0,0 +1,103 @@
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+
+public class HistoryDownsamplingTest {
+
+    @Test
+    public void peaks_are_kept() {
+        double[] values = new double[100];
+        values[37] = 50;
+        values[80] = -20;
+
+        int[] selected = HistoryDownsampling.largestTriangleThreeBuckets(values, 10);
+
+        assertEquals(10, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(99, selected[9]);
+        assertContains(selected, 37);
+        assertContains(selected, 80);
+    }
+
+    @Test
+    public void short_series_are_kept_whole() {
+        assertArrayEquals(new int[] { 0, 1, 2 },
+                HistoryDownsampling.largestTriangleThreeBuckets(new double[] { 1, 2, 3 }, 10));
+    }
+
+    @Test
+    public void gaps_are_kept() {
+        double[] values = new double[20];
+        for (int i = 8; i < 12; i++) {
+            values[i] = Double.NaN;
+        }
+
+        int[] selected = HistoryDownsampling.largestTriangleThreeBuckets(values, 7);
+
+        boolean gap = false;
+        for (int index : selected) {
+            gap |= Double.isNaN(values[index]);
+        }
+        assertEquals(true, gap);
+    }
+
+    @Test
+    public void only_number_arrays_of_the_document_are_downsampled() {
+        String json = "{\"mbean\":\"{\\\"attr\\\":[1,2,9,3,4,null]}\",\"other\":[\"a\",\"b\",\"c\",\"d\"],\"short\":[1,2]}";
+
+        String downsampled = HistoryDownsampling.downsample(json, 3);
+
+        assertEquals("{\"mbean\":\"{\\\"attr\\\":[1,9,null]}\",\"other\":[\"a\",\"b\",\"c\",\"d\"],\"short\":[1,2]}",
+                downsampled);
+    }
+
+    @Test
+    public void series_of_several_attributes_stay_aligned() {
+        // the value of each point tells its index, each attribute has a peak at a different time
+        StringBuilder first = new StringBuilder();
+        StringBuilder second = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) {
+                first.append(',');
+                second.append(',');
+            }
+            first.append(i == 30 ? 1000 + i : i);
+            second.append(i == 70 ? -1000 - i : -i);
+        }
+        String json = "{\"a\":[" + first + "],\"b\":[" + second + "]}";
+
+        String downsampled = HistoryDownsampling.downsample(json, 10);
+
+        String[] a = downsampled.substring(downsampled.indexOf('[') + 1, downsampled.indexOf(']')).split(",");
+        String[] b = downsampled.substring(downsampled.lastIndexOf('[') + 1, downsampled.lastIndexOf(']')).split(",");
+        assertEquals(10, a.length);
+        assertEquals(10, b.length);
+        for (int i = 0; i < a.length; i++) {
+            assertEquals(Integer.parseInt(a[i]) % 1000, -Integer.parseInt(b[i]) % 1000);
+        }
+        assertEquals(true, downsampled.contains("1030"));
+        assertEquals(true, downsampled.contains("-1070"));
+    }
+
+    @Test
+    public void document_is_untouched_without_limit() {
+        String json = "{\"attr\":[1,2,3,4,5]}";
+
+        assertSame(json, HistoryDownsampling.downsample(json, 0));
+        assertSame(json, HistoryDownsampling.downsample(json, 10));
+    }
+
+    private static void assertContains(int[] indexes, int index) {
+        for (int i : indexes) {
+            if (i == index) {
+                return;
+            }
+        }
+        throw new AssertionError(index + " was not selected");
+    }
+}
@@ -0,0 +1,199 @@
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+
+public class MBeanCacheTest {
+
+    private static final String NODE = "jmx";
+
+    private static final List<Object> KEY = Arrays.<Object> asList("info", NODE, "java.lang:type=Memory");
+
+    private static final List<Object> OTHER_KEY = Arrays.<Object> asList("info", NODE, "java.lang:type=Runtime");
+
+    @Test
+    public void value_is_loaded_once_until_it_expires() throws Exception {
+        MBeanCache cache = new MBeanCache(50, 60000);
+        CountingLoader loader = new CountingLoader();
+
+        assertEquals("1", cache.get("sid", NODE, KEY, loader));
+        assertEquals("1", cache.get("sid", NODE, KEY, loader));
+
+        Thread.sleep(60);
+
+        assertEquals("2", cache.get("sid", NODE, KEY, loader));
+    }
+
+    @Test
+    public void failures_are_not_cached() throws Exception {
+        MBeanCache cache = new MBeanCache(60000, 60000);
+
+        try {
+            cache.get("sid", NODE, KEY, new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    throw new RestServerException(401, "unauthorized");
+                }
+            });
+            fail("the failure should be rethrown");
+        } catch (RestServerException e) {
+            assertEquals(401, e.getStatus());
+        }
+
+        assertEquals("1", cache.get("sid", NODE, KEY, new CountingLoader()));
+    }
+
+    @Test
+    public void concurrent_requests_are_coalesced() throws Exception {
+        final MBeanCache cache = new MBeanCache(60000, 60000);
+        authorize(cache, "sid");
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountingLoader loader = new CountingLoader() {
+            @Override
+            public String call() throws Exception {
+                release.await(5, TimeUnit.SECONDS);
+                return super.call();
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return cache.get("sid", NODE, KEY, loader);
+                    }
+                });
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<?> future : futures) {
+                assertEquals("1", future.get());
+            }
+            assertEquals(1, loader.calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void waiting_requests_do_not_receive_the_failure_of_another_request() throws Exception {
+        final MBeanCache cache = new MBeanCache(60000, 60000);
+        authorize(cache, "failing");
+        authorize(cache, "waiting");
+        final CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> failing = executor.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return cache.get("failing", NODE, KEY, new Callable<String>() {
+                        @Override
+                        public String call() throws Exception {
+                            release.await(5, TimeUnit.SECONDS);
+                            throw new RestServerException(401, "unauthorized");
+                        }
+                    });
+                }
+            });
+            Thread.sleep(50);
+            Future<String> waiting = executor.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return cache.get("waiting", NODE, KEY, new CountingLoader());
+                }
+            });
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals("1", waiting.get());
+            try {
+                failing.get();
+                fail("the failure should be reported to the request that loaded the value");
+            } catch (ExecutionException e) {
+                assertEquals(401, ((RestServerException) e.getCause()).getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void time_to_live_starts_when_the_load_completes() throws Exception {
+        MBeanCache cache = new MBeanCache(50, 60000);
+        authorize(cache, "sid");
+        final CountingLoader loader = new CountingLoader();
+
+        assertEquals("1", cache.get("sid", NODE, KEY, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                Thread.sleep(60);
+                return loader.call();
+            }
+        }));
+        assertEquals("1", cache.get("sid", NODE, KEY, loader));
+    }
+
+    @Test
+    public void sessions_watching_the_same_node_share_its_values() throws Exception {
+        MBeanCache cache = new MBeanCache(60000, 60000);
+        authorize(cache, "first");
+        authorize(cache, "second");
+        CountingLoader loader = new CountingLoader();
+
+        assertEquals("1", cache.get("first", NODE, KEY, loader));
+        assertEquals("1", cache.get("second", NODE, KEY, loader));
+        assertEquals(1, loader.calls.get());
+    }
+
+    @Test
+    public void values_are_not_shared_with_a_session_the_rest_server_did_not_authorize() throws Exception {
+        MBeanCache cache = new MBeanCache(60000, 60000);
+        assertEquals("1", cache.get("authorized", NODE, KEY, new CountingLoader()));
+
+        try {
+            cache.get("unauthorized", NODE, KEY, new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    throw new RestServerException(401, "unauthorized");
+                }
+            });
+            fail("the session should be checked by the REST server");
+        } catch (RestServerException e) {
+            assertEquals(401, e.getStatus());
+        }
+    }
+
+    private static void authorize(MBeanCache cache, String sessionId) throws Exception {
+        cache.get(sessionId, NODE, OTHER_KEY, new CountingLoader());
+    }
+
+    private static class CountingLoader implements Callable<String> {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String call() throws Exception {
+            return String.valueOf(calls.incrementAndGet());
+        }
+    }
+}
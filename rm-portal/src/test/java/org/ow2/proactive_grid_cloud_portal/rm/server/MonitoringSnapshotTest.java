@@ -0,0 +1,110 @@
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class MonitoringSnapshotTest {
+
+    @Test
+    public void delta_from_nothing_is_full() throws Exception {
+        MonitoringSnapshot snapshot = MonitoringSnapshot.read(monitoring("FREE", "BUSY"), 1);
+
+        JSONObject delta = new JSONObject(snapshot.deltaFrom(null));
+
+        assertEquals(1, delta.getLong("revision"));
+        assertTrue(delta.getBoolean("full"));
+        assertEquals(1, delta.getJSONArray("nodeSource").length());
+        assertEquals(2, delta.getJSONArray("nodesEvents").length());
+        assertEquals(0, delta.getJSONArray("removedNodes").length());
+        assertEquals(1, delta.getJSONObject("nodeStates").getInt("FREE"));
+        assertEquals(1, delta.getJSONObject("nodeStates").getInt("BUSY"));
+        assertEquals(1, delta.getInt("physicalHosts"));
+        assertEquals(1, delta.getInt("virtualHosts"));
+    }
+
+    @Test
+    public void delta_holds_changed_and_removed_nodes_only() throws Exception {
+        MonitoringSnapshot previous = MonitoringSnapshot.read(monitoring("FREE", "BUSY"), 1);
+        MonitoringSnapshot current = MonitoringSnapshot.read(monitoring("BUSY"), 2);
+
+        JSONObject delta = new JSONObject(current.deltaFrom(previous));
+
+        assertFalse(delta.getBoolean("full"));
+        assertEquals(0, delta.getJSONArray("nodeSource").length());
+        assertEquals(1, delta.getJSONArray("nodesEvents").length());
+        assertEquals("BUSY", delta.getJSONArray("nodesEvents").getJSONObject(0).getString("nodeState"));
+        assertEquals(1, delta.getJSONArray("removedNodes").length());
+        assertEquals("pnp://virt-host:64738/node1", delta.getJSONArray("removedNodes").getString(0));
+        assertEquals(0, delta.getInt("virtualHosts"));
+    }
+
+    @Test
+    public void same_content_is_detected() throws Exception {
+        MonitoringSnapshot previous = MonitoringSnapshot.read(monitoring("FREE"), 1);
+        MonitoringSnapshot current = MonitoringSnapshot.read(monitoring("FREE"), 2);
+
+        assertTrue(current.hasSameContent(previous));
+        assertFalse(MonitoringSnapshot.read(monitoring("BUSY"), 2).hasSameContent(previous));
+        assertEquals(1, current.withRevision(1).getRevision());
+    }
+
+    @Test
+    public void summary_holds_the_nodes_of_loaded_node_sources_only() throws Exception {
+        Set<String> loaded = new HashSet<>();
+        MonitoringSnapshot summary = MonitoringSnapshot.read(monitoring("FREE", "BUSY"), 1);
+        Set<String> sent = summary.getSentNodeSources(loaded, 1);
+
+        JSONObject delta = new JSONObject(summary.deltaFrom(null, null, null, summary, sent));
+
+        assertTrue(delta.getBoolean("summary"));
+        assertEquals(0, delta.getJSONArray("nodesEvents").length());
+        assertEquals(1, delta.getJSONObject("nodeStates").getInt("BUSY"));
+        assertEquals(1, delta.getJSONObject("nodeSourceStates").getJSONObject("Default").getInt("FREE"));
+        assertEquals(1, delta.getJSONObject("nodeSourceStates").getJSONObject("Default").getInt("BUSY"));
+
+        loaded.add("Default");
+        MonitoringSnapshot current = MonitoringSnapshot.read(monitoring("FREE", "BUSY"), 2);
+        String loadedDelta = current.deltaFrom(summary, summary, sent, current, current.getSentNodeSources(loaded, 1));
+        assertEquals(2, new JSONObject(loadedDelta).getJSONArray("nodesEvents").length());
+
+        // below the threshold every node is sent
+        assertNull(MonitoringSnapshot.read(monitoring("FREE"), 1).getSentNodeSources(loaded, 1));
+    }
+
+    @Test
+    public void nodes_held_by_the_client_can_be_kept() throws Exception {
+        MonitoringSnapshot previous = MonitoringSnapshot.read(monitoring("FREE", "BUSY"), 1);
+        MonitoringSnapshot current = MonitoringSnapshot.read(monitoring("BUSY", "BUSY"), 2);
+
+        JSONObject delta = new JSONObject(current.deltaFrom(previous, previous, null, previous, null));
+
+        assertEquals(0, delta.getJSONArray("nodesEvents").length());
+        assertEquals(0, delta.getJSONArray("removedNodes").length());
+        assertEquals(2, delta.getJSONObject("nodeStates").getInt("BUSY"));
+    }
+
+    /* one node source, the first node on a physical host and the second one on a virtual host */
+    private static String monitoring(String... nodeStates) {
+        StringBuilder nodes = new StringBuilder();
+        for (int i = 0; i < nodeStates.length; i++) {
+            if (i > 0) {
+                nodes.append(',');
+            }
+            String host = i == 0 ? "host" : "virt-host";
+            nodes.append("{\"nodeUrl\":\"pnp://").append(host).append(":64738/node").append(i).append("\"");
+            nodes.append(",\"nodeState\":\"").append(nodeStates[i]).append("\"");
+            nodes.append(",\"hostName\":\"").append(host).append("\",\"nodeSource\":\"Default\"}");
+        }
+        return "{\"nodeSource\":[{\"sourceName\":\"Default\",\"nodeSourceAdmin\":\"admin\"}]," +
+            "\"nodesEvents\":[" + nodes + "]}";
+    }
+}
@@ -0,0 +1,71 @@
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class MonitoringSnapshotsTest {
+
+    private static final String FREE = "{\"nodeSource\":[{\"sourceName\":\"Default\"}],\"nodesEvents\":[" +
+        "{\"nodeUrl\":\"pnp://host:64738/node0\",\"nodeState\":\"FREE\",\"nodeSource\":\"Default\"}]}";
+
+    private static final String BUSY = FREE.replace("FREE", "BUSY");
+
+    @Test
+    public void sessions_share_the_snapshot_of_the_same_state() throws Exception {
+        MonitoringSnapshots snapshots = new MonitoringSnapshots(60000);
+
+        JSONObject alice = new JSONObject(snapshots.getDelta("alice", FREE, -1, null, true, 100));
+        JSONObject bob = new JSONObject(snapshots.getDelta("bob", FREE, -1, null, true, 100));
+
+        assertEquals(alice.getLong("revision"), bob.getLong("revision"));
+        assertEquals(1, snapshots.getSnapshotsCount());
+    }
+
+    @Test
+    public void delta_is_built_from_the_revision_held_by_the_session() throws Exception {
+        MonitoringSnapshots snapshots = new MonitoringSnapshots(60000);
+        long revision = new JSONObject(snapshots.getDelta("alice", FREE, -1, null, true, 100)).getLong("revision");
+        snapshots.getDelta("bob", FREE, -1, null, true, 100);
+
+        JSONObject delta = new JSONObject(snapshots.getDelta("alice", BUSY, revision, null, true, 100));
+        assertFalse(delta.getBoolean("full"));
+        assertEquals(1, delta.getJSONArray("nodesEvents").length());
+        // bob still holds the first revision
+        assertEquals(2, snapshots.getSnapshotsCount());
+
+        assertTrue(new JSONObject(snapshots.getDelta("bob", BUSY, -1, null, true, 100)).getBoolean("full"));
+        assertEquals(1, snapshots.getSnapshotsCount());
+    }
+
+    @Test
+    public void nodes_held_by_the_client_are_kept_until_refreshed() throws Exception {
+        MonitoringSnapshots snapshots = new MonitoringSnapshots(60000);
+        long revision = new JSONObject(snapshots.getDelta("alice", FREE, -1, null, true, 100)).getLong("revision");
+
+        JSONObject counters = new JSONObject(snapshots.getDelta("alice", BUSY, revision, null, false, 100));
+        assertEquals(0, counters.getJSONArray("nodesEvents").length());
+        assertEquals(1, counters.getJSONObject("nodeStates").getInt("BUSY"));
+
+        JSONObject nodes = new JSONObject(snapshots.getDelta("alice", BUSY, counters.getLong("revision"), null,
+                true, 100));
+        assertEquals(1, nodes.getJSONArray("nodesEvents").length());
+    }
+
+    @Test
+    public void forgotten_sessions_release_their_snapshots() throws Exception {
+        MonitoringSnapshots snapshots = new MonitoringSnapshots(60000);
+        snapshots.getDelta("alice", FREE, -1, null, true, 100);
+        snapshots.getDelta("bob", BUSY, -1, null, true, 100);
+        assertEquals(2, snapshots.getSnapshotsCount());
+
+        snapshots.forget("alice");
+
+        assertEquals(1, snapshots.getSnapshotsCount());
+    }
+
+}
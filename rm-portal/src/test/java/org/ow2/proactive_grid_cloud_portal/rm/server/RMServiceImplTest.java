@@ -1,17 +1,36 @@
 package org.ow2.proactive_grid_cloud_portal.rm.server;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
+import javax.ws.rs.WebApplicationException;
 
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
 import org.ow2.proactive_grid_cloud_portal.rm.shared.RMConfig;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -35,6 +54,112 @@ public class RMServiceImplTest {
         assertEquals("a_version", RMConfig.get().getVersion());
     }
 
+    @Test
+    public void node_urls_are_partitioned_in_chunks() {
+        Set<String> urls = new LinkedHashSet<>();
+        for (int i = 0; i < 7; i++) {
+            urls.add("pnp://host:64738/node" + i);
+        }
+
+        List<Set<String>> chunks = RMServiceImpl.partition(urls, 3);
+
+        assertEquals(3, chunks.size());
+        assertEquals(3, chunks.get(0).size());
+        assertEquals(3, chunks.get(1).size());
+        assertEquals(1, chunks.get(2).size());
+
+        Set<String> all = new HashSet<>();
+        for (Set<String> chunk : chunks) {
+            all.addAll(chunk);
+        }
+        assertEquals(urls, all);
+    }
+
+    @Test
+    public void mbeans_batch_results_are_in_query_order() throws Exception {
+        RMServiceImpl service = spy(initializedService());
+        doReturn("{\"HeapMemoryUsage\":1}").when(service).getNodeMBeanInfo("sid", "jmx", "java.lang:type=Memory",
+                Collections.singletonList("HeapMemoryUsage"));
+        doReturn("{\"ThreadCount\":[1,2]}").when(service).getNodeMBeanHistory(eq("sid"), eq("jmx"),
+                eq("java.lang:type=Threading"), eq(Collections.singletonList("ThreadCount")), eq("h"), anyInt());
+        doThrow(new RestServerException(404, "not found")).when(service).getNodeMBeansInfo("sid", "jmx",
+                "sigar:Type=NetInterface,Name=*", Collections.singletonList("RxBytes"));
+
+        List<String> results = service.getNodeMBeansBatch("sid", "jmx", Arrays.asList(
+                new MBeanQuery("java.lang:type=Memory", Collections.singletonList("HeapMemoryUsage"), null, false),
+                new MBeanQuery("sigar:Type=NetInterface,Name=*", Collections.singletonList("RxBytes"), null, true),
+                new MBeanQuery("java.lang:type=Threading", Collections.singletonList("ThreadCount"), "h", 300, false)));
+
+        assertEquals(Arrays.asList("{\"HeapMemoryUsage\":1}", null, "{\"ThreadCount\":[1,2]}"), results);
+        verify(service).getNodeMBeanHistory("sid", "jmx", "java.lang:type=Threading",
+                Collections.singletonList("ThreadCount"), "h", 300);
+    }
+
+    @Test(expected = RestServerException.class)
+    public void mbeans_batch_fails_when_all_queries_fail() throws Exception {
+        RMServiceImpl service = spy(initializedService());
+        doThrow(new RestServerException(401, "unauthorized")).when(service).getNodeMBeanInfo("sid", "jmx",
+                "java.lang:type=Memory", Collections.singletonList("HeapMemoryUsage"));
+
+        service.getNodeMBeansBatch("sid", "jmx", Collections.singletonList(
+                new MBeanQuery("java.lang:type=Memory", Collections.singletonList("HeapMemoryUsage"), null, false)));
+    }
+
+    @Test
+    public void nodes_are_removed_one_by_one_with_an_outcome_each() throws Exception {
+        RMServiceImpl service = spy(initializedService());
+        RestClient restClient = mock(RestClient.class);
+        doReturn(restClient).when(service).getRestClientProxy();
+        when(restClient.removeNode("sid", "pnp://host:64738/node0", true)).thenReturn(stream("true"));
+        when(restClient.removeNode("sid", "pnp://host:64738/node1", true)).thenReturn(stream("false"));
+        when(restClient.removeNode("sid", "pnp://host:64738/node2", true))
+                .thenThrow(new WebApplicationException(404));
+
+        Map<String, Boolean> outcome = service.removeNodes("sid", new HashSet<>(Arrays.asList(
+                "pnp://host:64738/node0", "pnp://host:64738/node1", "pnp://host:64738/node2")), true);
+
+        assertEquals(3, outcome.size());
+        assertEquals(Boolean.TRUE, outcome.get("pnp://host:64738/node0"));
+        assertEquals(Boolean.FALSE, outcome.get("pnp://host:64738/node1"));
+        assertEquals(Boolean.FALSE, outcome.get("pnp://host:64738/node2"));
+    }
+
+    @Test(expected = RestServerException.class)
+    public void expired_session_is_reported_instead_of_the_chunk_failures() throws Exception {
+        RMServiceImpl service = spy(initializedService());
+        RestClient restClient = mock(RestClient.class);
+        doReturn(restClient).when(service).getRestClientProxy();
+        Set<String> urls = Collections.singleton("pnp://host:64738/node0");
+        when(restClient.lockNodes("sid", urls)).thenThrow(new WebApplicationException(401));
+
+        service.lockNodes("sid", urls);
+    }
+
+    @Test(expected = RestServerException.class)
+    public void expired_session_is_reported_instead_of_the_node_failures() throws Exception {
+        RMServiceImpl service = spy(initializedService());
+        RestClient restClient = mock(RestClient.class);
+        doReturn(restClient).when(service).getRestClientProxy();
+        when(restClient.removeNode("sid", "pnp://host:64738/node0", true))
+                .thenThrow(new WebApplicationException(401));
+
+        service.removeNodes("sid", Collections.singleton("pnp://host:64738/node0"), true);
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private RMServiceImpl initializedService() throws Exception {
+        RMServiceImpl service = new RMServiceImpl();
+
+        ServletContext servletContext = mock(ServletContext.class);
+        when(servletContext.getRealPath("rm.conf")).thenReturn(resourceAsFilePath("/rm.conf"));
+        service.init(mockServletContext(servletContext));
+
+        return service;
+    }
+
     private String resourceAsFilePath(String resourcePath) {
         URL resource = getClass().getResource(resourcePath);
         try {
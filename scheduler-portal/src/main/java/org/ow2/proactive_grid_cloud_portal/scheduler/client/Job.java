@@ -38,8 +38,6 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.client;
 
 import java.io.Serializable;
 
-import com.google.gwt.json.client.JSONObject;
-
 
 /**
  * Representation of the business object that represents a job.
@@ -309,41 +307,6 @@ public class Job implements Serializable, Comparable<Job> {
                 this.status == JobStatus.FAILED || this.status == JobStatus.KILLED;
     }
 
-    /**
-     * @param jsonJob the JSON representation of a job
-     * @return a POJO equivalent
-     */
-    public static Job parseJson(JSONObject jsonJob) {
-        JSONObject jsonInfo = jsonJob.get("jobInfo").isObject(); // TODO to update jobInfo
-        return parseJSONInfo(jsonInfo);
-    }
-    
-    
-    public static Job parseJSONInfo(JSONObject jsonJobInfo){
-        String user = jsonJobInfo.get("jobOwner").isString().stringValue();
-        String priority = jsonJobInfo.get("priority").isString().stringValue();
-        String status = jsonJobInfo.get("status").isString().stringValue();
-        int pending = (int) jsonJobInfo.get("numberOfPendingTasks").isNumber().doubleValue();
-        int running = (int) jsonJobInfo.get("numberOfRunningTasks").isNumber().doubleValue();
-        int finished = (int) jsonJobInfo.get("numberOfFinishedTasks").isNumber().doubleValue();
-        int total = (int) jsonJobInfo.get("totalNumberOfTasks").isNumber().doubleValue();
-        int failed = (int) jsonJobInfo.get("numberOfFailedTasks").isNumber().doubleValue();
-        int faulty = (int) jsonJobInfo.get("numberOfFaultyTasks").isNumber().doubleValue();
-        int inError = (int) jsonJobInfo.get("numberOfInErrorTasks").isNumber().doubleValue();
-        long submittedTime = (long) jsonJobInfo.get("submittedTime").isNumber().doubleValue();
-        long startTime = (long) jsonJobInfo.get("startTime").isNumber().doubleValue();
-        long inErrorTime = (long) jsonJobInfo.get("inErrorTime").isNumber().doubleValue();
-        long finishedTime = (long) jsonJobInfo.get("finishedTime").isNumber().doubleValue();
-        
-        JSONObject jsonInfoId = jsonJobInfo.get("jobId").isObject();
-        String name = jsonInfoId.get("readableName").isString().stringValue();
-        int id = (int) jsonInfoId.get("id").isNumber().doubleValue();
-        
-        return new Job(id, name, JobStatus.valueOf(status), JobPriority.findPriority(priority), user,
-                pending, running, finished, total, failed, faulty, inError, submittedTime, startTime,
-                inErrorTime, finishedTime);
-    }
-
     /**
      * Format a duration in milliseconds to a human readable format.
      *
@@ -38,12 +38,14 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.client;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.TasksModel;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
 
 import com.google.gwt.safehtml.shared.SafeHtmlUtils;
 
@@ -61,8 +63,14 @@ import com.google.gwt.safehtml.shared.SafeHtmlUtils;
 public class JobOutput {
 
     
-    private static final String PLATFORM_INDEPENDENT_LINE_BREAK = "\r\n?|\n";
-    
+    private static final String LINE_START = "<nobr>";
+
+    private static final String TIMESTAMP_LINE_START = "<nobr><span style='color:gray;'>";
+
+    private static final String TIMESTAMP_END = "]</span>";
+
+    private static final String LINE_END = "</nobr><br>";
+
     private static final Comparator<Task> TASK_FINISHED_TIME_COMPARATOR = new Comparator<Task>() {
         @Override
         public int compare(Task o1, Task o2) {
@@ -84,6 +92,9 @@ public class JobOutput {
 
     /** id of the job */
     private String jobId;
+
+    /** reused to format each output line */
+    private final StringBuilder lineBuilder = new StringBuilder();
     
     
     protected boolean isLive = false;
@@ -92,7 +103,8 @@ public class JobOutput {
     protected boolean liveEnabled = true;
     
     
-    protected List<List<String>> liveContent;
+    /** most recent live output lines, bounded */
+    protected LiveOutput liveContent;
     
 
     /**
@@ -109,7 +121,6 @@ public class JobOutput {
     public List<String> update(Task task, String out, OutputMode outputMode) {
         ArrayList<String> remoteVisuLines = new ArrayList<String>();
 
-        
         if(this.outputMode != outputMode) {
             this.outputMode = outputMode;
             this.resetLines();
@@ -124,16 +135,7 @@ public class JobOutput {
             taskLines.clear();
         }
 
-        for (String line : lineByLine(out)) {
-            if (line.contains(TasksModel.PA_REMOTE_CONNECTION)){
-                remoteVisuLines.add(line);
-            }
-            line = formatLine(line);
-
-            if (!line.trim().isEmpty()) {
-                taskLines.add(line);
-            }
-        }
+        formatLines(out, taskLines, remoteVisuLines);
         return remoteVisuLines;
     }
     
@@ -146,17 +148,7 @@ public class JobOutput {
     public List<String> updateLive(String out) {
         ArrayList<String> remoteVisuLines = new ArrayList<String>();
         
-        String[] expl = lineByLine(out);
-        String formatedLine;
-        for (String str : expl) {
-            if (str.contains(TasksModel.PA_REMOTE_CONNECTION)){
-                remoteVisuLines.add(str);
-            }
-            formatedLine = formatLine(str);
-            if (!formatedLine.isEmpty()) {
-                this.liveContent.get(0).add(formatedLine);
-            }
-        }
+        formatLines(out, this.liveContent, remoteVisuLines);
         return remoteVisuLines;
     }
     
@@ -167,7 +159,7 @@ public class JobOutput {
      */
     public Collection<List<String>> getLines() {
         if(this.isLive) {
-            return this.liveContent;
+            return Collections.<List<String>>singletonList(this.liveContent);
         }
         else {
             return this.lines.values();
@@ -192,6 +184,14 @@ public class JobOutput {
 
     
 
+    /**
+     * @return the most recent live output lines, or null if live output was never enabled
+     */
+    public LiveOutput getLiveContent() {
+        return liveContent;
+    }
+
+
     public boolean isLive() {
         return isLive;
     }
@@ -199,31 +199,108 @@ public class JobOutput {
     public void setLive(boolean isLive) {
         this.isLive = isLive;
         if (isLive && this.liveContent == null) {
-            this.liveContent = new ArrayList<List<String>>();
-            this.liveContent.add(new ArrayList<String>());
+            this.liveContent = new LiveOutput(SchedulerConfig.get().getLivelogsMaxLines());
         }
     }
     
     
-    private String[] lineByLine(String lines) {
-        return lines.split(PLATFORM_INDEPENDENT_LINE_BREAK);
-    }
+    /**
+     * Split an output in lines, and format each line that is not blank as html
+     * <p>
+     * Lines end with \n, \r or \r\n. When a line starts with a timestamp between brackets,
+     * the timestamp is displayed in gray.
+     * 
+     * @param out the output to format
+     * @param formattedLines receives the formatted lines
+     * @param remoteVisuLines receives the raw lines that contain PA_REMOTE_CONNECTION
+     */
+    private void formatLines(String out, List<String> formattedLines, List<String> remoteVisuLines) {
+        int length = out.length();
+        int remoteConnection = out.indexOf(TasksModel.PA_REMOTE_CONNECTION);
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            boolean blank = true;
+            char c;
+            while (end < length && (c = out.charAt(end)) != '\n' && c != '\r') {
+                if (c > ' ') {
+                    blank = false;
+                }
+                end++;
+            }
 
+            if (remoteConnection >= 0 && remoteConnection < end) {
+                if (remoteConnection + TasksModel.PA_REMOTE_CONNECTION.length() <= end) {
+                    remoteVisuLines.add(out.substring(start, end));
+                }
+                remoteConnection = out.indexOf(TasksModel.PA_REMOTE_CONNECTION, end);
+            }
+
+            if (!blank) {
+                formattedLines.add(formatLine(out, start, end));
+            }
 
-    private String formatLine(String str) {
-        if (str.trim().isEmpty()) {
-            return "";
+            // skip the line break, \r\n being a single one
+            if (end < length && out.charAt(end) == '\r' && end + 1 < length && out.charAt(end + 1) == '\n') {
+                end++;
+            }
+            start = end + 1;
         }
-        else {
-            String safeString;
-            // Timestamp is colored when the default pattern is in use
-            if (str.matches("\\[.*\\].*")) {
-                safeString = SafeHtmlUtils.htmlEscape(str).replaceFirst("]", "]</span>");
-                return "<nobr><span style='color:gray;'>" + safeString +"</nobr><br>";
+    }
+
+
+    private String formatLine(String out, int start, int end) {
+        StringBuilder line = this.lineBuilder;
+        line.setLength(0);
+
+        // Timestamp is colored when the default pattern is in use
+        int timestampEnd = -1;
+        if (out.charAt(start) == '[') {
+            timestampEnd = out.indexOf(']', start + 1);
+            if (timestampEnd >= end) {
+                timestampEnd = -1;
             }
-            else {
-                safeString = SafeHtmlUtils.htmlEscape(str);
-                return "<nobr>" + safeString +"</nobr><br>";
+        }
+
+        if (timestampEnd < 0) {
+            line.append(LINE_START);
+            appendEscaped(line, out, start, end);
+        } else {
+            line.append(TIMESTAMP_LINE_START);
+            appendEscaped(line, out, start, timestampEnd);
+            line.append(TIMESTAMP_END);
+            appendEscaped(line, out, timestampEnd + 1, end);
+        }
+        line.append(LINE_END);
+
+        return line.toString();
+    }
+
+
+    /**
+     * Append some characters, escaped the same way as by {@link SafeHtmlUtils#htmlEscape(String)}
+     */
+    private static void appendEscaped(StringBuilder builder, String str, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = str.charAt(i);
+            switch (c) {
+                case '&':
+                    builder.append("&amp;");
+                    break;
+                case '<':
+                    builder.append("&lt;");
+                    break;
+                case '>':
+                    builder.append("&gt;");
+                    break;
+                case '"':
+                    builder.append("&quot;");
+                    break;
+                case '\'':
+                    builder.append("&#39;");
+                    break;
+                default:
+                    builder.append(c);
             }
         }
     }
@@ -0,0 +1,137 @@
+/*
+ *  *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ *  * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.user.client.rpc.IsSerializable;
+
+
+/**
+ * A page of the output of a job, as aggregated by the server:
+ * the outputs of the started tasks between {@link #getOffset()} and
+ * {@link #getOffset()} + {@link #getLimit()}, ordered by finish time.
+ */
+public class JobOutputPage implements IsSerializable {
+
+    private String jobId;
+    private int offset;
+    private int limit;
+    private int totalTasks;
+
+    private List<TaskOutput> taskOutputs = new ArrayList<TaskOutput>();
+
+    public JobOutputPage(String jobId, int offset, int limit, int totalTasks) {
+        this.jobId = jobId;
+        this.offset = offset;
+        this.limit = limit;
+        this.totalTasks = totalTasks;
+    }
+
+    public JobOutputPage() {
+    }
+
+    public void add(TaskOutput taskOutput) {
+        taskOutputs.add(taskOutput);
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the number of tasks in the job, started or not
+     */
+    public int getTotalTasks() {
+        return totalTasks;
+    }
+
+    /**
+     * @return true if more tasks remain after this page
+     */
+    public boolean hasNextPage() {
+        return offset + limit < totalTasks;
+    }
+
+    public List<TaskOutput> getTaskOutputs() {
+        return taskOutputs;
+    }
+
+    /**
+     * The output of a single task, or the error message returned by
+     * the REST server if it could not be fetched.
+     */
+    public static class TaskOutput implements IsSerializable {
+
+        private Task task;
+        private String output;
+        private String error;
+
+        public TaskOutput(Task task, String output, String error) {
+            this.task = task;
+            this.output = output;
+            this.error = error;
+        }
+
+        public TaskOutput() {
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        public String getOutput() {
+            return output;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isFailed() {
+            return error != null;
+        }
+    }
+
+}
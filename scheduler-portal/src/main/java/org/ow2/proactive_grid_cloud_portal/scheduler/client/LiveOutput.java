@@ -0,0 +1,116 @@
+/*
+ *  *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ *  * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client;
+
+import java.util.AbstractList;
+
+
+/**
+ * Most recent lines of the live output of a job
+ * <p>
+ * Lines are stored in a ring of fixed capacity: once it is full,
+ * appending a line evicts the oldest one.
+ */
+public class LiveOutput extends AbstractList<String> {
+
+    private final String[] lines;
+
+    /** index in {@link #lines} of the oldest line */
+    private int first = 0;
+
+    private int size = 0;
+
+    /** number of lines appended since creation, evicted ones included */
+    private long appendedCount = 0;
+
+    /**
+     * @param maxLines maximum number of lines kept
+     */
+    public LiveOutput(int maxLines) {
+        this.lines = new String[Math.max(1, maxLines)];
+    }
+
+    @Override
+    public boolean add(String line) {
+        if (size < lines.length) {
+            lines[(first + size) % lines.length] = line;
+            size++;
+        } else {
+            lines[first] = line;
+            first = (first + 1) % lines.length;
+        }
+        appendedCount++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return lines[(first + index) % lines.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = null;
+        }
+        first = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * @return the maximum number of lines kept
+     */
+    public int getMaxLines() {
+        return lines.length;
+    }
+
+    /**
+     * @return the number of lines appended since creation, evicted ones included;
+     *          the first line kept is the {@code getAppendedCount() - size()}th one
+     */
+    public long getAppendedCount() {
+        return appendedCount;
+    }
+}
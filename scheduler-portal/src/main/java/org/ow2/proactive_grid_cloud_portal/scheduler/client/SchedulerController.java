@@ -137,6 +137,9 @@ public class SchedulerController extends Controller implements UncaughtException
     /** do not fetch visualization info when false */
     private boolean visuFetchEnabled = false;
 
+    /** false until the dashboard state is received, the server then only sends the parts that changed */
+    private boolean dashboardStateReceived = false;
+
     
 
     private static final int active_tick = 3;
@@ -553,6 +556,7 @@ public class SchedulerController extends Controller implements UncaughtException
         if (this.schedulerTimerUpdate != null)
             throw new IllegalStateException("There's already a Timer");
 
+        this.dashboardStateReceived = false;
         this.schedulerTimerUpdate = new Timer() {
 
             @Override
@@ -563,125 +567,10 @@ public class SchedulerController extends Controller implements UncaughtException
                             + "Another tab or window in this browser is accessing this page.");
                 }
 
-                SchedulerController.this.updateSchedulerStatus();
-
-                executionController.executionStateRevision(false);
-
-                if (timerUpdate % userFetchTick == 0) {
-                    final long t1 = System.currentTimeMillis();
-
-                    scheduler.getSchedulerUsers(LoginModel.getInstance().getSessionId(), new AsyncCallback<String>() {
-                        public void onSuccess(String result) {
-                            List<SchedulerUser> users;
-
-                            JSONValue val = parseJSON(result);
-                            JSONArray arr = val.isArray();
-                            if (arr == null) {
-                                error("Expected JSON Array: " + val.toString());
-                            }
-                            users = getUsersFromJson(arr);
-                            model.setSchedulerUsers(users);
-
-                            long t = (System.currentTimeMillis() - t1);
-                            LogModel.getInstance().logMessage("<span style='color:gray;'>Fetched " + users.size() +
-                                    " users in " + t + " ms</span>");
-                        }
-
-                        public void onFailure(Throwable caught) {
-                            if (!LoginModel.getInstance().isLoggedIn())
-                                return;
-
-                            error("Failed to fetch scheduler users:<br>" + JSONUtils.getJsonErrorMessage(caught));
-                        }
-                    });
-                }
-
-                if (timerUpdate % statsFetchTick == 0) {
-                    final long t1 = System.currentTimeMillis();
+                boolean wantUsers = timerUpdate % userFetchTick == 0;
+                boolean wantStats = timerUpdate % statsFetchTick == 0;
+                SchedulerController.this.fetchDashboardState(wantUsers, wantStats);
 
-                    scheduler.getStatistics(LoginModel.getInstance().getSessionId(), new AsyncCallback<String>() {
-                        public void onFailure(Throwable caught) {
-                            String msg = JSONUtils.getJsonErrorMessage(caught);
-                            if (!LoginModel.getInstance().isLoggedIn())
-                                return;
-                            error("Failed to fetch scheduler stats:<br>" + msg);
-                        }
-
-                        public void onSuccess(String result) {
-                            HashMap<String, String> stats = new HashMap<String, String>();
-
-                            JSONObject json = parseJSON(result).isObject();
-                            if (json == null)
-                                error("Expected JSON Object: " + result);
-
-                            stats.put("JobSubmittingPeriod", json.get("JobSubmittingPeriod").isString()
-                                    .stringValue());
-                            stats.put("FormattedJobSubmittingPeriod", json
-                                    .get("FormattedJobSubmittingPeriod").isString().stringValue());
-                            stats.put("MeanJobPendingTime", json.get("MeanJobPendingTime").isString()
-                                    .stringValue());
-                            stats.put("ConnectedUsersCount", json.get("ConnectedUsersCount").isString()
-                                    .stringValue());
-                            stats.put("FinishedTasksCount", json.get("FinishedTasksCount").isString()
-                                    .stringValue());
-                            stats.put("RunningJobsCount", json.get("RunningJobsCount").isString()
-                                    .stringValue());
-                            stats.put("RunningTasksCount", json.get("RunningTasksCount").isString()
-                                    .stringValue());
-                            stats.put("FormattedMeanJobPendingTime", json.get("FormattedMeanJobPendingTime")
-                                    .isString().stringValue());
-                            stats.put("MeanJobExecutionTime", json.get("MeanJobExecutionTime").isString()
-                                    .stringValue());
-                            stats.put("PendingTasksCount", json.get("PendingTasksCount").isString()
-                                    .stringValue());
-                            stats.put("FinishedJobsCount", json.get("FinishedJobsCount").isString()
-                                    .stringValue());
-                            stats.put("TotalTasksCount", json.get("TotalTasksCount").isString().stringValue());
-                            stats.put("FormattedMeanJobExecutionTime",
-                                    json.get("FormattedMeanJobExecutionTime").isString().stringValue());
-                            stats.put("TotalJobsCount", json.get("TotalJobsCount").isString().stringValue());
-                            stats.put("PendingJobsCount", json.get("PendingJobsCount").isString()
-                                    .stringValue());
-
-                            model.setSchedulerStatistics(stats);
-
-                            long t = (System.currentTimeMillis() - t1);
-                            LogModel.getInstance().logMessage("<span style='color:gray;'>Fetched sched stats: " +
-                                    result.length() + " chars in " + t + " ms</span>");
-                        }
-                    });
-
-                    final long t2 = System.currentTimeMillis();
-
-                    scheduler.getStatisticsOnMyAccount(LoginModel.getInstance().getSessionId(), new AsyncCallback<String>() {
-                        public void onFailure(Throwable caught) {
-                            if (!LoginModel.getInstance().isLoggedIn())
-                                return;
-                            error("Failed to fetch account stats:<br>" + JSONUtils.getJsonErrorMessage(caught));
-                        }
-
-                        public void onSuccess(String result) {
-                            HashMap<String, String> stats = new HashMap<String, String>();
-
-                            JSONObject json = parseJSON(result).isObject();
-                            if (json == null)
-                                error("Expected JSON Object: " + result);
-
-                            stats.put("TotalTaskCount", json.get("TotalTaskCount").isString().stringValue());
-                            stats.put("TotalJobDuration", json.get("TotalJobDuration").isString()
-                                    .stringValue());
-                            stats.put("TotalJobCount", json.get("TotalJobCount").isString().stringValue());
-                            stats.put("TotalTaskDuration", json.get("TotalTaskDuration").isString()
-                                    .stringValue());
-
-                            model.setAccountStatistics(stats);
-
-                            long t = (System.currentTimeMillis() - t2);
-                            LogModel.getInstance().logMessage("<span style='color:gray;'>Fetched account stats: " +
-                                    result.length() + " chars in " + t + " ms</span>");
-                        }
-                    });
-                }
                 timerUpdate++;
             }
         };
@@ -710,39 +599,150 @@ public class SchedulerController extends Controller implements UncaughtException
     }
 
     /**
-     * Fetch scheduler status, update the model,
-     * fail hard on error
+     * Fetch in a single request the scheduler status, the state revision, and when asked the users
+     * and statistics, then update the model with the parts that changed.
+     * Fail hard if the status cannot be fetched, other parts are skipped on error
+     *
+     * @param wantUsers true to fetch the connected users
+     * @param wantStats true to fetch the scheduler and account statistics
      */
-    private void updateSchedulerStatus() {
-        scheduler.getSchedulerStatus(LoginModel.getInstance().getSessionId(), new AsyncCallback<String>() {
+    private void fetchDashboardState(boolean wantUsers, boolean wantStats) {
+        final long t1 = System.currentTimeMillis();
+        long lastRevision = dashboardStateReceived ? executionController.getModel().getJobsModel()
+                .getJobsRevision() : -1;
+
+        scheduler.getDashboardState(LoginModel.getInstance().getSessionId(), lastRevision, wantUsers, wantStats,
+                new AsyncCallback<String>() {
 
             public void onFailure(Throwable caught) {
                 if (!LoginModel.getInstance().isLoggedIn()) {
                     // might have been disconnected in between
                     return;
                 }
+                // the server may have sent parts that did not reach the client
+                dashboardStateReceived = false;
                 String msg = JSONUtils.getJsonErrorMessage(caught);
                 error("Error while fetching status:\n" + caught.getClass().getName() + " " + msg);
                 LogModel.getInstance().logImportantMessage("Error while fetching status: " + msg);
             }
 
             public void onSuccess(String result) {
-                JSONValue val = parseJSON(result);
-                String sval = val.isString().stringValue();
-                SchedulerStatus stat = SchedulerStatus.valueOf(sval);
-                SchedulerController.this.model.setSchedulerStatus(stat);
-
-                if (result.equals(SchedulerStatus.SHUTTING_DOWN)) {
-                    error("The Scheduler has been shut down, exiting");
-                } else if (result.equals(SchedulerStatus.KILLED)) {
-                    error("The Scheduler has been killed, exiting");
+                JSONObject state = parseJSON(result).isObject();
+                if (state == null) {
+                    error("Expected JSON Object: " + result);
+                    return;
+                }
+
+                dashboardStateReceived = true;
+                if (state.containsKey("status")) {
+                    updateSchedulerStatus(state.get("status").toString());
+                }
+                JSONValue revision = state.get("revision");
+                executionController.executionStateTick(revision != null ? (long) revision.isNumber()
+                        .doubleValue() : -1);
+
+                if (state.containsKey("users")) {
+                    updateSchedulerUsers(state.get("users"));
+                }
+                if (state.containsKey("statistics")) {
+                    updateSchedulerStatistics(state.get("statistics").isObject());
+                }
+                if (state.containsKey("accountStatistics")) {
+                    updateAccountStatistics(state.get("accountStatistics").isObject());
+                }
+                if (state.containsKey("failed")) {
+                    // the other parts are refreshed, the failed ones are fetched again next time
+                    LogModel.getInstance().logMessage("Failed to fetch " + state.get("failed") +
+                        " from the dashboard state");
                 }
-                // do not model.logMessage() : this is repeated by a timer
-            }
 
+                long t = (System.currentTimeMillis() - t1);
+                LogModel.getInstance().logMessage("<span style='color:gray;'>Fetched dashboard state: " +
+                        result.length() + " chars in " + t + " ms</span>");
+            }
         });
     }
 
+    /**
+     * Update the scheduler status in the model,
+     * fail hard if the scheduler is down
+     */
+    private void updateSchedulerStatus(String result) {
+        JSONValue val = parseJSON(result);
+        String sval = val.isString().stringValue();
+        SchedulerStatus stat = SchedulerStatus.valueOf(sval);
+        SchedulerController.this.model.setSchedulerStatus(stat);
+
+        if (result.equals(SchedulerStatus.SHUTTING_DOWN)) {
+            error("The Scheduler has been shut down, exiting");
+        } else if (result.equals(SchedulerStatus.KILLED)) {
+            error("The Scheduler has been killed, exiting");
+        }
+        // do not model.logMessage() : this is repeated by a timer
+    }
+
+    private void updateSchedulerUsers(JSONValue val) {
+        JSONArray arr = val.isArray();
+        if (arr == null) {
+            error("Expected JSON Array: " + val.toString());
+        }
+        model.setSchedulerUsers(getUsersFromJson(arr));
+    }
+
+    private void updateSchedulerStatistics(JSONObject json) {
+        HashMap<String, String> stats = new HashMap<String, String>();
+
+        if (json == null)
+            error("Expected JSON Object for scheduler stats");
+
+        stats.put("JobSubmittingPeriod", json.get("JobSubmittingPeriod").isString()
+                .stringValue());
+        stats.put("FormattedJobSubmittingPeriod", json
+                .get("FormattedJobSubmittingPeriod").isString().stringValue());
+        stats.put("MeanJobPendingTime", json.get("MeanJobPendingTime").isString()
+                .stringValue());
+        stats.put("ConnectedUsersCount", json.get("ConnectedUsersCount").isString()
+                .stringValue());
+        stats.put("FinishedTasksCount", json.get("FinishedTasksCount").isString()
+                .stringValue());
+        stats.put("RunningJobsCount", json.get("RunningJobsCount").isString()
+                .stringValue());
+        stats.put("RunningTasksCount", json.get("RunningTasksCount").isString()
+                .stringValue());
+        stats.put("FormattedMeanJobPendingTime", json.get("FormattedMeanJobPendingTime")
+                .isString().stringValue());
+        stats.put("MeanJobExecutionTime", json.get("MeanJobExecutionTime").isString()
+                .stringValue());
+        stats.put("PendingTasksCount", json.get("PendingTasksCount").isString()
+                .stringValue());
+        stats.put("FinishedJobsCount", json.get("FinishedJobsCount").isString()
+                .stringValue());
+        stats.put("TotalTasksCount", json.get("TotalTasksCount").isString().stringValue());
+        stats.put("FormattedMeanJobExecutionTime",
+                json.get("FormattedMeanJobExecutionTime").isString().stringValue());
+        stats.put("TotalJobsCount", json.get("TotalJobsCount").isString().stringValue());
+        stats.put("PendingJobsCount", json.get("PendingJobsCount").isString()
+                .stringValue());
+
+        model.setSchedulerStatistics(stats);
+    }
+
+    private void updateAccountStatistics(JSONObject json) {
+        HashMap<String, String> stats = new HashMap<String, String>();
+
+        if (json == null)
+            error("Expected JSON Object for account stats");
+
+        stats.put("TotalTaskCount", json.get("TotalTaskCount").isString().stringValue());
+        stats.put("TotalJobDuration", json.get("TotalJobDuration").isString()
+                .stringValue());
+        stats.put("TotalJobCount", json.get("TotalJobCount").isString().stringValue());
+        stats.put("TotalTaskDuration", json.get("TotalTaskDuration").isString()
+                .stringValue());
+
+        model.setAccountStatistics(stats);
+    }
+
     
     /**
      * @param b true fetch users info less often
@@ -69,21 +69,21 @@ public interface SchedulerService extends RemoteService {
      * Removes several jobs from the scheduler.
      * @param sessionId the session id of the user that removes the job
      * @param jobIdList the list of the job ids that are to be removed
-     * @return number of removed jobs
+     * @return for each job id, true if the job was removed
      * @throws RestServerException
      * @throws ServiceException
      */
-    int removeJobs(String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException;
+    Map<Integer, Boolean> removeJobs(String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException;
 
     /**
      * Pauses a job.
      * @param sessionId the session id of the user that pauses the job
      * @param list the list of the job ids that are to be paused
-     * @return number of paused jobs
+     * @return for each job id, true if the job was paused
      * @throws RestServerException
      * @throws ServiceException
      */
-    int pauseJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    Map<Integer, Boolean> pauseJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
 
     /**
      * By making an asynchronous call to the server, all in error tasks from the selected jobs are restarted.
@@ -91,28 +91,29 @@ public interface SchedulerService extends RemoteService {
      * @param sessionId     the session id of the user which is logged in
      * @param list          the list of jobs which are to be resumed
      *                      or not.
+     * @return for each job id, true if its in error tasks were restarted
      */
-    int restartAllInErrorTasks(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    Map<Integer, Boolean> restartAllInErrorTasks(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
 
     /**
      * Resumes a job.
      * @param sessionId the session id of the user that resumes the job
      * @param list the list of the job ids that are to be resumed
-     * @return number of resumed jobs
+     * @return for each job id, true if the job was resumed
      * @throws RestServerException
      * @throws ServiceException
      */
-    int resumeJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    Map<Integer, Boolean> resumeJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
 
     /**
      * Kills several jobs.
      * @param sessionId the session id of the user that resumes the job
      * @param list the list of the job ids that are to be resumed
-     * @return number of killed jobs
+     * @return for each job id, true if the job was killed
      * @throws RestServerException
      * @throws ServiceException
      */
-    int killJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    Map<Integer, Boolean> killJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
 
     /**
      * Kill a task
@@ -210,13 +211,13 @@ public interface SchedulerService extends RemoteService {
             throws RestServerException, ServiceException;
     
     /**
-     * Returns a list of the tags of the tasks belonging to job <code>jobId</code> and filtered by a prefix pattern
+     * Returns a list of the tags of the tasks belonging to job <code>jobId</code>
      * @param sessionId a valid session id
      * @param jobId jobid one wants to list the tasks' tags
-     * @param prefix the prefix used to filter tags
      * @return a list tags
      */
-    String getJobTaskTagsPrefix(String sessionId, String jobId, String prefix) throws RestServerException, ServiceException;
+    String getJobTaskTags(String sessionId, String jobId) throws RestServerException, ServiceException;
+
     
 
     /**
@@ -256,10 +257,11 @@ public interface SchedulerService extends RemoteService {
      * @param sessionId the session id of the user which is logged in
      * @param list the list of the job ids which are going to have their priority changed
      * @param priorityName the name of the new priority
+     * @return for each job id, true if the priority of the job was changed
      * @throws RestServerException
      * @throws ServiceException
      */
-    void setPriorityByName(String sessionId, List<Integer> list, String priorityName)
+    Map<Integer, Boolean> setPriorityByName(String sessionId, List<Integer> list, String priorityName)
             throws RestServerException, ServiceException;
 
     /**
@@ -330,6 +332,22 @@ public interface SchedulerService extends RemoteService {
     String getTaskOutput(final String sessionId, final String jobId, final String taskName, final OutputMode logMode)
             throws RestServerException, ServiceException;
 
+    /**
+     * Gets the outputs of a page of tasks of a job in a single call,
+     * tasks which have not started are skipped
+     * @param sessionId the session id of the user which is logged in
+     * @param jobId the id of the job
+     * @param logMode one of {@link SchedulerServiceAsync#LOG_ALL}, {@link SchedulerServiceAsync#LOG_STDERR},
+     * 	 {@link SchedulerServiceAsync#LOG_STDOUT}
+     * @param offset index of the first task of the page
+     * @param limit maximum number of tasks in the page
+     * @return the outputs of the tasks of the page, ordered by finish time
+     * @throws RestServerException
+     * @throws ServiceException
+     */
+    JobOutputPage getJobOutput(final String sessionId, final String jobId, final OutputMode logMode,
+            final int offset, final int limit) throws RestServerException, ServiceException;
+
     /**
      * Gets the output of a job even for tasks that have not terminated yet
      * @param sessionId current session id
@@ -372,6 +390,29 @@ public interface SchedulerService extends RemoteService {
     */
     long schedulerStateRevision(String sessionId) throws RestServerException;
 
+    /**
+     * Returns in a single request what the periodic refresh of the portal needs, the parts
+     * being fetched concurrently. Parts are only sent when they changed since they were last
+     * sent to the session. The result is a JSON object with the following keys:<ul>
+     * <li>{@code status}: the scheduler status, as returned by {@link #getSchedulerStatus(String)}
+     * <li>{@code revision}: the scheduler state revision, only if it differs from {@code lastRevision}
+     * <li>{@code users}: the connected users, only if {@code wantUsers}
+     * <li>{@code statistics} and {@code accountStatistics}: the scheduler and account statistics,
+     * only if {@code wantStats}
+     * <li>{@code failed}: the keys of the parts that could not be fetched, only if there are some</ul>
+     * A failure to fetch the status fails the whole request.
+     * @param sessionId a valid session id
+     * @param lastRevision the scheduler state revision known by the client,
+     *            -1 if the client holds no part of the dashboard state so that all of them are sent
+     * @param wantUsers true to fetch the connected users
+     * @param wantStats true to fetch the scheduler and account statistics
+     * @return the dashboard state as a JSON object
+     * @throws RestServerException
+     * @throws ServiceException
+     */
+    String getDashboardState(String sessionId, long lastRevision, boolean wantUsers, boolean wantStats)
+            throws RestServerException, ServiceException;
+
     /**
      * Returns a map containing one entry with the revision id as key and the
      * list of UserJobInfo as value.
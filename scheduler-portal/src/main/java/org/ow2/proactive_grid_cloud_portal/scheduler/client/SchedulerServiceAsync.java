@@ -71,7 +71,7 @@ public interface SchedulerServiceAsync {
      * @param list the list of jobs which are to be removed
      * @param isJobRemoved the result showing whether the removed was successfully or not. 
      */
-    void removeJobs(String sessionId, List<Integer> list, AsyncCallback<Integer> isJobRemoved);
+    void removeJobs(String sessionId, List<Integer> list, AsyncCallback<Map<Integer, Boolean>> isJobRemoved);
 
     /**
      * Pausing a job by making an asynchronous call to the server. 
@@ -80,7 +80,7 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the paused was successfully
      * or not.
      */
-    void pauseJobs(String sessionId, List<Integer> jobIdList, AsyncCallback<Integer> asyncCallback);
+    void pauseJobs(String sessionId, List<Integer> jobIdList, AsyncCallback<Map<Integer, Boolean>> asyncCallback);
 
     /**
      * By making an asynchronous call to the server, all in error tasks from the selected jobs are restarted.
@@ -89,7 +89,7 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the in error tasks were successfully
      * or not.
      */
-    void restartAllInErrorTasks(String sessionId, List<Integer> list, AsyncCallback<Integer> asyncCallback);
+    void restartAllInErrorTasks(String sessionId, List<Integer> list, AsyncCallback<Map<Integer, Boolean>> asyncCallback);
 
     /**
      * By making an asynchronous call to the server, several jobs are resumed.
@@ -98,7 +98,7 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the jobs were resumed successfully
      * or not.
      */
-    void resumeJobs(String sessionId, List<Integer> list, AsyncCallback<Integer> asyncCallback);
+    void resumeJobs(String sessionId, List<Integer> list, AsyncCallback<Map<Integer, Boolean>> asyncCallback);
 
     /**
      * By making an asynchronous call to the server, several jobs are killed.
@@ -107,7 +107,7 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the jobs were killed successfully
      * or not. 
      */
-    void killJobs(String sessionId, List<Integer> list, AsyncCallback<Integer> asyncCallback);
+    void killJobs(String sessionId, List<Integer> list, AsyncCallback<Map<Integer, Boolean>> asyncCallback);
 
     /**
      * Kill a task within a given job
@@ -189,13 +189,13 @@ public interface SchedulerServiceAsync {
                                 AsyncCallback<String> callback);
     
     /**
-     * Returns a list of the tags of the tasks belonging to job <code>jobId</code> and filtered by a prefix pattern
+     * Returns a list of the tags of the tasks belonging to job <code>jobId</code>
      * @param sessionId a valid session id
      * @param jobId jobid one wants to list the tasks' tags
-     * @param prefix the prefix used to filter tags
      * @param callback the object used for notifying the caller when the asynchronous call is completed.
      */
-    Request getJobTaskTagsPrefix(String sessionId, String jobId, String prefix, AsyncCallback<String> callback);
+    Request getJobTaskTags(String sessionId, String jobId, AsyncCallback<String> callback);
+
     
     
     /**
@@ -233,7 +233,7 @@ public interface SchedulerServiceAsync {
      * @param callback the object used for notifying the caller when the asynchronous call is completed.
      */
     void setPriorityByName(String sessionId, List<Integer> list, String priorityName,
-            AsyncCallback<Void> callback);
+            AsyncCallback<Map<Integer, Boolean>> callback);
 
     /**
      * Pauses the Scheduler.
@@ -288,6 +288,18 @@ public interface SchedulerServiceAsync {
     Request getTaskOutput(String sessionId, String jobId, String taskName, OutputMode logMode,
             AsyncCallback<String> callback);
 
+    /**
+     * Gets the outputs of a page of tasks of a job in a single call
+     * @param sessionId the session id of the user which is logged in
+     * @param jobId the id of the job
+     * @param logMode one of {@link #LOG_ALL}, {@link #LOG_STDOUT}, {@link #LOG_STDERR}
+     * @param offset index of the first task of the page
+     * @param limit maximum number of tasks in the page
+     * @param callback async callback for the client, containing the outputs of the page or the error message
+     */
+    Request getJobOutput(String sessionId, String jobId, OutputMode logMode, int offset, int limit,
+            AsyncCallback<JobOutputPage> callback);
+
     /**
      * Gets the output of a job even for tasks that have not terminated yet
      * @param sessionId current session id
@@ -337,6 +349,27 @@ public interface SchedulerServiceAsync {
 
     void schedulerStateRevision(String sessionId, AsyncCallback<Long> callback);
 
+    /**
+     * Returns in a single request what the periodic refresh of the portal needs, the parts
+     * being fetched concurrently. Parts are only sent when they changed since they were last
+     * sent to the session. The result is a JSON object with the following keys:<ul>
+     * <li>{@code status}: the scheduler status, as returned by {@link #getSchedulerStatus(String, AsyncCallback)}
+     * <li>{@code revision}: the scheduler state revision, only if it differs from {@code lastRevision}
+     * <li>{@code users}: the connected users, only if {@code wantUsers}
+     * <li>{@code statistics} and {@code accountStatistics}: the scheduler and account statistics,
+     * only if {@code wantStats}
+     * <li>{@code failed}: the keys of the parts that could not be fetched, only if there are some</ul>
+     * A failure to fetch the status fails the whole request.
+     * @param sessionId a valid session id
+     * @param lastRevision the scheduler state revision known by the client,
+     *            -1 if the client holds no part of the dashboard state so that all of them are sent
+     * @param wantUsers true to fetch the connected users
+     * @param wantStats true to fetch the scheduler and account statistics
+     * @param callback the callback for returning the dashboard state as a JSON object
+     */
+    void getDashboardState(String sessionId, long lastRevision, boolean wantUsers, boolean wantStats,
+            AsyncCallback<String> callback);
+
     /**
      * Image representing the job as designed in the WF studio when applicable
      * @param sessionId current session
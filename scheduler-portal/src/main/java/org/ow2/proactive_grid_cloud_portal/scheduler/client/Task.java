@@ -39,10 +39,6 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.client;
 import java.io.Serializable;
 import java.util.Date;
 
-import com.google.gwt.json.client.JSONObject;
-import com.google.gwt.json.client.JSONString;
-import com.google.gwt.json.client.JSONValue;
-
 
 /**
  * A representation for the business object corresponding to a Task.
@@ -350,66 +346,4 @@ public class Task implements Serializable, Comparable<Task> {
         return ((Long) this.id).compareTo(task.getId());
     }
 
-    /**
-     * @param jsonTask the JSON representation of a Task
-     * @return the POJO equivalent
-     */
-    public static Task parseJson(JSONObject jsonTask) {
-        String name = jsonTask.get("name").isString().stringValue();
-        JSONObject taskInfo = jsonTask.get("taskInfo").isObject();
-        String hostName = "";
-        if (taskInfo.containsKey("executionHostName")) {
-            JSONString host = taskInfo.get("executionHostName").isString();
-            if (host != null) {
-                hostName = host.stringValue();
-            }
-        }
-        long id = (long) taskInfo.get("taskId").isObject().get("id").isNumber().doubleValue();
-        String status = taskInfo.get("taskStatus").isString().stringValue();
-        TaskStatus taskStatus = TaskStatus.valueOf(status);
-        long startTime = (long) taskInfo.get("startTime").isNumber().doubleValue();
-        long inErrorTime = (long) taskInfo.get("inErrorTime").isNumber().doubleValue();
-        long finishedTime = (long) taskInfo.get("finishedTime").isNumber().doubleValue();
-        long executionDuration = (long) taskInfo.get("executionDuration").isNumber().doubleValue();
-
-
-        JSONObject jobIdInfo = taskInfo.get("jobId").isObject();
-
-        long jobId = (long) jobIdInfo.get("id").isNumber().doubleValue();
-        String jobName = jobIdInfo.get("readableName").isString().stringValue();         
-
-        String description = "";
-        if (jsonTask.containsKey("description")) {
-            JSONString desc = jsonTask.get("description").isString();
-            if (desc != null)
-                description = desc.stringValue();
-        }
-        String tag = "";
-        JSONValue tagValue = jsonTask.get("tag");
-        if (tagValue != null && tagValue instanceof JSONString) {
-            tag = ((JSONString) tagValue).stringValue();
-        }
-        int maxExec = (int) jsonTask.get("maxNumberOfExecution").isNumber().doubleValue();
-        int execLeft = (int) taskInfo.get("numberOfExecutionLeft").isNumber().doubleValue();
-        int execOnFailureLeft = (int) taskInfo.get("numberOfExecutionOnFailureLeft").isNumber().doubleValue();
-        int maxExecOnFailure = (int) jsonTask.get("maxNumberOfExecutionOnFailure").isNumber().doubleValue();
-        int nodes = 1;
-        if (jsonTask.containsKey("parallelEnvironment")) {
-            JSONObject parEnv = jsonTask.get("parallelEnvironment").isObject();
-            if (parEnv != null && parEnv.containsKey("nodesNumber")) {
-                nodes = (int) parEnv.get("nodesNumber").isNumber().doubleValue();
-            }
-        }
-
-        Task result = new Task(id, name, taskStatus, hostName, startTime, inErrorTime, finishedTime,
-                executionDuration, description, nodes, maxExec, execLeft, maxExecOnFailure, execOnFailureLeft);
-        result.setTag(tag);
-        result.setJobId(jobId);
-        result.setJobName(jobName);
-
-        long scheduledTime = (long) taskInfo.get("scheduledTime").isNumber().doubleValue();
-        result.setStartAtTime(scheduledTime);
-        return result;
-    }
-
 }
@@ -137,6 +137,24 @@ public class ExecutionsController {
     }
 
 
+    /**
+     * Refreshes the executions on a dashboard refresh, from a scheduler state revision that was
+     * already fetched, -1 if it did not change. Jobs are also fetched when the server notifies
+     * a new scheduler state revision, the wait being started if it is not pending.
+     */
+    public void executionStateTick(long revision){
+        switch(this.model.getMode()){
+        case JOB_CENTRIC:
+            this.jobsController.jobsStateRevision(revision);
+            this.jobsController.waitForJobsStateRevision();
+            break;
+        case TASK_CENTRIC:
+            this.tasksController.tasksStateRevision(false);
+            break;
+        }
+    }
+
+
     protected void fetchFirstPage(){
         switch(this.model.getMode()){
         case JOB_CENTRIC:
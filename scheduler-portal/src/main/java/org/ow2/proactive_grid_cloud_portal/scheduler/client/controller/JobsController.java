@@ -55,7 +55,13 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.ExecutionsMode
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.JobsModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.JobsView;
 
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
 import com.google.gwt.http.client.Response;
+import com.google.gwt.http.client.URL;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.smartgwt.client.widgets.layout.Layout;
 
@@ -87,6 +93,11 @@ public class JobsController {
      */
     protected JobsView view;
 
+    /**
+     * True while a request waiting for the scheduler state revision to change is pending.
+     */
+    private boolean waitingForRevision = false;
+
     /**
      * Builds a jobs controller from a parent scheduler controller.
      * @param parentController the parent controller.
@@ -158,9 +169,9 @@ public class JobsController {
         }
 
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.pauseJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Integer>() {
-            public void onSuccess(Integer result) {
-                LogModel.getInstance().logMessage("Successfully paused " + result + "/" + l.size() + " jobs");
+        scheduler.pauseJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Map<Integer, Boolean>>() {
+            public void onSuccess(Map<Integer, Boolean> result) {
+                logJobsActionOutcome("pause", "paused", result);
             }
 
             public void onFailure(Throwable caught) {
@@ -183,10 +194,9 @@ public class JobsController {
 
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
         scheduler.restartAllInErrorTasks(LoginModel.getInstance().getSessionId(), selectedJobs,
-                new AsyncCallback<Integer>() {
-                    public void onSuccess(Integer result) {
-                        LogModel.getInstance().logMessage("Successfully restarted in error tasks  " + result +
-                            "/" + selectedJobs.size() + " for selected jobs");
+                new AsyncCallback<Map<Integer, Boolean>>() {
+                    public void onSuccess(Map<Integer, Boolean> result) {
+                        logJobsActionOutcome("restart in error tasks of", "restarted in error tasks of", result);
                         parentController.getParentController().getTasksController().updateTasks(false);
                     }
 
@@ -211,10 +221,9 @@ public class JobsController {
 
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
         scheduler.resumeJobs(LoginModel.getInstance().getSessionId(), selectedJobs,
-                new AsyncCallback<Integer>() {
-                    public void onSuccess(Integer result) {
-                        LogModel.getInstance().logMessage(
-                                "Successfully resumed " + result + "/" + selectedJobs.size() + " jobs");
+                new AsyncCallback<Map<Integer, Boolean>>() {
+                    public void onSuccess(Map<Integer, Boolean> result) {
+                        logJobsActionOutcome("resume", "resumed", result);
                     }
 
                     public void onFailure(Throwable caught) {
@@ -236,10 +245,9 @@ public class JobsController {
         }
 
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.removeJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Integer>() {
-            public void onSuccess(Integer result) {
-                LogModel.getInstance()
-                        .logMessage("Successfully removed " + result + "/" + l.size() + " jobs");
+        scheduler.removeJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Map<Integer, Boolean>>() {
+            public void onSuccess(Map<Integer, Boolean> result) {
+                logJobsActionOutcome("remove", "removed", result);
             }
 
             public void onFailure(Throwable caught) {
@@ -261,9 +269,9 @@ public class JobsController {
         }
 
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.killJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Integer>() {
-            public void onSuccess(Integer result) {
-                LogModel.getInstance().logMessage("Successfully killed " + result + "/" + l.size() + " jobs");
+        scheduler.killJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Map<Integer, Boolean>>() {
+            public void onSuccess(Map<Integer, Boolean> result) {
+                logJobsActionOutcome("kill", "killed", result);
             }
 
             public void onFailure(Throwable caught) {
@@ -287,10 +295,10 @@ public class JobsController {
 
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
         scheduler.setPriorityByName(LoginModel.getInstance().getSessionId(), l, priority.name(),
-                new AsyncCallback<Void>() {
-                    public void onSuccess(Void result) {
-                        LogModel.getInstance().logMessage("Successfully set priority to " + priority.name() +
-                            " for " + l.size() + " jobs");
+                new AsyncCallback<Map<Integer, Boolean>>() {
+                    public void onSuccess(Map<Integer, Boolean> result) {
+                        logJobsActionOutcome("set priority to " + priority.name() + " for",
+                                "set priority to " + priority.name() + " for", result);
                     }
 
                     public void onFailure(Throwable caught) {
@@ -301,6 +309,22 @@ public class JobsController {
                 });
     }
 
+    private void logJobsActionOutcome(String actionName, String actionDone, Map<Integer, Boolean> outcome) {
+        List<Integer> failedJobIds = new ArrayList<>();
+        for (Map.Entry<Integer, Boolean> entry : outcome.entrySet()) {
+            if (!entry.getValue()) {
+                failedJobIds.add(entry.getKey());
+            }
+        }
+
+        if (failedJobIds.isEmpty()) {
+            LogModel.getInstance().logMessage("Successfully " + actionDone + " " + outcome.size() + " jobs");
+        } else {
+            LogModel.getInstance().logImportantMessage("Failed to " + actionName + " " + failedJobIds.size() + "/" +
+                outcome.size() + " jobs: " + failedJobIds);
+        }
+    }
+
     /**
      * Gets the jobs pagination controller.
      * @return the jobs pagination controller.
@@ -421,11 +445,76 @@ public class JobsController {
             }
 
             public void onSuccess(Long result) {
-                if (result > model.getJobsRevision()) {
-                    fetchJobs(false);
+                jobsStateRevision(result);
+            }
+        });
+    }
+
+    /**
+     * Wait on the server for the scheduler state revision to change, and fetch jobs each time it does.
+     * Does nothing if already waiting.
+     */
+    public void waitForJobsStateRevision() {
+        if (!waitingForRevision) {
+            waitingForRevision = true;
+            waitForJobsStateRevision(model.getJobsRevision());
+        }
+    }
+
+    private void waitForJobsStateRevision(long knownRevision) {
+        String url = GWT.getModuleBaseURL() + "revision?sessionId=" +
+            URL.encodeQueryString(LoginModel.getInstance().getSessionId()) + "&revision=" + knownRevision;
+        RequestBuilder request = new RequestBuilder(RequestBuilder.GET, url);
+        request.setCallback(new RequestCallback() {
+
+            @Override
+            public void onResponseReceived(Request request, Response response) {
+                if (response.getStatusCode() != Response.SC_OK) {
+                    revisionWaitFailed(response.getStatusCode(), response.getStatusText());
+                    return;
                 }
+                if (!LoginModel.getInstance().isLoggedIn() ||
+                    parentController.getModel().getMode() != ExecutionListMode.JOB_CENTRIC) {
+                    waitingForRevision = false;
+                    return;
+                }
+                long revision = Long.parseLong(response.getText().trim());
+                jobsStateRevision(revision);
+                waitForJobsStateRevision(revision);
+            }
+
+            @Override
+            public void onError(Request request, Throwable exception) {
+                revisionWaitFailed(0, exception.getMessage());
             }
         });
+
+        try {
+            request.send();
+        } catch (RequestException e) {
+            revisionWaitFailed(0, e.getMessage());
+        }
+    }
+
+    private void revisionWaitFailed(int statusCode, String message) {
+        // the next refresh of the dashboard waits again
+        waitingForRevision = false;
+        if (!LoginModel.getInstance().isLoggedIn()) {
+            return;
+        }
+        if (statusCode == Response.SC_UNAUTHORIZED) {
+            parentController.getParentController().teardown("You have been disconnected from the server.");
+        }
+        LogModel.getInstance().logCriticalMessage("Failed to get Scheduler Revision: " + message);
+    }
+
+    /**
+     * Fetch jobs if the given state revision is more recent than the one of the current jobs.
+     */
+    public void jobsStateRevision(long revision) {
+        if (revision > model.getJobsRevision()) {
+            fetchJobs(false);
+        }
     }
 
 }
@@ -40,6 +40,7 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.client.controller;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -48,6 +49,8 @@ import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobOutput;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobOutputPage;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobOutputPage.TaskOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.OutputMode;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Scheduler;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerController;
@@ -77,6 +80,9 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
     /** periodically fetches live output */
     private Timer liveOutputUpdater = null;
     
+    /** key of the pending getJobOutput request in {@link #taskOutputRequests} */
+    private static final String JOB_OUTPUT_REQUEST_KEY = "job";
+
     /** contains all pending getTaskOutput requests, taskId as key */
     private Map<String, Request> taskOutputRequests = null;
     
@@ -132,24 +138,57 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
      */
     public void fetchJobOutput(OutputMode logMode) {
         JobOutput currentOutput = this.model.getCurrentOutput();
-        String jobId = currentOutput.getJobId();
+        this.fetchJobOutputPage(currentOutput, logMode, 0);
+    }
 
-        List<Task> tasks = this.model.getParentModel().getTasksModel().getTasks();
+    /**
+     * Fetch the outputs of a page of tasks of a job in a single request,
+     * then the next page until all tasks have been fetched
+     * 
+     * @param jobOutput output of the job to fetch
+     * @param logMode one of {@link SchedulerServiceAsync#LOG_ALL}, {@link SchedulerServiceAsync#LOG_STDERR},
+     *   {@link SchedulerServiceAsync#LOG_STDOUT}
+     * @param offset index of the first task of the page
+     */
+    private void fetchJobOutputPage(final JobOutput jobOutput, final OutputMode logMode, int offset) {
+        final String jobId = jobOutput.getJobId();
+        int pageSize = SchedulerConfig.get().getOutputPageSize();
 
-        for (Task t : tasks) {
-            switch (t.getStatus()) {
-            case SKIPPED:
-            case PENDING:
-            case SUBMITTED:
-            case NOT_STARTED:
-                break;
-            default:
-                this.fetchTaskOutput(jobId, t, logMode);
-                break;
+        SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
+        Request req = scheduler.getJobOutput(LoginModel.getInstance().getSessionId(), jobId, logMode, offset,
+                pageSize, new AsyncCallback<JobOutputPage>() {
+            public void onFailure(Throwable caught) {
+                LogModel.getInstance().logMessage("Failed to get output for job " + jobId + ": " +
+                        JSONUtils.getJsonErrorMessage(caught));
+
+                taskOutputRequests.remove(JOB_OUTPUT_REQUEST_KEY);
             }
-        }
-        
-        currentOutput.setComplete(true);
+
+            public void onSuccess(JobOutputPage result) {
+                taskOutputRequests.remove(JOB_OUTPUT_REQUEST_KEY);
+
+                Map<Task, String> outputs = new LinkedHashMap<Task, String>();
+                for (TaskOutput taskOutput : result.getTaskOutputs()) {
+                    Task task = taskOutput.getTask();
+                    if (taskOutput.isFailed()) {
+                        outputs.put(task, formatTaskOutputError(task, taskOutput.getError()));
+                        LogModel.getInstance().logMessage("Failed to get output for task " +
+                                task.getName() + " in job " + jobId);
+                    } else {
+                        outputs.put(task, taskOutput.getOutput());
+                    }
+                }
+                model.setTaskOutputs(jobId, outputs);
+
+                if (result.hasNextPage()) {
+                    fetchJobOutputPage(jobOutput, logMode, result.getOffset() + result.getLimit());
+                } else {
+                    jobOutput.setComplete(true);
+                    LogModel.getInstance().logMessage("Successfully fetched output for job " + jobId);
+                }
+            }
+        });
+        this.taskOutputRequests.put(JOB_OUTPUT_REQUEST_KEY, req);
     }
 
     /**
@@ -172,14 +211,11 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
                     JSONObject json = JSONUtils.parseJSON(caught.getMessage()).isObject();
                     if (json.containsKey("stackTrace")) {
                         msg = json.get("stackTrace").isString().stringValue();
-                        msg = msg.replace("\t", "&nbsp;&nbsp;&nbsp;&nbsp;");
-                        msg = msg.replace("\n", "<br>");
                     }
                 } catch (Throwable t) {
                     // not json
                 }
-                model.setTaskOutput(jobId, task,
-                        "[" + task.getName() + "] <span style='color:red;'>" + msg + "</span>");
+                model.setTaskOutput(jobId, task, formatTaskOutputError(task, msg));
                 LogModel.getInstance().logMessage("Failed to get output for task " +
                         task.getName() + " in job " + jobId /* + ": " + msg */);
 
@@ -196,6 +232,12 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
         });
         this.taskOutputRequests.put("" + task.getId(), req);
     }
+
+    private String formatTaskOutputError(Task task, String msg) {
+        msg = msg.replace("\t", "&nbsp;&nbsp;&nbsp;&nbsp;");
+        msg = msg.replace("\n", "<br>");
+        return "[" + task.getName() + "] <span style='color:red;'>" + msg + "</span>";
+    }
     
     
     public void checkLiveEnabled(Job job){
@@ -86,9 +86,9 @@ public class PrefixWordSuggestOracle extends SuggestOracle implements JobSelecte
     protected long lastRequestTime = -1;
 
     /**
-     * The prefix used for the last request to the server to get the list of tag suggestions.
+     * Whether the tag suggestions hold all the tags of a finished job, and never need to be refreshed.
      */
-    protected String lastRequest = "";
+    protected boolean tagsComplete = false;
 
 
     /**
@@ -151,53 +151,68 @@ public class PrefixWordSuggestOracle extends SuggestOracle implements JobSelecte
 
 
     /**
-     * Computes if the set of tag suggestions in local need to be refreshed by a new request to the server,
-     * according to the current prefix query.
-     * @param query the prefix query
+     * Computes if the set of tag suggestions in local need to be refreshed by a new request to the server.
+     * <p>
+     * All the tags of the selected job are fetched at once, then prefix queries are answered locally.
+     * The tags of a job that is not finished are fetched again after the tag suggestion delay.
      * @return true if the set of tag suggestions need to refreshed, false otherwise.
      */
-    protected boolean needToRefresh(String query){
-        if(query.length() < 2){
+    protected boolean needToRefresh(){
+        if(this.tagsComplete){
             return false;
         }
 
-        if(this.lastRequest.isEmpty() || !query.startsWith(lastRequest)){
+        if(this.lastRequestTime < 0){
             return true;
         }
 
-        JobStatus status = this.schedulerModel.getExecutionsModel().getJobsModel().getSelectedJob().getStatus();
-        boolean finishedJob = (status == JobStatus.FINISHED || 
+        long requestAge = new Date().getTime() - this.lastRequestTime;
+        return requestAge > SchedulerConfig.get().getTagSuggestionDelay();
+    }
+
+
+    protected boolean isFinished(Job job){
+        JobStatus status = job.getStatus();
+        return (status == JobStatus.FINISHED || 
                 status == JobStatus.FAILED || 
                 status == JobStatus.KILLED || 
                 status == JobStatus.CANCELED);
-        long requestAge = new Date().getTime() - this.lastRequestTime;
-        return (!finishedJob && requestAge > SchedulerConfig.get().getTagSuggestionDelay());
     }
 
 
     /**
-     * Refresh the set of tag suggestions in local by a request to server, with the given prefix query.
-     * @param query the prefix query.
+     * Refresh the set of tag suggestions in local by a request to server for all the tags of the selected job.
      */
-    protected void refresh(final String query){
+    protected void refresh(){
         this.lastRequestTime = new Date().getTime();
-        this.lastRequest = query;
 
-        final String jobId = this.schedulerModel.getExecutionsModel().getJobsModel().getSelectedJob().getId().toString();
+        final Job job = this.schedulerModel.getExecutionsModel().getJobsModel().getSelectedJob();
+        final String jobId = job.getId().toString();
+        // tags of a finished job cannot change anymore
+        final boolean finished = isFinished(job);
 
-        this.scheduler.getJobTaskTagsPrefix(LoginModel.getInstance().getSessionId(), jobId, query, new AsyncCallback<String>() {
+        this.scheduler.getJobTaskTags(LoginModel.getInstance().getSessionId(), jobId, new AsyncCallback<String>() {
 
             public void onFailure(Throwable caught) {
                 String msg = JSONUtils.getJsonErrorMessage(caught);
 
                 LogModel.getInstance().logImportantMessage("Failed to update tags for job " +
-                        jobId + " and prefix tag " + query + ": " + msg);
+                        jobId + ": " + msg);
             }
 
             public void onSuccess(String result) {
+                Job selectedJob = schedulerModel.getExecutionsModel().getJobsModel().getSelectedJob();
+                if(selectedJob == null || !jobId.equals(selectedJob.getId().toString())){
+                    return;
+                }
+
                 try {
                     List<String> tags = SchedulerJSONUtils.getTagsFromJson(result);
                     model.setTagSuggestions(tags);
+                    if(finished){
+                        tagsComplete = true;
+                        model.cacheTagSuggestions(jobId);
+                    }
                 } catch (JSONException e) {
                     LogModel.getInstance().logCriticalMessage(e.getMessage());
                 }
@@ -218,8 +233,8 @@ public class PrefixWordSuggestOracle extends SuggestOracle implements JobSelecte
 
         if(this.schedulerModel.getExecutionsModel().getJobsModel().getSelectedJob() != null){
             String query = request.getQuery();
-            if(this.needToRefresh(query)){
-                this.refresh(query);
+            if(this.needToRefresh()){
+                this.refresh();
             }
 
             Collection<TagSuggestion> results = this.model.getAvailableTags(query);	
@@ -233,6 +248,7 @@ public class PrefixWordSuggestOracle extends SuggestOracle implements JobSelecte
     @Override
     public void jobSelected(Job job) {
         this.resetTagSuggestions();
+        this.tagsComplete = this.model.restoreTagSuggestions(job.getId().toString());
     }
 
 
@@ -243,7 +259,7 @@ public class PrefixWordSuggestOracle extends SuggestOracle implements JobSelecte
 
 
     public void resetTagSuggestions(){
-        this.lastRequest = "";
+        this.tagsComplete = false;
         this.lastRequestTime = -1;
         this.model.clearTagSuggestions();
     }
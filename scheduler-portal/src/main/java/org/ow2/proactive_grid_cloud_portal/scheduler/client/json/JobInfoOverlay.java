@@ -0,0 +1,115 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2011 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.json;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Overlay type over the JSON information of a job, as sent by the scheduler server.
+ * <p>
+ * Fields are read on demand from the natively parsed JSON.
+ */
+class JobInfoOverlay extends JavaScriptObject {
+
+    protected JobInfoOverlay() {
+    }
+
+    final native int getId() /*-{
+        return this.jobId.id;
+    }-*/;
+
+    final native String getName() /*-{
+        return this.jobId.readableName;
+    }-*/;
+
+    final native String getOwner() /*-{
+        return this.jobOwner;
+    }-*/;
+
+    final native String getPriority() /*-{
+        return this.priority;
+    }-*/;
+
+    final native String getStatus() /*-{
+        return this.status;
+    }-*/;
+
+    final native int getPendingTasks() /*-{
+        return this.numberOfPendingTasks;
+    }-*/;
+
+    final native int getRunningTasks() /*-{
+        return this.numberOfRunningTasks;
+    }-*/;
+
+    final native int getFinishedTasks() /*-{
+        return this.numberOfFinishedTasks;
+    }-*/;
+
+    final native int getTotalTasks() /*-{
+        return this.totalNumberOfTasks;
+    }-*/;
+
+    final native int getFailedTasks() /*-{
+        return this.numberOfFailedTasks;
+    }-*/;
+
+    final native int getFaultyTasks() /*-{
+        return this.numberOfFaultyTasks;
+    }-*/;
+
+    final native int getInErrorTasks() /*-{
+        return this.numberOfInErrorTasks;
+    }-*/;
+
+    final native double getSubmittedTime() /*-{
+        return this.submittedTime;
+    }-*/;
+
+    final native double getStartTime() /*-{
+        return this.startTime;
+    }-*/;
+
+    final native double getInErrorTime() /*-{
+        return this.inErrorTime;
+    }-*/;
+
+    final native double getFinishedTime() /*-{
+        return this.finishedTime;
+    }-*/;
+}
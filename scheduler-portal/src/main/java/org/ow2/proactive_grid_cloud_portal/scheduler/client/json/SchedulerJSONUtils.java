@@ -42,11 +42,14 @@ import java.util.Map;
 import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONException;
 import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobPriority;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskStatus;
 
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
 import com.google.gwt.json.client.JSONArray;
-import com.google.gwt.json.client.JSONNumber;
-import com.google.gwt.json.client.JSONObject;
 import com.google.gwt.json.client.JSONValue;
 
 /**
@@ -63,8 +66,15 @@ public class SchedulerJSONUtils extends JSONUtils {
      * @throws JSONException if it fails to parse the JSON.
      */
     public static JSONPaginatedTasks parseJSONPaginatedTasks(String jsonString) throws JSONException{
-        JSONValue val = parseJSON(jsonString);
-        return parseJSONPaginatedTasks(val);
+        JavaScriptObject page = parseJSONOverlay(jsonString);
+
+        JsArray<JavaScriptObject> arr = getArray(page, "list", jsonString);
+        List<Task> tasks = new ArrayList<Task>(arr.length());
+        for (int i = 0; i < arr.length(); i++) {
+            tasks.add(getTask(arr.get(i).<TaskOverlay> cast()));
+        }
+
+        return new JSONPaginatedTasks(tasks, getSize(page, jsonString));
     }
     
     
@@ -75,78 +85,110 @@ public class SchedulerJSONUtils extends JSONUtils {
      * @throws JSONException if it fails to parse the JSON.
      */
     public static JSONPaginatedJobs parseJSONPaginatedJobs(String jsonString) throws JSONException{
-        JSONValue val = parseJSON(jsonString);
-        return getJobsFromJson(val);
+        JavaScriptObject page = parseJSONOverlay(jsonString);
+
+        JSONPaginatedJobs resultJobs = new JSONPaginatedJobs();
+        Map<Integer, Job> jobs = resultJobs.getJobs();
+
+        JavaScriptObject map = getObject(page, "map", jsonString);
+        String key = getFirstKey(map);
+        if (key == null) {
+            throw new JSONException("Expected JSON Object with a revision attribute: " + jsonString);
+        }
+        resultJobs.setRevision(Long.parseLong(key));
+
+        JsArray<JavaScriptObject> arr = getArray(map, key, jsonString);
+        for (int i = 0; i < arr.length(); i++) {
+            Job j = getJob(getObject(arr.get(i), "jobInfo", jsonString).<JobInfoOverlay> cast());
+            jobs.put(j.getId(), j);
+        }
+
+        resultJobs.setTotal(getSize(page, jsonString));
+
+        return resultJobs;
     }
     
     
-    protected static JSONObject getObject(JSONValue value) throws JSONException{
-        JSONObject jsonObject = value.isObject();
-        if(jsonObject == null){
-            throw new JSONException("Expected JSON Object: " + value.toString());
-        }
-        return jsonObject;
+    private static Job getJob(JobInfoOverlay info) {
+        return new Job(info.getId(), info.getName(), JobStatus.valueOf(info.getStatus()),
+                JobPriority.findPriority(info.getPriority()), info.getOwner(), info.getPendingTasks(),
+                info.getRunningTasks(), info.getFinishedTasks(), info.getTotalTasks(), info.getFailedTasks(),
+                info.getFaultyTasks(), info.getInErrorTasks(), (long) info.getSubmittedTime(),
+                (long) info.getStartTime(), (long) info.getInErrorTime(), (long) info.getFinishedTime());
     }
     
     
-    protected static JSONValue getProperty(JSONObject obj, String propertyName) throws JSONException{
-        JSONValue jsonValue = obj.get(propertyName);
-        if(jsonValue == null){
-            throw new JSONException("Expected JSON Object with attribute " + propertyName + ": " + obj.toString());
-        }
-        return jsonValue;
+    private static Task getTask(TaskOverlay overlay) {
+        Task result = new Task((long) overlay.getId(), overlay.getName(), TaskStatus.valueOf(overlay.getStatus()),
+                overlay.getExecutionHostName(), (long) overlay.getStartTime(), (long) overlay.getInErrorTime(),
+                (long) overlay.getFinishedTime(), (long) overlay.getExecutionDuration(), overlay.getDescription(),
+                overlay.getNodesNumber(), overlay.getMaxNumberOfExecution(), overlay.getNumberOfExecutionLeft(),
+                overlay.getMaxNumberOfExecutionOnFailure(), overlay.getNumberOfExecutionOnFailureLeft());
+        result.setTag(overlay.getTag());
+        result.setJobId((long) overlay.getJobId());
+        result.setJobName(overlay.getJobName());
+        result.setStartAtTime((long) overlay.getScheduledTime());
+        return result;
     }
     
     
-    protected static JSONArray getArray(JSONValue value) throws JSONException{
-        JSONArray arr = value.isArray();
-        if (arr == null) {
-            throw new JSONException("Expected JSON Array: " + value.toString());
+    private static JavaScriptObject getObject(JavaScriptObject obj, String propertyName, String jsonString)
+            throws JSONException {
+        JavaScriptObject value = getObjectProperty(obj, propertyName);
+        if (value == null) {
+            throw new JSONException("Expected JSON Object with attribute " + propertyName + ": " + jsonString);
         }
-        return arr;
+        return value;
     }
     
     
-    
-    protected static long getSize(JSONObject obj) throws JSONException{
-        JSONValue jsonTotalValue = obj.get("size");
-        if(jsonTotalValue == null){
-            throw new JSONException("Expected JSON Object with attribute total: " + obj.toString());
-        }
-        JSONNumber jsonTotal = jsonTotalValue.isNumber();
-        if(jsonTotal == null){
-            throw new JSONException("Expected JSON number: " + jsonTotalValue.toString());
+    private static JsArray<JavaScriptObject> getArray(JavaScriptObject obj, String propertyName, String jsonString)
+            throws JSONException {
+        JsArray<JavaScriptObject> value = getArrayProperty(obj, propertyName);
+        if (value == null) {
+            throw new JSONException("Expected JSON Array as attribute " + propertyName + ": " + jsonString);
         }
-        return (long) jsonTotal.doubleValue();
+        return value;
     }
     
-
-    /**
-     * Parse a paginated list of tasks
-     * @param jsonString the JSON representing the paginated list of tasks.
-     * @return An object wrapping the list of tasks and the total number of tasks without pagination.
-     * @throws JSONException if it fails to parse the JSON.
-     */
-    public static JSONPaginatedTasks parseJSONPaginatedTasks(JSONValue value) throws JSONException{
-        JSONObject jsonTasksTotal = getObject(value);
-
-        JSONArray arr = getArray(getProperty(jsonTasksTotal, "list"));
-
-        List<Task> tasks = new ArrayList<Task>();
-
-        for (int i = 0; i < arr.size(); i++) {
-            JSONObject jsonTask = arr.get(i).isObject();
-            tasks.add(Task.parseJson(jsonTask));
+    
+    private static long getSize(JavaScriptObject obj, String jsonString) throws JSONException {
+        double size = getNumberProperty(obj, "size");
+        if (Double.isNaN(size)) {
+            throw new JSONException("Expected JSON Object with number attribute size: " + jsonString);
         }
-
-        long totalTasks = getSize(jsonTasksTotal);
-
-        JSONPaginatedTasks result = new JSONPaginatedTasks(tasks, totalTasks);
-        return result;
+        return (long) size;
     }
-
-
-
+    
+    
+    private static native JavaScriptObject getObjectProperty(JavaScriptObject obj, String propertyName) /*-{
+        var value = obj == null ? null : obj[propertyName];
+        return value !== null && typeof value === 'object' ? value : null;
+    }-*/;
+    
+    
+    private static native JsArray<JavaScriptObject> getArrayProperty(JavaScriptObject obj, String propertyName) /*-{
+        var value = obj == null ? null : obj[propertyName];
+        return Object.prototype.toString.call(value) === '[object Array]' ? value : null;
+    }-*/;
+    
+    
+    private static native double getNumberProperty(JavaScriptObject obj, String propertyName) /*-{
+        var value = obj == null ? null : obj[propertyName];
+        return typeof value === 'number' ? value : NaN;
+    }-*/;
+    
+    
+    private static native String getFirstKey(JavaScriptObject obj) /*-{
+        for (var key in obj) {
+            if (obj.hasOwnProperty(key)) {
+                return key;
+            }
+        }
+        return null;
+    }-*/;
+    
+    
     /**
      * @param arr list of tags as a JSON array
      * @return the list of tags
@@ -169,39 +211,12 @@ public class SchedulerJSONUtils extends JSONUtils {
 
     
 
-    public static JSONPaginatedJobs getJobsFromJson(JSONValue value) throws JSONException{
-        JSONPaginatedJobs resultJobs = new JSONPaginatedJobs();
-        Map<Integer, Job> jobs = resultJobs.getJobs();
-        
-        JSONObject jsonInfo = getObject(value);
-        JSONObject jsonMap = getObject(getProperty(jsonInfo, "map"));
-        
-        String key = jsonMap.keySet().iterator().next();
-        resultJobs.setRevision(Long.parseLong(key));
-
-        JSONArray jsonArr = getArray(getProperty(jsonMap, key));
-
-        for (int i = 0; i < jsonArr.size(); i++) {
-            JSONObject jsonJob = jsonArr.get(i).isObject();
-            Job j = Job.parseJson(jsonJob);
-            jobs.put(j.getId(), j);
-        }
-
-        long total = getSize(jsonInfo);
-        
-        resultJobs.setTotal(total);
-
-        return resultJobs;
-    }
-    
-    
     public static Job getJobInfoFromJson(String jsonString) throws JSONException{
-        JSONValue val = parseJSON(jsonString);
-        JSONObject jsonJobInfo = val.isObject();
-        if(jsonJobInfo == null){
+        JobInfoOverlay jobInfo = parseJSONOverlay(jsonString);
+        if(getObjectProperty(jobInfo, "jobId") == null){
             throw new JSONException("Expected JSON Object: " + jsonString);
         }
         
-        return Job.parseJSONInfo(jsonJobInfo);
+        return getJob(jobInfo);
     }
 }
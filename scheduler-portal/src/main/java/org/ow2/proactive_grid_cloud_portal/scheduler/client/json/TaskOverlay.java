@@ -0,0 +1,137 @@
+/*
+ * ################################################################
+ *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2011 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ * ################################################################
+ * $$PROACTIVE_INITIAL_DEV$$
+ */
+
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.json;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Overlay type over the JSON state of a task, as sent by the scheduler server.
+ * <p>
+ * Fields are read on demand from the natively parsed JSON.
+ */
+class TaskOverlay extends JavaScriptObject {
+
+    protected TaskOverlay() {
+    }
+
+    final native String getName() /*-{
+        return this.name;
+    }-*/;
+
+    /**
+     * @return the description of the task, or an empty string
+     */
+    final native String getDescription() /*-{
+        return typeof this.description === 'string' ? this.description : "";
+    }-*/;
+
+    /**
+     * @return the tag of the task, or an empty string
+     */
+    final native String getTag() /*-{
+        return typeof this.tag === 'string' ? this.tag : "";
+    }-*/;
+
+    final native int getMaxNumberOfExecution() /*-{
+        return this.maxNumberOfExecution;
+    }-*/;
+
+    final native int getMaxNumberOfExecutionOnFailure() /*-{
+        return this.maxNumberOfExecutionOnFailure;
+    }-*/;
+
+    /**
+     * @return the number of nodes used by the task, 1 when it has no parallel environment
+     */
+    final native int getNodesNumber() /*-{
+        var env = this.parallelEnvironment;
+        return env != null && env.nodesNumber != null ? env.nodesNumber : 1;
+    }-*/;
+
+    final native double getId() /*-{
+        return this.taskInfo.taskId.id;
+    }-*/;
+
+    /**
+     * @return the host the task was executed on, or an empty string
+     */
+    final native String getExecutionHostName() /*-{
+        var host = this.taskInfo.executionHostName;
+        return typeof host === 'string' ? host : "";
+    }-*/;
+
+    final native String getStatus() /*-{
+        return this.taskInfo.taskStatus;
+    }-*/;
+
+    final native double getStartTime() /*-{
+        return this.taskInfo.startTime;
+    }-*/;
+
+    final native double getInErrorTime() /*-{
+        return this.taskInfo.inErrorTime;
+    }-*/;
+
+    final native double getFinishedTime() /*-{
+        return this.taskInfo.finishedTime;
+    }-*/;
+
+    final native double getScheduledTime() /*-{
+        return this.taskInfo.scheduledTime;
+    }-*/;
+
+    final native double getExecutionDuration() /*-{
+        return this.taskInfo.executionDuration;
+    }-*/;
+
+    final native int getNumberOfExecutionLeft() /*-{
+        return this.taskInfo.numberOfExecutionLeft;
+    }-*/;
+
+    final native int getNumberOfExecutionOnFailureLeft() /*-{
+        return this.taskInfo.numberOfExecutionOnFailureLeft;
+    }-*/;
+
+    final native double getJobId() /*-{
+        return this.taskInfo.jobId.id;
+    }-*/;
+
+    final native String getJobName() /*-{
+        return this.taskInfo.jobId.readableName;
+    }-*/;
+}
@@ -40,6 +40,7 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.client.model;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.OutputMode;
@@ -118,6 +119,27 @@ public class OutputModel extends AbstractSelectedTargetModel{
     
     
     
+    /**
+     * Set the outputs of several tasks of a given job
+     * 
+     * notify listeners once
+     * 
+     */
+    public void setTaskOutputs(String jobId, Map<Task, String> taskOutputs) {
+        JobOutput jobOutput = this.getJobOutput(jobId, true);
+        for (Map.Entry<Task, String> taskOutput : taskOutputs.entrySet()) {
+            List<String> remoteVisuLines =
+                    jobOutput.update(taskOutput.getKey(), taskOutput.getValue(), this.outputMode);
+
+            processRemoteVisuLines(remoteVisuLines);
+        }
+
+        if(this.currentOutput != null && this.currentOutput.getJobId() == jobId){
+            this.notifyUpdatedCurrentOutput();
+        }
+    }
+    
+    
     /**
      * Append a job output fragment to the stored live output
      * @param jobId id of the job to which this fragment belongs
@@ -38,6 +38,7 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.client.model;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.SortedMap;
 
@@ -55,6 +56,11 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
  */
 public class TasksNavigationModel {
 
+    /**
+     * Maximum number of finished jobs whose tags are kept.
+     */
+    private static final int MAX_CACHED_JOBS_TAGS = 100;
+
     /**
      * Tag filter applied to filter the tasks.
      */
@@ -65,6 +71,17 @@ public class TasksNavigationModel {
      */
     private PatriciaTrie<String> availableTags = null;
 
+    /**
+     * Tags of finished jobs, that cannot change anymore, by job id.
+     */
+    private Map<String, PatriciaTrie<String>> finishedJobsTags = new LinkedHashMap<String, PatriciaTrie<String>>(16,
+        0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PatriciaTrie<String>> eldest) {
+            return size() > MAX_CACHED_JOBS_TAGS;
+        }
+    };
+
     /**
      * Indicates if the tasks are automatically refreshed.
      */
@@ -204,6 +221,33 @@ public class TasksNavigationModel {
      * Clears the set of available tags suggestions.
      */
     public void clearTagSuggestions(){
-        this.availableTags.clear();
+        this.availableTags = new PatriciaTrie<String>();
+    }
+
+
+    /**
+     * Keeps the available tags suggestions as the tags of a finished job.
+     * @param jobId the id of the finished job.
+     */
+    public void cacheTagSuggestions(String jobId){
+        this.finishedJobsTags.put(jobId, this.availableTags);
+    }
+
+
+    /**
+     * Sets the available tags suggestions to the tags kept for a finished job.
+     * @param jobId the id of the job.
+     * @return true if the tags of the job were kept, false otherwise.
+     */
+    public boolean restoreTagSuggestions(String jobId){
+        PatriciaTrie<String> tags = this.finishedJobsTags.get(jobId);
+        if(tags == null){
+            return false;
+        }
+        this.availableTags = tags;
+        for(TagSuggestionListener currentListener: this.tagSuggestionListeners){
+            currentListener.tagSuggestionListUpdated();
+        }
+        return true;
     }
 }
@@ -37,16 +37,22 @@
 package org.ow2.proactive_grid_cloud_portal.scheduler.client.view;
 
 import java.util.Collection;
+import java.util.LinkedList;
 import java.util.List;
 
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobOutput;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.LiveOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.OutputMode;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerListeners.JobOutputListener;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SelectionTarget;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.OutputController;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.OutputModel;
 
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.Style;
+import com.google.gwt.user.client.ui.FlowPanel;
+import com.google.gwt.user.client.ui.HTML;
 import com.smartgwt.client.widgets.Canvas;
 import com.smartgwt.client.widgets.form.DynamicForm;
 import com.smartgwt.client.widgets.form.fields.CheckboxItem;
@@ -73,6 +79,24 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
     
     /** stdout, stderr or both */
     private SelectItem outSelect = null;
+
+    /** displays the live output, replaces the html pane while live output is displayed */
+    private VLayout liveText = null;
+
+    /** live output lines, appended chunk by chunk */
+    private FlowPanel livePanel = null;
+
+    /** live output currently rendered in the live panel */
+    private LiveOutput renderedLive = null;
+
+    /** number of lines appended to the rendered live output when it was last rendered */
+    private long renderedLiveCount = 0;
+
+    /** number of lines of each chunk in the live panel, oldest first */
+    private LinkedList<Integer> renderedLiveChunks = new LinkedList<Integer>();
+
+    /** number of lines in the live panel */
+    private int renderedLiveLines = 0;
     
 
     public OutputView(OutputController controller) {
@@ -138,6 +162,7 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
         buttons.setMembers(form, fill, refreshButton);
 
         VLayout textLayout = this.buildOutputPane();
+        textLayout.addMember(this.buildLivePane());
                 
         root.addMember(buttons);
         root.addMember(textLayout);
@@ -147,6 +172,27 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
         return root;
     }
 
+
+    /**
+     * build the pane displaying the live output
+     * @return the live output pane, hidden
+     */
+    protected Canvas buildLivePane() {
+        this.livePanel = new FlowPanel();
+        this.livePanel.setWidth("100%");
+        this.livePanel.setHeight("100%");
+        this.livePanel.getElement().getStyle().setOverflow(Style.Overflow.AUTO);
+
+        this.liveText = new VLayout();
+        this.liveText.setWidth100();
+        this.liveText.setHeight100();
+        this.liveText.setShowEdges(true);
+        this.liveText.addMember(this.livePanel);
+        this.liveText.hide();
+
+        return this.liveText;
+    }
+
     
 
     /**
@@ -159,11 +205,11 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
         else{
             Collection<List<String>> lines = this.controller.getLinesToDisplay(output);
             if(output.isLive() && target == SelectionTarget.JOB_TARGET){
-                if(lines.isEmpty()){
+                if(output.getLiveContent().isEmpty()){
                     this.goToLoadingState();
                 }
                 else{
-                    this.update(lines);
+                    this.updateLive(output.getLiveContent());
                 }
             }
             else{
@@ -207,6 +253,84 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
         this.showContent(builder.toString());
     }
     
+    /**
+     * Display the live output of the current selected job.
+     * <p>
+     * Only the lines appended since the previous call are added to the page,
+     * the lines evicted from the live output are removed from the page chunk by chunk.
+     * @param live the live output to be displayed.
+     */
+    protected void updateLive(LiveOutput live) {
+        if (live != this.renderedLive) {
+            this.clearLive();
+            this.renderedLive = live;
+            this.renderedLiveCount = live.getAppendedCount() - live.size();
+        }
+
+        int newLines = (int) Math.min(live.size(), live.getAppendedCount() - this.renderedLiveCount);
+        if (newLines > 0) {
+            Element scroll = this.livePanel.getElement();
+            boolean scrolledToEnd = scroll.getScrollTop() + scroll.getClientHeight() >= scroll.getScrollHeight();
+
+            StringBuilder builder = new StringBuilder();
+            for (int i = live.size() - newLines; i < live.size(); i++) {
+                builder.append(live.get(i));
+            }
+            this.livePanel.add(new HTML(builder.toString()));
+            this.renderedLiveChunks.addLast(newLines);
+            this.renderedLiveLines += newLines;
+            this.renderedLiveCount = live.getAppendedCount();
+
+            // remove the oldest chunks once all their lines were evicted from the live output
+            while (this.renderedLiveLines - this.renderedLiveChunks.getFirst() >= live.size()) {
+                this.renderedLiveLines -= this.renderedLiveChunks.removeFirst();
+                this.livePanel.remove(0);
+            }
+
+            // keep following the output if it was displayed up to its end
+            if (scrolledToEnd) {
+                scroll.setScrollTop(scroll.getScrollHeight());
+            }
+        }
+
+        this.label.hide();
+        this.text.hide();
+        this.liveText.show();
+    }
+
+
+    /**
+     * Remove the live output lines from the page.
+     */
+    protected void clearLive() {
+        this.livePanel.clear();
+        this.renderedLiveChunks.clear();
+        this.renderedLiveLines = 0;
+        this.renderedLive = null;
+    }
+
+
+    @Override
+    protected void showContent(String content) {
+        this.liveText.hide();
+        super.showContent(content);
+    }
+
+
+    @Override
+    protected void goToLoadingState() {
+        this.liveText.hide();
+        super.goToLoadingState();
+    }
+
+
+    @Override
+    protected void goToUnavailableOutputState() {
+        this.liveText.hide();
+        super.goToUnavailableOutputState();
+    }
+
+
     /**
      * show fetch button, target selection dropdown list and output mode dropdown list.
      */
@@ -231,6 +355,8 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
      */
     protected void goToNoTargetState(){
         super.goToNoTargetState();
+        this.liveText.hide();
+        this.clearLive();
         this.outSelect.disable();
         this.liveCheck.setValue(false);
         this.liveCheck.disable();
@@ -37,6 +37,8 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
@@ -47,7 +49,9 @@ import com.smartgwt.client.data.DSRequest;
 import com.smartgwt.client.data.DSResponse;
 import com.smartgwt.client.data.DataSource;
 import com.smartgwt.client.data.DataSourceField;
+import com.smartgwt.client.data.Record;
 import com.smartgwt.client.data.RecordList;
+import com.smartgwt.client.data.SortSpecifier;
 import com.smartgwt.client.data.fields.DataSourceIntegerField;
 import com.smartgwt.client.data.fields.DataSourceTextField;
 import com.smartgwt.client.widgets.grid.ListGrid;
@@ -96,6 +100,11 @@ public abstract class ItemsListGrid<I> extends ListGrid{
     /** To disable selection listener while fetching data */
     protected boolean fetchingData;
 
+    /**
+     * records of the items held by the datasource, by primary key, or null before the first update
+     */
+    protected Map<String, Record> currentRecords = null;
+
 
     public ItemsListGrid() {
     }
@@ -124,6 +133,7 @@ public abstract class ItemsListGrid<I> extends ListGrid{
      */
     public void build(){
         this.ds = new ItemDS(this.datasourceNamePrefix + LoginModel.getInstance().getSessionId());
+        this.currentRecords = null;
 
         this.setDataSource(this.ds);
 
@@ -229,6 +239,148 @@ public abstract class ItemsListGrid<I> extends ListGrid{
     }
 
 
+    /**
+     * Update the grid to show the given records.
+     * <p>
+     * Records are compared by primary key to the ones already shown: removed and added records
+     * are removed from and added to the datasource, records whose attributes changed are updated
+     * in the datasource and their rows are refreshed in place. Rows of unchanged records are left untouched,
+     * the grid being refetched from the datasource only when records were added or removed.
+     * @param records the records built for the items to show.
+     */
+    protected void updateRecords(List<? extends Record> records) {
+        Map<String, Record> newRecords = new LinkedHashMap<>();
+        for (Record record : records) {
+            newRecords.put(getPrimaryKey(record), record);
+        }
+
+        if (this.currentRecords == null) {
+            this.currentRecords = newRecords;
+            this.ds.setTestData(records.toArray(new Record[records.size()]));
+            applyCurrentLocalFilter();
+            return;
+        }
+
+        boolean addedOrRemoved = false;
+        for (Map.Entry<String, Record> current : this.currentRecords.entrySet()) {
+            if (!newRecords.containsKey(current.getKey())) {
+                this.ds.removeData(current.getValue());
+                recordRemoved(current.getValue());
+                addedOrRemoved = true;
+            }
+        }
+
+        Map<String, Record> changedRecords = new HashMap<>();
+        for (Map.Entry<String, Record> newRecord : newRecords.entrySet()) {
+            Record current = this.currentRecords.get(newRecord.getKey());
+            if (current == null) {
+                this.ds.addData(newRecord.getValue());
+                addedOrRemoved = true;
+            } else if (!hasSameAttributes(current, newRecord.getValue())) {
+                this.ds.updateData(newRecord.getValue());
+                changedRecords.put(newRecord.getKey(), newRecord.getValue());
+            }
+        }
+        this.currentRecords = newRecords;
+
+        // the local filter or the added records may change the rows to show
+        if (addedOrRemoved || (this.filter != null && !changedRecords.isEmpty())) {
+            applyCurrentLocalFilter();
+        } else {
+            updateRows(newRecords, changedRecords);
+        }
+    }
+
+
+    /**
+     * Called when the record of an item that is not shown anymore is removed from the datasource.
+     * @param record the removed record.
+     */
+    protected void recordRemoved(Record record) {
+    }
+
+
+    /**
+     * Copy the new records attributes to the records shown by the grid,
+     * only the rows of the changed records are refreshed.
+     */
+    private void updateRows(Map<String, Record> newRecords, Map<String, Record> changedRecords) {
+        RecordList shown = this.getRecordList();
+        boolean resort = false;
+        for (int i = 0; i < shown.getLength(); i++) {
+            Record row = shown.get(i);
+            String key = getPrimaryKey(row);
+            Record newRecord = newRecords.get(key);
+            if (newRecord == null) {
+                continue;
+            }
+
+            Record changed = changedRecords.get(key);
+            if (changed != null) {
+                resort |= changesSortedAttributes(row, changed);
+            }
+            // unchanged rows still receive the up-to-date item they embed
+            for (String attribute : newRecord.getAttributes()) {
+                row.setAttribute(attribute, newRecord.getAttributeAsObject(attribute));
+            }
+            if (changed != null) {
+                this.refreshRow(i);
+            }
+        }
+
+        if (resort) {
+            this.resort();
+        }
+    }
+
+
+    private boolean changesSortedAttributes(Record current, Record changed) {
+        SortSpecifier[] sort = this.getSort();
+        if (sort != null) {
+            for (SortSpecifier specifier : sort) {
+                String attribute = specifier.getField();
+                if (!equalAttributes(current.getAttribute(attribute), changed.getAttribute(attribute))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * @return true if both records have the same value in every column
+     */
+    protected boolean hasSameAttributes(Record current, Record newRecord) {
+        for (GridColumns column : this.columnsFactory.getColumns()) {
+            String name = column.getName();
+            if (!equalAttributes(current.getAttribute(name), newRecord.getAttribute(name))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private static boolean equalAttributes(String current, String newValue) {
+        return current == null ? newValue == null : current.equals(newValue);
+    }
+
+
+    /**
+     * @return the values of the primary key columns of the record
+     */
+    protected String getPrimaryKey(Record record) {
+        StringBuilder key = new StringBuilder();
+        for (GridColumns column : this.columnsFactory.getColumns()) {
+            if (column.isPrimaryKey()) {
+                key.append(record.getAttribute(column.getName())).append('/');
+            }
+        }
+        return key.toString();
+    }
+
+
     // as found in https://isomorphic.atlassian.net/wiki/display/Main/Refresh+ListGrid+Periodically+(Smart+GWT)#RefreshListGridPeriodically(SmartGWT)-Transparentupdate
     protected void applyCurrentLocalFilter() {
         int nbOfItems = this.ds.getTestData().length + 1;
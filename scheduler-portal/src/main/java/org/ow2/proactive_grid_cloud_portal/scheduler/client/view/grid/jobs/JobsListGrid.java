@@ -36,6 +36,7 @@
 package org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.jobs;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
@@ -49,7 +50,6 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.ItemsListG
 import com.smartgwt.client.data.DSCallback;
 import com.smartgwt.client.data.DSRequest;
 import com.smartgwt.client.data.DSResponse;
-import com.smartgwt.client.data.RecordList;
 import com.smartgwt.client.data.SortSpecifier;
 import com.smartgwt.client.types.Alignment;
 import com.smartgwt.client.types.ListGridFieldType;
@@ -114,7 +114,7 @@ public class JobsListGrid extends ItemsListGrid<Job> implements JobsUpdatedListe
     public void jobsUpdated(Map<Integer, Job> jobs, long totalJobs) {
         Job selectedJob = this.controller.getModel().getSelectedJob();
 
-        RecordList data = new RecordList();
+        List<JobRecord> data = new ArrayList<>(jobs.size());
         for (Job j : jobs.values()) {
             JobRecord jobRecord = new JobRecord(j);
             this.columnsFactory.buildRecord(j, jobRecord);
@@ -125,8 +125,7 @@ public class JobsListGrid extends ItemsListGrid<Job> implements JobsUpdatedListe
             }
         }
 
-        this.ds.setTestData(data.toArray());
-        applyCurrentLocalFilter();
+        updateRecords(data);
     }
 
     @Override
@@ -138,6 +137,10 @@ public class JobsListGrid extends ItemsListGrid<Job> implements JobsUpdatedListe
     @Override
     public void jobSubmitted(Job j) {
         JobRecord jr = new JobRecord(j);
+        this.columnsFactory.buildRecord(j, jr);
+        if (this.currentRecords != null) {
+            this.currentRecords.put(getPrimaryKey(jr), jr);
+        }
         DSRequest customErrorHandling = new DSRequest();
         customErrorHandling.setWillHandleError(true);
         this.ds.addData(jr, new DSCallback() {
@@ -35,6 +35,7 @@
 
 package org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.tasks;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,7 +54,6 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.ItemsListG
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.event.shared.HandlerRegistration;
 import com.smartgwt.client.data.Record;
-import com.smartgwt.client.data.RecordList;
 import com.smartgwt.client.types.Alignment;
 import com.smartgwt.client.types.ListGridFieldType;
 import com.smartgwt.client.types.SelectionStyle;
@@ -178,11 +178,9 @@ public class TasksListGrid extends ItemsListGrid<Task> implements TasksUpdatedLi
 
     @Override
     public void tasksUpdated(List<Task> tasks, long totalTasks) {
-        this.visuButtons.clear();
         Task selectedTask = this.controller.getModel().getSelectedTask();
 
-        RecordList data = new RecordList();
-        TaskRecord selectedRecord = null;
+        List<TaskRecord> data = new ArrayList<>(tasks.size());
         for (Task t : tasks) {
             TaskRecord record = new TaskRecord(t);
             this.columnsFactory.buildRecord(t, record);
@@ -190,12 +188,16 @@ public class TasksListGrid extends ItemsListGrid<Task> implements TasksUpdatedLi
 
             if (t.equals(selectedTask)) {
                 record.setAttribute("isSelected", true);
-                selectedRecord = record;
             }
         }
 
-        this.ds.setTestData(data.toArray());
-        applyCurrentLocalFilter();
+        updateRecords(data);
+    }
+
+
+    @Override
+    protected void recordRemoved(Record record) {
+        this.visuButtons.remove(record.getAttributeAsString(TasksColumnsFactory.ID_ATTR.getName()));
     }
 
 
@@ -39,7 +39,9 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 import org.codehaus.jettison.json.JSONObject;
 import org.ow2.proactive.web.WebProperties;
 import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
+import org.ow2.proactive_grid_cloud_portal.common.server.HttpUtils;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,12 +49,20 @@ import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.io.InputStream;
 
 
 /**
  * The servlet which is called when the result of a task is wanted to be downloaded
+ * <p>
+ * The result is streamed from the REST server to the client. The Range header is forwarded
+ * to the REST server, whose partial content is copied as is, so that interrupted downloads
+ * can be resumed. HEAD requests only get the headers derived from the metadata of the result,
+ * the result itself is not fetched.
+ *
  * @author ahagea
  *
  */
@@ -63,22 +73,30 @@ public class DownloadTaskResultServlet extends HttpServlet {
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
-        download(request, response);
+        download(request, response, true);
     }
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
-        download(request, response);
+        download(request, response, true);
+    }
+
+    @Override
+    protected void doHead(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        download(request, response, false);
     }
 
-    private void download(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    private void download(HttpServletRequest request, HttpServletResponse response, boolean withContent)
+            throws IOException {
         String jobId = request.getParameter("jobId");
         String taskId = request.getParameter("taskId");
         String destination = request.getParameter("destination");
         String sessionId = request.getParameter("sessionId");
 
+        Response result = null;
         InputStream is = null;
         ServletOutputStream out = null;
+        boolean aborted = false;
         try {
 
             JSONObject json = new JSONObject(((SchedulerServiceImpl) Service.get()).getTaskResultMetadata(sessionId, jobId, taskId));
@@ -105,27 +123,84 @@ public class DownloadTaskResultServlet extends HttpServlet {
             }
             response.setHeader("Location", "job" + jobId + "_" + taskId + ".result");
 
-            out = response.getOutputStream();
+            if (!withContent) {
+                // the result endpoint would send the whole content, only describe the result
+                return;
+            }
+
+            String range = request.getHeader("Range");
             if (contentType.startsWith("text/")) {
-                is = ((SchedulerServiceImpl) Service.get()).getTaskResult(sessionId, jobId, taskId);
+                result = ((SchedulerServiceImpl) Service.get()).getTaskResult(sessionId, jobId, taskId, range);
             } else {
-                is = ((SchedulerServiceImpl) Service.get()).getTaskSerializedResult(sessionId, jobId, taskId);
+                result = ((SchedulerServiceImpl) Service.get()).getTaskSerializedResult(sessionId, jobId, taskId,
+                        range);
             }
+            copyResultHeaders(result, response);
 
-            int buf;
-            while ((buf = is.read()) != -1) {
-                out.write(buf);
-            }
+            is = result.readEntity(InputStream.class);
+            out = response.getOutputStream();
+            HttpUtils.copy(is, out);
 
         } catch (Throwable t) {
             LOGGER.warn("Failed to download result", t);
-            String str = "Failed to download result: " + JSONUtils.getJsonErrorMessage(t);
-            out.write(str.getBytes());
+            if (response.isCommitted()) {
+                // part of the result is sent, abort the connection rather than writing the error into it
+                // so that the client does not take the truncated result for a complete one
+                aborted = true;
+                throw new IOException("Failed to download result", t);
+            }
+            if (t instanceof RestServerException &&
+                ((RestServerException) t).getStatus() == HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (withContent) {
+                String str = "Failed to download result: " + JSONUtils.getJsonErrorMessage(t);
+                if (out == null) {
+                    out = response.getOutputStream();
+                }
+                out.write(str.getBytes());
+            }
         } finally {
             if (is != null)
                 is.close();
-            out.flush();
-            out.close();
+            if (result != null)
+                result.close();
+            if (out != null && !aborted) {
+                out.flush();
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Copies to the servlet response the status and the headers of the REST response that describe
+     * the returned bytes, a partial content when the REST server honoured the Range header
+     */
+    static void copyResultHeaders(Response result, HttpServletResponse response) {
+        response.setStatus(result.getStatus());
+
+        String acceptRanges = result.getHeaderString("Accept-Ranges");
+        response.setHeader("Accept-Ranges", acceptRanges != null ? acceptRanges : "none");
+
+        String contentRange = result.getHeaderString("Content-Range");
+        if (contentRange != null) {
+            response.setHeader("Content-Range", contentRange);
+        }
+
+        long length = getContentLength(result);
+        if (length >= 0) {
+            response.setHeader("Content-Length", Long.toString(length));
+        }
+    }
+
+    /**
+     * @return the length of the entity of the response, or -1 if it is unknown or encoded
+     */
+    private static long getContentLength(Response response) {
+        if (response.getHeaderString(HttpHeaders.CONTENT_ENCODING) != null) {
+            return -1;
         }
+        return response.getLength();
     }
 }
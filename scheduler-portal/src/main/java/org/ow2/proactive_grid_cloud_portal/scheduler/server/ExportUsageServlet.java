@@ -38,30 +38,49 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.io.IOUtils;
+import org.codehaus.jettison.json.JSONException;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
-import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobUsage;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Exports the usage data as CSV.
+ * <p>
+ * Rows are written while the usage data is received from the REST server, so the
+ * memory used does not depend on the size of the export. The CSV is compressed when
+ * the client accepts the gzip encoding.
+ */
 public class ExportUsageServlet extends HttpServlet {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportUsageServlet.class);
+
     private static final String ISO_8601_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSz";
     private static final String LINE_SEPARATOR = "\n";
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        InputStream usageStream = null;
         try {
             String sessionId = request.getParameter("sessionId");
             SimpleDateFormat formatter = new SimpleDateFormat(ISO_8601_FORMAT);
@@ -69,53 +88,76 @@ public class ExportUsageServlet extends HttpServlet {
             Date startDate = getDateParameter(request, formatter, "startDate");
             Date endDate = getDateParameter(request, formatter, "endDate");
 
-            String csvContent = csvExport(sessionId, user, startDate, endDate);
+            usageStream = ((SchedulerServiceImpl) Service.get()).getUsageStream(sessionId, user, startDate, endDate);
 
             response.setContentType("text/csv");
+            response.setCharacterEncoding("UTF-8");
             response.setHeader("Content-Disposition", "attachment; filename=\"SchedulerUsage.csv\"");
-            PrintWriter writer = response.getWriter();
-            writer.write(csvContent);
-            writer.flush();
+
+            OutputStream out = response.getOutputStream();
+            if (acceptsGzip(request)) {
+                response.setHeader("Content-Encoding", "gzip");
+                response.setHeader("Vary", "Accept-Encoding");
+                out = new GZIPOutputStream(out);
+            }
+
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            csvExport(usageStream, writer);
             writer.close();
         } catch (ParseException e) {
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Dates parameter should use ISO 8601 format");
-        } catch (ServiceException e) {
-            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Failed to retrieve usage data: " + e.getMessage());
         } catch (RestServerException e) {
             response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Failed to retrieve usage data: " + e.getMessage());
+        } catch (JSONException e) {
+            LOGGER.warn("Failed to read usage data", e);
+            if (response.isCommitted()) {
+                // part of the export is sent, abort the connection so that the client
+                // does not take the truncated CSV for a complete one
+                throw new IOException("Failed to read usage data", e);
+            }
+            // drop the buffered rows and the gzip encoding of the export
+            response.reset();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Failed to read usage data: " + e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(usageStream);
         }
     }
 
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
     private Date getDateParameter(HttpServletRequest request, SimpleDateFormat formatter, String parameterName) throws ParseException {
         return formatter.parse(request.getParameter(parameterName));
     }
 
-    private String csvExport(String sessionId, String user, Date startDate, Date endDate) throws ServiceException, RestServerException, IOException {
+    private void csvExport(InputStream usageStream, Writer writer) throws IOException, JSONException {
         Object [] header = {"Owner","Project","Job Id","Job Name","Job Duration","Task Id","Task Name","Task Node Number","Task Start Time","Task Finished Time","Task Duration"};
-        List<JobUsage> jobUsages = ((SchedulerServiceImpl) Service.get()).getUsage(sessionId, user, startDate, endDate);
-        StringBuilder sb = new StringBuilder();
-        CSVPrinter csvFilePrinter = null;
         CSVFormat csvFileFormat = CSVFormat.DEFAULT.withRecordSeparator(LINE_SEPARATOR);
-        csvFilePrinter = new CSVPrinter(sb, csvFileFormat);
+        final CSVPrinter csvFilePrinter = new CSVPrinter(writer, csvFileFormat);
         csvFilePrinter.printRecord(header);
-        for (JobUsage jobUsage : jobUsages) {
-            for (TaskUsage taskUsage : jobUsage.getTaskUsages()) {
-                csvFilePrinter.printRecord(
-                    jobUsage.getOwner(),
-                    jobUsage.getProject(),
-                    jobUsage.getJobId(),
-                    jobUsage.getJobName(),
-                    jobUsage.getJobDuration(),
-                    taskUsage.getTaskId(),
-                    taskUsage.getTaskName(),
-                    taskUsage.getTaskNodeNumber(),
-                    taskUsage.getTaskStartTime(),
-                    taskUsage.getTaskFinishedTime(),
-                    taskUsage.getTaskExecutionDuration()
-                );
-            }
-        }
-        csvFilePrinter.close();
-        return sb.toString();
+        UsageJsonReader.readJobUsages(new BufferedReader(new InputStreamReader(usageStream, StandardCharsets.UTF_8)),
+                new UsageJsonReader.JobUsageHandler() {
+                    @Override
+                    public void handle(JobUsage jobUsage) throws IOException {
+                        for (TaskUsage taskUsage : jobUsage.getTaskUsages()) {
+                            csvFilePrinter.printRecord(
+                                jobUsage.getOwner(),
+                                jobUsage.getProject(),
+                                jobUsage.getJobId(),
+                                jobUsage.getJobName(),
+                                jobUsage.getJobDuration(),
+                                taskUsage.getTaskId(),
+                                taskUsage.getTaskName(),
+                                taskUsage.getTaskNodeNumber(),
+                                taskUsage.getTaskStartTime(),
+                                taskUsage.getTaskFinishedTime(),
+                                taskUsage.getTaskExecutionDuration()
+                            );
+                        }
+                    }
+                });
+        csvFilePrinter.flush();
     }
 }
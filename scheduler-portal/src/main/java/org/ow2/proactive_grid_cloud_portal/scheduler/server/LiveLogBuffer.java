@@ -0,0 +1,101 @@
+/*
+ *  *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ *  * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+/**
+ * Keeps the last characters of the live output of a job in a fixed size ring.
+ * <p>
+ * Positions are absolute: {@link #getEnd()} is the number of characters ever
+ * appended, so that readers can keep their own cursor and detect that older
+ * output has been overwritten.
+ */
+class LiveLogBuffer {
+
+    private final char[] ring;
+
+    /** number of characters appended since the creation of the buffer */
+    private long end;
+
+    LiveLogBuffer(int capacity) {
+        this.ring = new char[capacity];
+    }
+
+    synchronized void append(String chunk) {
+        int length = chunk.length();
+
+        // only the last characters of a chunk larger than the ring are kept
+        int from = Math.max(0, length - ring.length);
+        int index = (int) ((end + from) % ring.length);
+        int first = Math.min(length - from, ring.length - index);
+
+        chunk.getChars(from, from + first, ring, index);
+        chunk.getChars(from + first, length, ring, 0);
+
+        end += length;
+    }
+
+    /**
+     * @return the characters appended after the given position, starting from
+     *         the oldest kept character if the position has been overwritten
+     */
+    synchronized String readFrom(long position) {
+        long from = Math.max(position, getStart());
+        int length = (int) (end - from);
+        if (length <= 0) {
+            return "";
+        }
+
+        char[] chars = new char[length];
+        int index = (int) (from % ring.length);
+        int first = Math.min(length, ring.length - index);
+
+        System.arraycopy(ring, index, chars, 0, first);
+        System.arraycopy(ring, 0, chars, first, length - first);
+
+        return new String(chars);
+    }
+
+    /**
+     * @return position of the oldest character still in the buffer
+     */
+    synchronized long getStart() {
+        return Math.max(0, end - ring.length);
+    }
+
+    synchronized long getEnd() {
+        return end;
+    }
+
+}
@@ -0,0 +1,339 @@
+/*
+ *  *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ *  * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Polls the live output of each watched job once, whatever the number of sessions watching it.
+ * <p>
+ * The recent output of a job is kept in a {@link LiveLogBuffer} and each subscriber,
+ * identified by its session id, reads it from its own cursor. A job is no longer polled
+ * once it is finished and its output has been drained, and it is forgotten once none of
+ * its subscribers has read its output for the subscriber timeout.
+ * <p>
+ * The REST server keeps a cursor in the output of a job for each session, starting at the
+ * beginning of the output. When the polling session changes, the output the new session
+ * reads again is recognized from its previous position and is not buffered twice.
+ */
+public class LiveLogMultiplexer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LiveLogMultiplexer.class);
+
+    /**
+     * Reads the live output and the state of a job on behalf of a session.
+     */
+    interface LiveLogSource {
+
+        /**
+         * @return the output produced since the previous call for the same session and job,
+         *         from the beginning of the output for the first call
+         */
+        String readLiveLog(String sessionId, String jobId) throws RestServerException;
+
+        /**
+         * @return true if the job will not produce any more output,
+         *         fails if the session is not allowed to see the job
+         */
+        boolean isJobFinished(String sessionId, String jobId) throws RestServerException;
+
+    }
+
+    private final Map<String, WatchedJob> watchedJobs = new LinkedHashMap<>();
+
+    private final LiveLogSource source;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final long pollPeriod;
+
+    private final int bufferSize;
+
+    private final long subscriberTimeout;
+
+    LiveLogMultiplexer(LiveLogSource source, ScheduledExecutorService scheduler, long pollPeriod, int bufferSize,
+            long subscriberTimeout) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.pollPeriod = pollPeriod;
+        this.bufferSize = bufferSize;
+        this.subscriberTimeout = subscriberTimeout;
+
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                expireSubscribers(System.currentTimeMillis());
+            }
+        }, subscriberTimeout, subscriberTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the live output of a job produced since the previous read of the same session,
+     * the first read subscribes the session and starts polling the job if nobody watched it yet.
+     *
+     * @return the new output of the job, or an empty string
+     * @throws RestServerException if the session is not allowed to see the job
+     *                             or if polling the job on its behalf failed
+     */
+    public String read(String sessionId, String jobId) throws RestServerException {
+        WatchedJob job;
+        synchronized (watchedJobs) {
+            job = watchedJobs.get(jobId);
+        }
+
+        if (job == null || !job.isSubscribed(sessionId)) {
+            // the output of the job may already be buffered, check that
+            // the new subscriber is allowed to see it
+            boolean finished = source.isJobFinished(sessionId, jobId);
+            job = subscribe(sessionId, jobId, finished);
+        }
+
+        return job.read(sessionId, System.currentTimeMillis());
+    }
+
+    /**
+     * Stops polling all the jobs.
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        synchronized (watchedJobs) {
+            watchedJobs.clear();
+        }
+    }
+
+    private WatchedJob subscribe(String sessionId, String jobId, boolean finished) {
+        synchronized (watchedJobs) {
+            WatchedJob job = watchedJobs.get(jobId);
+            if (job == null) {
+                job = new WatchedJob(jobId, finished);
+                watchedJobs.put(jobId, job);
+                job.subscribe(sessionId, System.currentTimeMillis());
+                job.startPolling();
+            } else {
+                job.subscribe(sessionId, System.currentTimeMillis());
+            }
+            return job;
+        }
+    }
+
+    void expireSubscribers(long now) {
+        synchronized (watchedJobs) {
+            Iterator<WatchedJob> iterator = watchedJobs.values().iterator();
+            while (iterator.hasNext()) {
+                WatchedJob job = iterator.next();
+                if (!job.expireSubscribers(now - subscriberTimeout)) {
+                    job.stopPolling();
+                    iterator.remove();
+                    LOGGER.debug("Nobody watches the live output of job {} anymore", job.jobId);
+                }
+            }
+        }
+    }
+
+    int getWatchedJobsCount() {
+        synchronized (watchedJobs) {
+            return watchedJobs.size();
+        }
+    }
+
+    private static final class Subscriber {
+
+        private long cursor;
+
+        private long lastRead;
+
+        private String error;
+
+        private Subscriber(long cursor, long lastRead) {
+            this.cursor = cursor;
+            this.lastRead = lastRead;
+        }
+
+    }
+
+    private final class WatchedJob implements Runnable {
+
+        private final String jobId;
+
+        private final LiveLogBuffer buffer = new LiveLogBuffer(bufferSize);
+
+        private final Map<String, Subscriber> subscribers = new LinkedHashMap<>();
+
+        /** session used to poll the job, kept as long as it is subscribed */
+        private String pollingSessionId;
+
+        /** position in the output up to which each session polled the job */
+        private final Map<String, Long> polledPositions = new HashMap<>();
+
+        private boolean finished;
+
+        private ScheduledFuture<?> polling;
+
+        private WatchedJob(String jobId, boolean finished) {
+            this.jobId = jobId;
+            this.finished = finished;
+        }
+
+        private synchronized boolean isSubscribed(String sessionId) {
+            return subscribers.containsKey(sessionId);
+        }
+
+        private synchronized void subscribe(String sessionId, long now) {
+            if (!subscribers.containsKey(sessionId)) {
+                // a late subscriber gets the output still buffered
+                subscribers.put(sessionId, new Subscriber(buffer.getStart(), now));
+            }
+        }
+
+        private synchronized String read(String sessionId, long now) throws RestServerException {
+            Subscriber subscriber = subscribers.get(sessionId);
+            if (subscriber == null) {
+                // expired in the meantime, the next read subscribes again
+                return "";
+            }
+            if (subscriber.error != null) {
+                subscribers.remove(sessionId);
+                throw new RestServerException(subscriber.error);
+            }
+
+            String output = buffer.readFrom(subscriber.cursor);
+            subscriber.cursor = buffer.getEnd();
+            subscriber.lastRead = now;
+            return output;
+        }
+
+        /**
+         * @return false if the job has no subscriber left
+         */
+        private synchronized boolean expireSubscribers(long lastReadLimit) {
+            Iterator<Subscriber> iterator = subscribers.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().lastRead < lastReadLimit) {
+                    iterator.remove();
+                }
+            }
+            return !subscribers.isEmpty();
+        }
+
+        private synchronized void startPolling() {
+            polling = scheduler.scheduleWithFixedDelay(this, 0, pollPeriod, TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void stopPolling() {
+            if (polling != null) {
+                polling.cancel(false);
+            }
+        }
+
+        private synchronized String getPollingSessionId() {
+            Subscriber subscriber = pollingSessionId == null ? null : subscribers.get(pollingSessionId);
+            if (subscriber == null || subscriber.error != null) {
+                pollingSessionId = null;
+                for (Map.Entry<String, Subscriber> entry : subscribers.entrySet()) {
+                    if (entry.getValue().error == null) {
+                        pollingSessionId = entry.getKey();
+                        break;
+                    }
+                }
+            }
+            return pollingSessionId;
+        }
+
+        private synchronized boolean isFinished() {
+            return finished;
+        }
+
+        private synchronized void append(String sessionId, String output) {
+            Long polledPosition = polledPositions.get(sessionId);
+            long position = polledPosition == null ? 0 : polledPosition;
+            long end = buffer.getEnd();
+            if (position + output.length() > end) {
+                // skip what another session already polled
+                buffer.append(output.substring((int) (end - position)));
+            }
+            polledPositions.put(sessionId, position + output.length());
+        }
+
+        private synchronized void fail(String sessionId, String error) {
+            Subscriber subscriber = subscribers.get(sessionId);
+            if (subscriber != null) {
+                subscriber.error = error;
+            }
+        }
+
+        private synchronized void finish() {
+            finished = true;
+            stopPolling();
+        }
+
+        /**
+         * Polls the job once, remote calls are made without holding the lock of the job
+         */
+        @Override
+        public void run() {
+            String sessionId = getPollingSessionId();
+            if (sessionId == null) {
+                return;
+            }
+
+            try {
+                String output = source.readLiveLog(sessionId, jobId);
+                if (output != null && !output.isEmpty()) {
+                    append(sessionId, output);
+                } else if (isFinished() || source.isJobFinished(sessionId, jobId)) {
+                    // the output written before the end of the job has been read
+                    finish();
+                    LOGGER.debug("Stopped polling the live output of finished job {}", jobId);
+                }
+            } catch (RestServerException | RuntimeException e) {
+                LOGGER.warn("Failed to poll the live output of job " + jobId, e);
+                fail(sessionId, e.getMessage());
+            }
+        }
+
+    }
+
+}
@@ -42,6 +42,7 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.TasksCent
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.io.InputStream;
 
 
@@ -386,19 +387,17 @@ public interface RestClient {
     
     
     /**
-     * Returns a list of the tags of the tasks belonging to job <code>jobId</code> and filtered by a prefix pattern
+     * Returns a list of the tags of the tasks belonging to job <code>jobId</code>
      * @param sessionId a valid session id
      * @param jobId jobid one wants to list the tasks' tags
-     * @param prefix the prefix used to filter tags
-     * @return a list of tasks' name
+     * @return a list of tasks' tags
      */
     @GET
-    @Path("jobs/{jobid}/tasks/tags/startsWith/{prefix}")
+    @Path("jobs/{jobid}/tasks/tags")
     @Produces("application/json")
-    InputStream getJobTaskTagsPrefix(@HeaderParam("sessionid")
+    InputStream getJobTaskTags(@HeaderParam("sessionid")
                                 String sessionId, @PathParam("jobid")
-                                String jobId, @PathParam("prefix")
-                                      String prefix);
+                                String jobId);
 
     
 
@@ -646,16 +645,18 @@ public interface RestClient {
      * @param sessionId the session id of the user which is logged in
      * @param jobId the id of the job to which the task belongs
      * @param taskId the id of the task to which the result is asked
-     * @return the result of the task
+     * @param range the byte range of the result to get, or null for the whole result
+     * @return the response whose entity is the result of the task, not compressed
+     * so that its length is known
      */
     @GET
-    @GZIP
     @Path("jobs/{jobid}/tasks/{taskid}/result/value")
     @Produces("*/*")
-    InputStream taskresult(@HeaderParam("sessionid")
+    Response taskresult(@HeaderParam("sessionid")
                                            String sessionId, @PathParam("jobid")
                                            String jobId, @PathParam("taskid")
-                                           String taskId);
+                                           String taskId, @HeaderParam("Range")
+                                           String range);
 
     /**
      * Gets the result of a task.
@@ -679,16 +680,18 @@ public interface RestClient {
      * @param sessionId the session id of the user which is logged in
      * @param jobId     the id of the job to which the task belongs
      * @param taskId    the id of the task to which the result is asked
-     * @return the serialized result of the task
+     * @param range     the byte range of the result to get, or null for the whole result
+     * @return the response whose entity is the serialized result of the task, not
+     * compressed so that its length is known
      */
     @GET
-    @GZIP
     @Path("jobs/{jobid}/tasks/{taskid}/result/serializedvalue")
     @Produces("*/*")
-    InputStream taskSerializedResult(@HeaderParam("sessionid")
+    Response taskSerializedResult(@HeaderParam("sessionid")
                                              String sessionId, @PathParam("jobid")
                                              String jobId, @PathParam("taskid")
-                                             String taskId);
+                                             String taskId, @HeaderParam("Range")
+                                             String range);
 
     /**
      * returns statistics about the scheduler
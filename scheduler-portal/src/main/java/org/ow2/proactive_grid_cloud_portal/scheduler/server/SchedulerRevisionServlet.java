@@ -0,0 +1,141 @@
+/*
+ *  *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ *  * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ow2.proactive_grid_cloud_portal.common.server.Service;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Answers with the scheduler state revision once it differs from the one the client knows,
+ * or with the known one after the configured wait timeout.
+ * <p>
+ * Requests are handled asynchronously: the container thread is released while waiting,
+ * the response is written by the {@link SchedulerRevisionWatcher} polling thread
+ * or by the container on timeout, so open portals do not hold a thread each.
+ * <p>
+ * Parameters: {@code sessionId}, {@code revision} the revision known by the client.
+ */
+public class SchedulerRevisionServlet extends HttpServlet {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchedulerRevisionServlet.class);
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String sessionId = request.getParameter("sessionId");
+        final long knownRevision;
+        try {
+            knownRevision = Long.parseLong(request.getParameter("revision"));
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Revision is not a number");
+            return;
+        }
+
+        final SchedulerRevisionWatcher watcher = ((SchedulerServiceImpl) Service.get()).getRevisionWatcher();
+        final AsyncContext async = request.startAsync();
+        async.setTimeout(SchedulerConfig.get().getRevisionWaitTimeout());
+
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final SchedulerRevisionWatcher.RevisionListener listener = new SchedulerRevisionWatcher.RevisionListener() {
+            @Override
+            public void revisionChanged(long revision) {
+                if (done.compareAndSet(false, true)) {
+                    complete(async, revision);
+                }
+            }
+        };
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                watcher.cancel(listener);
+                if (done.compareAndSet(false, true)) {
+                    complete(async, knownRevision);
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                watcher.cancel(listener);
+                done.set(true);
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                watcher.cancel(listener);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
+        try {
+            watcher.awaitRevision(sessionId, knownRevision, listener);
+        } catch (RestServerException e) {
+            if (done.compareAndSet(false, true)) {
+                int status = e.getStatus() > 0 ? e.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+                response.sendError(status, e.getMessage());
+                async.complete();
+            }
+        }
+    }
+
+    private static void complete(AsyncContext async, long revision) {
+        try {
+            HttpServletResponse response = (HttpServletResponse) async.getResponse();
+            response.setContentType("text/plain");
+            response.setHeader("Cache-Control", "no-cache");
+            response.getWriter().print(revision);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Failed to send the scheduler state revision", e);
+        } finally {
+            async.complete();
+        }
+    }
+
+}
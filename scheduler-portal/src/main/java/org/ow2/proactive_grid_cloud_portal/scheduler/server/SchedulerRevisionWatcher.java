@@ -0,0 +1,266 @@
+/*
+ *  *
+ * ProActive Parallel Suite(TM): The Java(TM) library for
+ *    Parallel, Distributed, Multi-Core Computing for
+ *    Enterprise Grids & Clouds
+ *
+ * Copyright (C) 1997-2015 INRIA/University of
+ *                 Nice-Sophia Antipolis/ActiveEon
+ * Contact: proactive@ow2.org or contact@activeeon.com
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation; version 3 of
+ * the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307
+ * USA
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ *
+ *  Initial developer(s):               The ProActive Team
+ *                        http://proactive.inria.fr/team_members.htm
+ *  Contributor(s):
+ *
+ *  * $$PROACTIVE_INITIAL_DEV$$
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Polls the scheduler state revision once for all the sessions waiting for it to change.
+ * <p>
+ * A session waits by registering a listener with {@link #awaitRevision(String, long, RevisionListener)},
+ * which is notified as soon as the revision differs from the one the session knows. No thread is held
+ * while waiting, the listeners are notified by the polling thread. The revision is read on behalf of
+ * the session that waited last. Polling stops once no session has waited for the session timeout.
+ */
+public class SchedulerRevisionWatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchedulerRevisionWatcher.class);
+
+    /**
+     * Reads the scheduler state revision on behalf of a session.
+     */
+    interface RevisionSource {
+
+        /**
+         * @return the current revision, fails if the session is not valid
+         */
+        long readRevision(String sessionId) throws RestServerException;
+
+    }
+
+    /**
+     * Notified once when the revision differs from the one a session knows.
+     */
+    interface RevisionListener {
+
+        void revisionChanged(long revision);
+
+    }
+
+    private final RevisionSource source;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final long pollPeriod;
+
+    private final long sessionTimeout;
+
+    /** time at which each session started to wait for the last time, the most recent one last */
+    private final Map<String, Long> sessions = new LinkedHashMap<>();
+
+    /** listeners of the sessions that know the current revision */
+    private final List<RevisionListener> listeners = new ArrayList<>();
+
+    private long revision = -1;
+
+    private ScheduledFuture<?> polling;
+
+    SchedulerRevisionWatcher(RevisionSource source, ScheduledExecutorService scheduler, long pollPeriod,
+            long sessionTimeout) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.pollPeriod = pollPeriod;
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    /**
+     * Notifies the listener once the scheduler state revision differs from the given one, at once if it
+     * already does. The first wait of a session reads the revision on its behalf, to check that the session
+     * is valid; the listener is not notified if that fails.
+     *
+     * @throws RestServerException if the session is not valid
+     */
+    public void awaitRevision(String sessionId, long knownRevision, RevisionListener listener)
+            throws RestServerException {
+        boolean known;
+        synchronized (this) {
+            known = sessions.containsKey(sessionId);
+        }
+        if (!known) {
+            update(source.readRevision(sessionId));
+        }
+
+        long current;
+        synchronized (this) {
+            sessions.remove(sessionId);
+            sessions.put(sessionId, System.currentTimeMillis());
+            startPolling();
+
+            current = revision;
+            if (current == knownRevision) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        listener.revisionChanged(current);
+    }
+
+    /**
+     * @return the revision last read on behalf of the waiting sessions if the given session is one of them,
+     *         null otherwise
+     */
+    public synchronized Long getRevision(String sessionId) {
+        return sessions.containsKey(sessionId) && revision >= 0 ? revision : null;
+    }
+
+    /**
+     * Stops waiting with the given listener, which is not notified anymore.
+     */
+    public synchronized void cancel(RevisionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Stops reading the revision on behalf of the given session.
+     */
+    public synchronized void forget(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    /**
+     * Stops polling, waiting listeners are notified with the current revision.
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        List<RevisionListener> waiting;
+        long current;
+        synchronized (this) {
+            sessions.clear();
+            waiting = new ArrayList<>(listeners);
+            listeners.clear();
+            current = revision;
+        }
+        notifyListeners(waiting, current);
+    }
+
+    /**
+     * Reads the revision once, the remote call is made without holding the lock
+     */
+    void poll() {
+        String sessionId = getPollingSessionId(System.currentTimeMillis());
+        if (sessionId == null) {
+            return;
+        }
+
+        try {
+            update(source.readRevision(sessionId));
+        } catch (RestServerException | RuntimeException e) {
+            LOGGER.debug("Failed to read the scheduler state revision, forgetting the session", e);
+            forget(sessionId);
+        }
+    }
+
+    synchronized int getSessionsCount() {
+        return sessions.size();
+    }
+
+    synchronized int getListenersCount() {
+        return listeners.size();
+    }
+
+    /**
+     * Notifies the waiting listeners if the revision changed, outside of the lock
+     * since they write their response
+     */
+    private void update(long newRevision) {
+        List<RevisionListener> waiting;
+        synchronized (this) {
+            if (newRevision == revision) {
+                return;
+            }
+            revision = newRevision;
+            waiting = new ArrayList<>(listeners);
+            listeners.clear();
+        }
+        notifyListeners(waiting, newRevision);
+    }
+
+    private void notifyListeners(List<RevisionListener> waiting, long newRevision) {
+        for (RevisionListener listener : waiting) {
+            try {
+                listener.revisionChanged(newRevision);
+            } catch (RuntimeException e) {
+                LOGGER.debug("Failed to notify a scheduler state revision change", e);
+            }
+        }
+    }
+
+    private synchronized void startPolling() {
+        if (polling == null) {
+            polling = scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    poll();
+                }
+            }, pollPeriod, pollPeriod, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return the session that waited last, or null if none waited for the session timeout
+     */
+    private synchronized String getPollingSessionId(long now) {
+        String sessionId = null;
+        Iterator<Map.Entry<String, Long>> iterator = sessions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> session = iterator.next();
+            if (session.getValue() < now - sessionTimeout) {
+                iterator.remove();
+            } else {
+                sessionId = session.getKey();
+            }
+        }
+
+        if (sessionId == null && polling != null) {
+            polling.cancel(false);
+            polling = null;
+            LOGGER.debug("Nobody waits for the scheduler state revision anymore");
+        }
+        return sessionId;
+    }
+
+}
@@ -47,6 +47,7 @@ import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
 import org.jboss.resteasy.client.jaxrs.ResteasyClient;
 import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
 import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
@@ -58,12 +59,19 @@ import org.ow2.proactive_grid_cloud_portal.common.server.Service;
 import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobOutputPage;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobOutputPage.TaskOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobUsage;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.OutputMode;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerService;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerServiceAsync;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskStatus;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.TasksCentricController;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
@@ -75,14 +83,25 @@ import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarFile;
 
 import static org.ow2.proactive_grid_cloud_portal.common.server.HttpUtils.convertToString;
@@ -94,6 +113,8 @@ import static org.ow2.proactive_grid_cloud_portal.common.server.HttpUtils.conver
 @SuppressWarnings("serial")
 public class SchedulerServiceImpl extends Service implements SchedulerService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchedulerServiceImpl.class);
+
     private static final String ISO_8601_FORMAT = "yyyy-MM-dd'T'HH:mmZ";
 
     private CloseableHttpClient httpClient;
@@ -108,6 +129,33 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     private ExecutorService threadPool;
 
+    /**
+     * Number of threads polling the live output of the watched jobs.
+     */
+    private static final int LIVE_LOG_POLLER_THREADS = 4;
+
+    /**
+     * Polls the live output of each watched job once for all the sessions watching it.
+     */
+    private LiveLogMultiplexer liveLogMultiplexer;
+
+    /**
+     * Polls the scheduler state revision once for all the sessions waiting for it to change.
+     */
+    private SchedulerRevisionWatcher revisionWatcher;
+
+    /**
+     * Hash of the dashboard state parts last sent to each session, by session and part,
+     * so that unchanged parts are not sent again.
+     */
+    private final ConcurrentMap<String, Map<String, Integer>> sentDashboardParts = new ConcurrentHashMap<>();
+
+    /**
+     * RestEasy client proxy shared by all requests, built lazily and rebuilt
+     * only when the REST URL changes.
+     */
+    private volatile RestClientProxyHolder restClientProxyHolder;
+
     @Override
     public void init() {
         loadProperties();
@@ -122,6 +170,34 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
                         .useSystemProperties().build();
 
         threadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+
+        SchedulerConfig schedulerConfig = SchedulerConfig.get();
+        liveLogMultiplexer =
+                new LiveLogMultiplexer(new RestLiveLogSource(),
+                        Executors.newScheduledThreadPool(LIVE_LOG_POLLER_THREADS),
+                        schedulerConfig.getLivelogsRefreshTime(),
+                        schedulerConfig.getLivelogsBufferSize(),
+                        schedulerConfig.getLivelogsSubscriberTimeout());
+        revisionWatcher =
+                new SchedulerRevisionWatcher(new SchedulerRevisionWatcher.RevisionSource() {
+                    @Override
+                    public long readRevision(String sessionId) throws RestServerException {
+                        return schedulerStateRevision(sessionId);
+                    }
+                }, Executors.newSingleThreadScheduledExecutor(),
+                        schedulerConfig.getClientRefreshTime(),
+                        2L * schedulerConfig.getRevisionWaitTimeout());
+    }
+
+    @Override
+    public void destroy() {
+        if (liveLogMultiplexer != null) {
+            liveLogMultiplexer.shutdown();
+        }
+        if (revisionWatcher != null) {
+            revisionWatcher.shutdown();
+        }
+        super.destroy();
     }
 
     /**
@@ -220,18 +296,14 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * @param sessionId the session id of the user which is logged in
      * @param jobId     the id of the job the task belongs to
      * @param taskId    the id of the task
-     * @return the result
+     * @param range     the value of the Range header to forward, or null for the whole result
+     * @return the response whose entity is the result, it must be closed by the caller
      * @throws RestServerException
      * @throws ServiceException
      */
-    public InputStream getTaskResult(String sessionId, String jobId, String taskId)
+    public Response getTaskResult(String sessionId, String jobId, String taskId, String range)
             throws RestServerException, ServiceException {
-        try {
-            return getRestClientProxy().taskresult(sessionId, jobId, taskId);
-        } catch (WebApplicationException e) {
-            rethrowRestServerException(e);
-            return null;
-        }
+        return checkStreamedResponse(getRestClientProxy().taskresult(sessionId, jobId, taskId, range));
     }
 
     /**
@@ -240,17 +312,29 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * @param sessionId the session id of the user which is looged in
      * @param jobId     the id of the job the task belongs to
      * @param taskId    the id of the task
-     * @return the serialized result
+     * @param range     the value of the Range header to forward, or null for the whole result
+     * @return the response whose entity is the serialized result, it must be closed by the caller
      * @throws RestServerException
      * @throws ServiceException
      */
-    public InputStream getTaskSerializedResult(String sessionId, String jobId, String taskId)
+    public Response getTaskSerializedResult(String sessionId, String jobId, String taskId, String range)
             throws RestServerException, ServiceException {
+        return checkStreamedResponse(getRestClientProxy().taskSerializedResult(sessionId, jobId, taskId, range));
+    }
+
+    /**
+     * Proxy methods returning a raw {@link Response} do not throw on error statuses,
+     * turns such responses into a {@link RestServerException}.
+     */
+    private Response checkStreamedResponse(Response response) throws RestServerException, ServiceException {
+        if (response.getStatusInfo().getFamily() == Status.Family.SUCCESSFUL) {
+            return response;
+        }
+
         try {
-            return getRestClientProxy().taskSerializedResult(sessionId, jobId, taskId);
-        } catch (WebApplicationException e) {
-            rethrowRestServerException(e);
-            return null;
+            throw new RestServerException(response.getStatus(), response.readEntity(String.class));
+        } finally {
+            response.close();
         }
     }
 
@@ -282,7 +366,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * .String, java.util.List)
      */
     @Override
-    public int removeJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException {
+    public Map<Integer, Boolean> removeJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException {
         return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
             public InputStream apply(RestClient restClientProxy, Integer jobId) {
@@ -292,7 +376,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     }
 
     @Override
-    public int pauseJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException {
+    public Map<Integer, Boolean> pauseJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException {
         return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
             public InputStream apply(RestClient restClientProxy, Integer jobId) {
@@ -302,7 +386,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     }
 
     @Override
-    public int restartAllInErrorTasks(final String sessionId,
+    public Map<Integer, Boolean> restartAllInErrorTasks(final String sessionId,
             List<Integer> jobIdList) throws RestServerException, ServiceException {
         return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
@@ -313,7 +397,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     }
 
     @Override
-    public int resumeJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException,
+    public Map<Integer, Boolean> resumeJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException,
             ServiceException {
         return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
@@ -324,7 +408,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     }
 
     @Override
-    public int killJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException,
+    public Map<Integer, Boolean> killJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException,
             ServiceException {
         return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
@@ -342,9 +426,9 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * .lang.String, java.util.List, java.lang.String)
      */
     @Override
-    public void setPriorityByName(final String sessionId, List<Integer> jobIdList, final String priorityName)
-            throws ServiceException, RestServerException {
-        executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
+    public Map<Integer, Boolean> setPriorityByName(final String sessionId, List<Integer> jobIdList,
+            final String priorityName) throws ServiceException, RestServerException {
+        return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
             public InputStream apply(RestClient restClientProxy, Integer jobId) {
                 return restClientProxy.schedulerChangeJobPriorityByName(sessionId, Integer.toString(jobId), priorityName);
@@ -458,6 +542,10 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     @Override
     public void logout(String sessionId) throws RestServerException {
+        if (revisionWatcher != null) {
+            revisionWatcher.forget(sessionId);
+        }
+        sentDashboardParts.remove(sessionId);
         getRestClientProxy().disconnect(sessionId);
     }
 
@@ -582,11 +670,11 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
 
 
     @Override
-    public String getJobTaskTagsPrefix(final String sessionId, final String jobId, final String prefix) throws RestServerException, ServiceException {
-    	return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
+    public String getJobTaskTags(final String sessionId, final String jobId) throws RestServerException, ServiceException {
+        return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
-                return restClient.getJobTaskTagsPrefix(sessionId, jobId, prefix);
+                return restClient.getJobTaskTags(sessionId, jobId);
             }
         });
     }
@@ -752,23 +840,145 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         RestClient restClientProxy = getRestClientProxy();
 
         try {
-            switch(logMode){
-            case LOG_OUT_ERR:
-                return restClientProxy.tasklog(sessionId, jobId, taskName);
-            case LOG_OUT:
-                return restClientProxy.taskStdout(sessionId, jobId, taskName);
-            case LOG_ERR:
-                return restClientProxy.taskStderr(sessionId, jobId, taskName);
-            default:
-                throw new RestServerException("Invalid logMode value: " + logMode);
-            }
+            return fetchTaskOutput(restClientProxy, sessionId, jobId, taskName, logMode);
         } catch (WebApplicationException e) {
             return rethrowRestServerException(e);
         }
     }
 
+    /**
+     * Gets the outputs of a page of tasks of a job: the task states of the page are
+     * read with a single REST request, then the outputs of the started tasks are fetched
+     * with at most {@link SchedulerConfig#getBulkActionsParallelism()} concurrent requests.
+     * <p>
+     * A task whose output cannot be fetched does not fail the whole page,
+     * its error message is returned instead.
+     *
+     * @return the outputs of the started tasks of the page, ordered by finish time
+     */
+    @Override
+    public JobOutputPage getJobOutput(final String sessionId, final String jobId, final OutputMode logMode,
+            int offset, int limit) throws RestServerException, ServiceException {
+
+        if (logMode != OutputMode.LOG_OUT_ERR && logMode != OutputMode.LOG_OUT && logMode != OutputMode.LOG_ERR) {
+            throw new RestServerException("Invalid logMode value: " + logMode);
+        }
+
+        final RestClient restClientProxy = getRestClientProxy();
+
+        JobOutputPage page;
+        List<Task> startedTasks;
+
+        InputStream inputStream = null;
+        try {
+            inputStream = restClientProxy.getJobTaskStatesPaginated(sessionId, jobId, offset, limit);
+
+            JSONObject taskStates = new JSONObject(convertToString(inputStream));
+            page = new JobOutputPage(jobId, offset, limit, taskStates.getInt("size"));
+            startedTasks = readStartedTasks(taskStates.getJSONArray("list"));
+        } catch (IOException | JSONException e) {
+            throw new ServiceException(e.getMessage());
+        } catch (WebApplicationException e) {
+            rethrowRestServerException(e);
+            return null;
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+
+        if (startedTasks.isEmpty()) {
+            return page;
+        }
+
+        final Queue<Task> pendingTasks = new ConcurrentLinkedQueue<>(startedTasks);
+        final Map<Task, TaskOutput> outputs = new ConcurrentHashMap<>(startedTasks.size());
+
+        Callable<Void> worker = new Callable<Void>() {
+            @Override
+            public Void call() {
+                Task task;
+                while ((task = pendingTasks.poll()) != null) {
+                    try {
+                        String output = fetchTaskOutput(restClientProxy, sessionId, jobId, task.getName(), logMode);
+                        outputs.put(task, new TaskOutput(task, output, null));
+                    } catch (WebApplicationException | RestServerException e) {
+                        outputs.put(task, new TaskOutput(task, null, e.getMessage()));
+                    }
+                }
+                return null;
+            }
+        };
+
+        runConcurrently(worker, Math.min(SchedulerConfig.get().getBulkActionsParallelism(), startedTasks.size()),
+                "fetch of job " + jobId + " output");
+
+        for (Task task : startedTasks) {
+            page.add(outputs.get(task));
+        }
+
+        return page;
+    }
+
+    /**
+     * Reads the tasks of a page of task states, skipping the tasks that never started
+     * since they have no output, and sorts them by finish time.
+     */
+    static List<Task> readStartedTasks(JSONArray taskStates) throws JSONException {
+        List<Task> tasks = new ArrayList<>(taskStates.length());
+
+        for (int i = 0; i < taskStates.length(); i++) {
+            JSONObject taskState = taskStates.getJSONObject(i);
+            JSONObject taskInfo = taskState.getJSONObject("taskInfo");
+
+            TaskStatus status = TaskStatus.valueOf(taskInfo.getString("taskStatus"));
+            switch (status) {
+            case SKIPPED:
+            case PENDING:
+            case SUBMITTED:
+            case NOT_STARTED:
+                continue;
+            default:
+                break;
+            }
+
+            Task task = new Task();
+            task.setId(taskInfo.getJSONObject("taskId").getLong("id"));
+            task.setName(taskState.getString("name"));
+            task.setStatus(status);
+            task.setFinishTime(taskInfo.getLong("finishedTime"));
+            task.setJobId(taskInfo.getJSONObject("jobId").getLong("id"));
+            tasks.add(task);
+        }
+
+        Collections.sort(tasks, new Comparator<Task>() {
+            @Override
+            public int compare(Task t1, Task t2) {
+                int byFinishTime = Long.compare(t1.getFinishTime(), t2.getFinishTime());
+                return byFinishTime != 0 ? byFinishTime : t1.getId().compareTo(t2.getId());
+            }
+        });
+
+        return tasks;
+    }
+
+    private String fetchTaskOutput(RestClient restClientProxy, String sessionId, String jobId, String taskName,
+            OutputMode logMode) throws RestServerException {
+        switch(logMode){
+        case LOG_OUT_ERR:
+            return restClientProxy.tasklog(sessionId, jobId, taskName);
+        case LOG_OUT:
+            return restClientProxy.taskStdout(sessionId, jobId, taskName);
+        case LOG_ERR:
+            return restClientProxy.taskStderr(sessionId, jobId, taskName);
+        default:
+            throw new RestServerException("Invalid logMode value: " + logMode);
+        }
+    }
+
     /**
      * Gets the output of a job even for tasks that have not terminated yet
+     * <p>
+     * The job is polled once for all the sessions watching it by the {@link #liveLogMultiplexer},
+     * this returns what was polled since the previous call of the same session.
      *
      * @param sessionId current session id
      * @param jobId     id of the job for which logs should be fetched
@@ -779,13 +989,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     @Override
     public String getLiveLogJob(final String sessionId, final String jobId) throws RestServerException,
             ServiceException {
-        RestClient restClientProxy = getRestClientProxy();
-
-        try {
-            return restClientProxy.getLiveLogJob(sessionId, jobId);
-        } catch (WebApplicationException e) {
-            return rethrowRestServerException(e);
-        }
+        return liveLogMultiplexer.read(sessionId, jobId);
     }
 
     /**
@@ -897,6 +1101,132 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         }
     }
 
+    /**
+     * @return the watcher of the scheduler state revision, shared with the {@link SchedulerRevisionServlet}
+     */
+    SchedulerRevisionWatcher getRevisionWatcher() {
+        return revisionWatcher;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerService#getDashboardState
+     * (java.lang.String, long, boolean, boolean)
+     */
+    @Override
+    public String getDashboardState(final String sessionId, long lastRevision, boolean wantUsers,
+            boolean wantStats) throws RestServerException, ServiceException {
+        // JSON value of each part of the state, by key
+        final Map<String, Callable<String>> parts = new LinkedHashMap<>();
+        parts.put("status", new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return getSchedulerStatus(sessionId);
+            }
+        });
+        parts.put("revision", new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                // the revision watcher already reads it if the session waits for it to change
+                Long watchedRevision = revisionWatcher != null ? revisionWatcher.getRevision(sessionId) : null;
+                return String.valueOf(watchedRevision != null ? watchedRevision : schedulerStateRevision(sessionId));
+            }
+        });
+        if (wantUsers) {
+            parts.put("users", new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return getSchedulerUsers(sessionId);
+                }
+            });
+        }
+        if (wantStats) {
+            parts.put("statistics", new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return getStatistics(sessionId);
+                }
+            });
+            parts.put("accountStatistics", new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return getStatisticsOnMyAccount(sessionId);
+                }
+            });
+        }
+
+        final Queue<String> pendingParts = new ConcurrentLinkedQueue<>(parts.keySet());
+        final Map<String, String> values = new ConcurrentHashMap<>(parts.size());
+        final Map<String, Exception> failures = new ConcurrentHashMap<>();
+
+        runConcurrently(new Callable<Void>() {
+            @Override
+            public Void call() {
+                String part;
+                while ((part = pendingParts.poll()) != null) {
+                    try {
+                        values.put(part, parts.get(part).call());
+                    } catch (Exception e) {
+                        failures.put(part, e);
+                    }
+                }
+                return null;
+            }
+        }, parts.size(), "fetch of the dashboard state");
+
+        // without the status, the failure is likely to concern the session or the scheduler itself
+        Exception failure = failures.get("status");
+        if (failure != null) {
+            sentDashboardParts.remove(sessionId);
+        }
+        if (failure instanceof RestServerException) {
+            throw (RestServerException) failure;
+        } else if (failure instanceof ServiceException) {
+            throw (ServiceException) failure;
+        } else if (failure != null) {
+            throw new ServiceException(failure.getMessage());
+        }
+
+        if (lastRevision == -1) {
+            // the client does not hold any part yet
+            sentDashboardParts.remove(sessionId);
+        }
+        Map<String, Integer> sentParts = sentDashboardParts.get(sessionId);
+        if (sentParts == null) {
+            sentParts = new ConcurrentHashMap<>();
+            sentDashboardParts.put(sessionId, sentParts);
+        }
+
+        StringBuilder state = new StringBuilder("{");
+        for (String part : parts.keySet()) {
+            String value = values.get(part);
+            if (value == null || (part.equals("revision") && Long.parseLong(value) == lastRevision)) {
+                continue;
+            }
+            // the revision is compared with the one of the client, the other parts with the last ones sent
+            Integer hash = value.hashCode();
+            if (!part.equals("revision") && hash.equals(sentParts.put(part, hash))) {
+                continue;
+            }
+            if (state.length() > 1) {
+                state.append(',');
+            }
+            state.append('"').append(part).append("\":").append(value);
+        }
+        if (!failures.isEmpty()) {
+            JSONArray failed = new JSONArray();
+            for (String part : parts.keySet()) {
+                if (failures.containsKey(part)) {
+                    failed.put(part);
+                }
+            }
+            state.append(",\"failed\":").append(failed);
+        }
+        return state.append('}').toString();
+    }
+
     /**
      * Get information for all users currently connected to the scheduler
      *
@@ -1053,9 +1383,33 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
 
     @Override
     public List<JobUsage> getUsage(String sessionId, String user, Date startDate, Date endDate) throws RestServerException, ServiceException {
-        RestClient restClientProxy = getRestClientProxy();
+        InputStream inputStream = getUsageStream(sessionId, user, startDate, endDate);
 
-        InputStream inputStream = null;
+        try {
+            String responseAsString = convertToString(inputStream);
+
+            return UsageJsonReader.readJobUsages(responseAsString);
+        } catch (IOException | JSONException e) {
+            throw new ServiceException(e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * Gets the usage data as returned by the REST server, so that it can be
+     * processed while it is received.
+     *
+     * @param sessionId current session
+     * @param user      user whose usage is requested, or null for the current user
+     * @param startDate start of the period
+     * @param endDate   end of the period
+     * @return a JSON array of job usages, the stream must be closed by the caller
+     * @throws RestServerException
+     */
+    public InputStream getUsageStream(String sessionId, String user, Date startDate, Date endDate)
+            throws RestServerException {
+        RestClient restClientProxy = getRestClientProxy();
 
         try {
             DateFormat df = new SimpleDateFormat(ISO_8601_FORMAT);
@@ -1063,21 +1417,13 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
             String endDateAsString = df.format(endDate);
 
             if (user != null) {
-                inputStream = restClientProxy.getUsageOnAccount(sessionId, user, startDateAsString, endDateAsString);
+                return restClientProxy.getUsageOnAccount(sessionId, user, startDateAsString, endDateAsString);
             } else {
-                inputStream = restClientProxy.getUsageOnMyAccount(sessionId, startDateAsString, endDateAsString);
+                return restClientProxy.getUsageOnMyAccount(sessionId, startDateAsString, endDateAsString);
             }
-
-            String responseAsString = convertToString(inputStream);
-
-            return UsageJsonReader.readJobUsages(responseAsString);
-        } catch (IOException | JSONException e) {
-            throw new ServiceException(e.getMessage());
         } catch (WebApplicationException e) {
             rethrowRestServerException(e);
             return null;
-        } finally {
-            IOUtils.closeQuietly(inputStream);
         }
     }
 
@@ -1155,40 +1501,82 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         }
     }
 
-    private int executeFunction(BiFunction<RestClient, Integer, InputStream> action, List<Integer> jobIdList,
-                                String actionName) throws ServiceException, RestServerException {
+    /**
+     * Applies the given action on each job of the list, issuing at most
+     * {@link SchedulerConfig#getBulkActionsParallelism()} concurrent REST requests.
+     *
+     * @return for each job id, true if the action succeeded
+     */
+    private Map<Integer, Boolean> executeFunction(final BiFunction<RestClient, Integer, InputStream> action,
+                                List<Integer> jobIdList, String actionName) throws ServiceException, RestServerException {
 
-        RestClient restClientProxy = getRestClientProxy();
+        final RestClient restClientProxy = getRestClientProxy();
 
-        int failures = 0;
-        int success = 0;
+        final Queue<Integer> pendingJobIds = new ConcurrentLinkedQueue<>(jobIdList);
+        final Map<Integer, Boolean> outcome = new ConcurrentHashMap<>(jobIdList.size());
 
-        for (Integer jobId : jobIdList) {
-            InputStream inputStream = null;
+        Callable<Void> worker = new Callable<Void>() {
+            @Override
+            public Void call() throws RestServerException {
+                Integer jobId;
+                while ((jobId = pendingJobIds.poll()) != null) {
+                    outcome.put(jobId, applyOnJob(action, restClientProxy, jobId));
+                }
+                return null;
+            }
+        };
 
-            try {
-                inputStream = action.apply(restClientProxy, jobId);
+        runConcurrently(worker, Math.min(SchedulerConfig.get().getBulkActionsParallelism(), jobIdList.size()),
+                actionName);
 
-                if (Boolean.parseBoolean(convertToString(inputStream))) {
-                    success++;
-                } else {
-                    failures++;
-                }
-            } catch (WebApplicationException e) {
-                failures++;
-            } catch (IOException e) {
-                throw new ServiceException("Error while reading InputStream response: " + e.getMessage());
-            } finally {
-                IOUtils.closeQuietly(inputStream);
+        // ConcurrentHashMap is not serializable through GWT-RPC
+        return new HashMap<>(outcome);
+    }
+
+    /**
+     * Runs the same worker on several threads of the {@link #threadPool} and waits for all of them.
+     * Workers are expected to share a queue of pending work items.
+     */
+    private void runConcurrently(Callable<Void> worker, int nbWorkers, String actionName)
+            throws ServiceException, RestServerException {
+        try {
+            for (Future<Void> future : threadPool.invokeAll(Collections.nCopies(nbWorkers, worker))) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while waiting for " + actionName + " to complete");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RestServerException) {
+                throw (RestServerException) e.getCause();
             }
+            throw new ServiceException("Error while applying " + actionName + ": " + e.getCause().getMessage());
         }
+    }
 
-        if (failures > 0) {
-            throw new RestServerException("Requested " + jobIdList.size()
-                    + " " + actionName + ": " + success + " succeeded, " + failures + " failed.");
-        }
+    /**
+     * @return true if the REST server answered true
+     * @throws RestServerException if the session is not valid anymore, so that the client disconnects
+     */
+    private boolean applyOnJob(BiFunction<RestClient, Integer, InputStream> action, RestClient restClientProxy,
+                               Integer jobId) throws RestServerException {
+        InputStream inputStream = null;
 
-        return success;
+        try {
+            inputStream = action.apply(restClientProxy, jobId);
+            return Boolean.parseBoolean(convertToString(inputStream));
+        } catch (WebApplicationException e) {
+            if (e.getResponse().getStatus() == Status.UNAUTHORIZED.getStatusCode()) {
+                rethrowRestServerException(e);
+            }
+            LOGGER.debug("Failed to apply action on job " + jobId, e);
+            return false;
+        } catch (IOException e) {
+            LOGGER.debug("Failed to apply action on job " + jobId, e);
+            return false;
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
     }
 
     private String executeFunctionReturnStreamAsString(Function<RestClient, InputStream> function) throws ServiceException, RestServerException {
@@ -1211,19 +1599,104 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         }
     }
 
-    private RestClient getRestClientProxy() {
-        ResteasyClient client =
-                new ResteasyClientBuilder().asyncExecutor(threadPool)
-                        .httpEngine(new ApacheHttpClient4Engine(httpClient)).build();
-        ResteasyWebTarget target = client.target(SchedulerConfig.get().getRestUrl());
+    /**
+     * Returns the RestEasy client proxy shared by all requests.
+     * <p>
+     * The proxy is thread-safe since it relies on the pooled {@link #httpClient},
+     * so it is only created again when the configured REST URL changes.
+     *
+     * @return a client proxy targeting the current REST URL
+     */
+    RestClient getRestClientProxy() {
+        String restUrl = SchedulerConfig.get().getRestUrl();
+
+        RestClientProxyHolder holder = restClientProxyHolder;
 
-        return target.proxy(RestClient.class);
+        if (holder == null || !holder.restUrl.equals(restUrl)) {
+            synchronized (this) {
+                holder = restClientProxyHolder;
+
+                if (holder == null || !holder.restUrl.equals(restUrl)) {
+                    if (holder != null) {
+                        // the engine does not close the shared HTTP client, which other clients use
+                        holder.client.close();
+                    }
+                    ResteasyClient client =
+                            new ResteasyClientBuilder().asyncExecutor(threadPool)
+                                    .httpEngine(new ApacheHttpClient4Engine(httpClient, false)).build();
+                    ResteasyWebTarget target = client.target(restUrl);
+
+                    holder = new RestClientProxyHolder(restUrl, client, target.proxy(RestClient.class));
+                    restClientProxyHolder = holder;
+                }
+            }
+        }
+
+        return holder.proxy;
     }
 
     private String rethrowRestServerException(WebApplicationException e) throws RestServerException {
         throw new RestServerException(e.getResponse().getStatus(), e.getMessage());
     }
 
+    /**
+     * Reads the live output of jobs from the REST server for the {@link #liveLogMultiplexer}
+     */
+    private final class RestLiveLogSource implements LiveLogMultiplexer.LiveLogSource {
+
+        @Override
+        public String readLiveLog(String sessionId, String jobId) throws RestServerException {
+            try {
+                return getRestClientProxy().getLiveLogJob(sessionId, jobId);
+            } catch (WebApplicationException e) {
+                return rethrowRestServerException(e);
+            }
+        }
+
+        @Override
+        public boolean isJobFinished(String sessionId, String jobId) throws RestServerException {
+            InputStream inputStream = null;
+            try {
+                inputStream = getRestClientProxy().jobInfo(sessionId, jobId);
+
+                JSONObject jobInfo = new JSONObject(convertToString(inputStream));
+                switch (JobStatus.valueOf(jobInfo.getString("status"))) {
+                case CANCELED:
+                case FINISHED:
+                case FAILED:
+                case KILLED:
+                    return true;
+                default:
+                    return false;
+                }
+            } catch (IOException | JSONException | IllegalArgumentException e) {
+                throw new RestServerException("Cannot read the status of job " + jobId + ": " + e.getMessage());
+            } catch (WebApplicationException e) {
+                rethrowRestServerException(e);
+                return false;
+            } finally {
+                IOUtils.closeQuietly(inputStream);
+            }
+        }
+
+    }
+
+    private static final class RestClientProxyHolder {
+
+        private final String restUrl;
+
+        private final ResteasyClient client;
+
+        private final RestClient proxy;
+
+        private RestClientProxyHolder(String restUrl, ResteasyClient client, RestClient proxy) {
+            this.restUrl = restUrl;
+            this.client = client;
+            this.proxy = proxy;
+        }
+
+    }
+
     private interface BiFunction<T, U, R> {
 
         R apply(T t, U u);
@@ -37,6 +37,8 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobUsage;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskUsage;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -57,6 +59,93 @@ public class UsageJsonReader {
         return jobUsages;
     }
 
+    /**
+     * Receives the job usages read from a stream, one at a time.
+     */
+    public interface JobUsageHandler {
+
+        void handle(JobUsage jobUsage) throws IOException;
+
+    }
+
+    /**
+     * Reads a JSON array of job usages from a stream, handing each job usage over
+     * as soon as it has been read. Only one job usage is held in memory at a time.
+     *
+     * @param reader the stream containing the JSON array
+     * @param handler receives each job usage
+     * @throws IOException if the stream cannot be read or the handler fails
+     * @throws JSONException if the content is not a JSON array of job usages
+     */
+    public static void readJobUsages(Reader reader, JobUsageHandler handler) throws IOException, JSONException {
+        int c = skipWhitespaces(reader);
+        if (c != '[') {
+            throw new JSONException("A JSON array of job usages was expected");
+        }
+
+        StringBuilder element = new StringBuilder();
+
+        while (true) {
+            c = skipWhitespaces(reader);
+            if (c == ',') {
+                continue;
+            }
+            if (c == ']') {
+                return;
+            }
+            if (c != '{') {
+                throw new JSONException("A job usage object was expected, got: " + (c == -1 ? "end of stream" : (char) c));
+            }
+
+            element.setLength(0);
+            readObject(reader, element);
+            handler.handle(read(new JSONObject(element.toString())));
+        }
+    }
+
+    /**
+     * Appends to the builder the JSON object whose opening brace has just been read
+     */
+    private static void readObject(Reader reader, StringBuilder element) throws IOException, JSONException {
+        element.append('{');
+
+        int depth = 1;
+        boolean inString = false;
+        boolean escaped = false;
+
+        while (depth > 0) {
+            int c = reader.read();
+            if (c == -1) {
+                throw new JSONException("Unterminated job usage object");
+            }
+            element.append((char) c);
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+    }
+
+    private static int skipWhitespaces(Reader reader) throws IOException {
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        return c;
+    }
+
     private static JobUsage read(JSONObject json) throws JSONException {
         String owner = json.getString("owner");
         String project = json.getString("project");
@@ -68,10 +68,26 @@ public class SchedulerConfig extends Config {
     public static final String CLIENT_REFRESH_TIME = "sched.client.refresh.time";
     private static final String DEFAULT_CLIENT_REFRESH_TIME = "3000";
 
+    /** maximum time in millis a client waits on the server for the scheduler state revision to change */
+    public static final String REVISION_WAIT_TIMEOUT = "sched.revision.wait.timeout";
+    private static final String DEFAULT_REVISION_WAIT_TIMEOUT = "30000";
+
     /** client livelog refresh rate in millis */
     public static final String LIVELOGS_REFRESH_TIME = "sched.client.livelog.refresh.time";
     private static final String DEFAULT_LIVELOGS_REFRESH_TIME = "1000";
 
+    /** maximum number of live output lines kept by the client, oldest lines are discarded first */
+    public static final String LIVELOGS_MAX_LINES = "sched.client.livelog.max.lines";
+    private static final String DEFAULT_LIVELOGS_MAX_LINES = "10000";
+
+    /** number of characters of recent live output kept by the server for each watched job */
+    public static final String LIVELOGS_BUFFER_SIZE = "sched.livelog.buffer.size";
+    private static final String DEFAULT_LIVELOGS_BUFFER_SIZE = "1048576";
+
+    /** delay in millis after which a client which stopped reading the live output of a job is forgotten */
+    public static final String LIVELOGS_SUBSCRIBER_TIMEOUT = "sched.livelog.subscriber.timeout";
+    private static final String DEFAULT_LIVELOGS_SUBSCRIBER_TIMEOUT = "30000";
+
     /** job page size */
     public static final String JOBS_PAGE_SIZE = "sched.jobs.page.size";
     private static final String DEFAULT_JOBS_PAGE_SIZE = "50";
@@ -80,6 +96,10 @@ public class SchedulerConfig extends Config {
     public static final String TASKS_PAGE_SIZE = "sched.tasks.page.size";
     private static final String DEFAULT_TASKS_PAGE_SIZE = "20";
 
+    /** number of tasks whose output is fetched in a single request when displaying the output of a job */
+    public static final String OUTPUT_PAGE_SIZE = "sched.output.page.size";
+    private static final String DEFAULT_OUTPUT_PAGE_SIZE = "50";
+
     /** the number max of tag suggestions that should be displayed for autocompletion. */
     public static final String TAG_SUGGESTIONS_SIZE = "sched.tags.suggestions.size";
     private static final String DEFAULT_TAG_SUGGESTIONS_SIZE = "20";
@@ -88,6 +108,10 @@ public class SchedulerConfig extends Config {
     public static final String TAG_SUGGESTIONS_DELAY = "sched.tags.suggestions.delay";
     private static final String DEFAULT_TAG_SUGGESTIONS_DELAY = "30000";
 
+    /** maximum number of concurrent REST requests issued by the server for a bulk action on jobs */
+    public static final String BULK_ACTIONS_PARALLELISM = "sched.bulk.actions.parallelism";
+    private static final String DEFAULT_BULK_ACTIONS_PARALLELISM = "8";
+
     /** release version string */
     public static final String VERSION = "sched.version";
     private static final String DEFAULT_VERSION = "0.0";
@@ -134,15 +158,21 @@ public class SchedulerConfig extends Config {
 
     private void setDefaults() {
         properties.put(CLIENT_REFRESH_TIME, DEFAULT_CLIENT_REFRESH_TIME);
+        properties.put(REVISION_WAIT_TIMEOUT, DEFAULT_REVISION_WAIT_TIMEOUT);
         properties.put(LIVELOGS_REFRESH_TIME, DEFAULT_LIVELOGS_REFRESH_TIME);
+        properties.put(LIVELOGS_MAX_LINES, DEFAULT_LIVELOGS_MAX_LINES);
+        properties.put(LIVELOGS_BUFFER_SIZE, DEFAULT_LIVELOGS_BUFFER_SIZE);
+        properties.put(LIVELOGS_SUBSCRIBER_TIMEOUT, DEFAULT_LIVELOGS_SUBSCRIBER_TIMEOUT);
         properties.put(JOBS_PAGE_SIZE, DEFAULT_JOBS_PAGE_SIZE);
         properties.put(TASKS_PAGE_SIZE, DEFAULT_TASKS_PAGE_SIZE);
+        properties.put(OUTPUT_PAGE_SIZE, DEFAULT_OUTPUT_PAGE_SIZE);
         properties.put(VERSION, DEFAULT_VERSION);
         properties.put(SCHED_VERSION, DEFAULT_SCHED_VERSION);
         properties.put(REST_VERSION, DEFAULT_REST_VERSION);
         properties.put(MOTD_URL, DEFAULT_MOTD_URL);
         properties.put(TAG_SUGGESTIONS_SIZE, DEFAULT_TAG_SUGGESTIONS_SIZE);
         properties.put(TAG_SUGGESTIONS_DELAY, DEFAULT_TAG_SUGGESTIONS_DELAY);
+        properties.put(BULK_ACTIONS_PARALLELISM, DEFAULT_BULK_ACTIONS_PARALLELISM);
         properties.put(CS_SERVER_HTTP_PORT, DEFAULT_CS_SERVER_HTTP_PORT);
         properties.put(CS_SERVER_HTTPS_PORT, DEFAULT_CS_SERVER_HTTPS_PORT);
         properties.put(CS_SERVER_PROTOCOL, DEFAULT_CS_SERVER_PROTOCOL);
@@ -245,6 +275,14 @@ public class SchedulerConfig extends Config {
         return Integer.parseInt(properties.get(CLIENT_REFRESH_TIME));
     }
 
+    /**
+     * @return the maximum time in millis a client waits on the server for the scheduler state revision to change,
+     *         at least one second so that clients do not poll in a tight loop
+     */
+    public int getRevisionWaitTimeout() {
+        return Math.max(1000, Integer.parseInt(properties.get(REVISION_WAIT_TIMEOUT)));
+    }
+
     /**
      * @return number of jobs per page
      */
@@ -258,6 +296,13 @@ public class SchedulerConfig extends Config {
         return 0;
     }
 
+    /**
+     * @return number of tasks whose output is fetched in a single request
+     */
+    public int getOutputPageSize() {
+        return Math.max(1, Integer.parseInt(properties.get(OUTPUT_PAGE_SIZE)));
+    }
+
     /**
      * @return the number of tag suggestions that should be displayed for autocompletion.
      */
@@ -272,11 +317,39 @@ public class SchedulerConfig extends Config {
         return Long.parseLong(this.properties.get(TAG_SUGGESTIONS_DELAY));
     }
 
+    /**
+     * @return maximum number of concurrent REST requests issued for a bulk action on jobs
+     */
+    public int getBulkActionsParallelism() {
+        return Math.max(1, Integer.parseInt(properties.get(BULK_ACTIONS_PARALLELISM)));
+    }
+
     /**
      * @return refresh rate for live logs in millis
      */
     public int getLivelogsRefreshTime() {
-        return Integer.parseInt(properties.get(LIVELOGS_REFRESH_TIME));
+        return Math.max(1, Integer.parseInt(properties.get(LIVELOGS_REFRESH_TIME)));
+    }
+
+    /**
+     * @return maximum number of live output lines kept by the client
+     */
+    public int getLivelogsMaxLines() {
+        return Math.max(1, Integer.parseInt(properties.get(LIVELOGS_MAX_LINES)));
+    }
+
+    /**
+     * @return number of characters of recent live output kept by the server for each watched job
+     */
+    public int getLivelogsBufferSize() {
+        return Math.max(1, Integer.parseInt(properties.get(LIVELOGS_BUFFER_SIZE)));
+    }
+
+    /**
+     * @return delay in millis after which a client which stopped reading live output is forgotten
+     */
+    public long getLivelogsSubscriberTimeout() {
+        return Math.max(1, Long.parseLong(properties.get(LIVELOGS_SUBSCRIBER_TIMEOUT)));
     }
 
     /**
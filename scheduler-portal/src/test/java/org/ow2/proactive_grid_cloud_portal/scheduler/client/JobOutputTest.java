@@ -37,6 +37,7 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.client;
 import static org.junit.Assert.assertEquals;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
@@ -92,6 +93,40 @@ public class JobOutputTest {
         assertEquals(1, jobOutput.getLines().size());
     }
 
+    @Test
+    public void lines_are_split_on_any_line_break_and_blank_lines_are_skipped() throws Exception {
+        JobOutput jobOutput = new JobOutput("1");
+        Task aTask = createTask(1, 42);
+
+        jobOutput.update(aTask, "first\r\nsecond\rthird\n \t\n\nfourth\n", OutputMode.LOG_OUT_ERR);
+
+        assertEquals(Arrays.asList("<nobr>first</nobr><br>", "<nobr>second</nobr><br>",
+                "<nobr>third</nobr><br>", "<nobr>fourth</nobr><br>"), jobOutput.getLines(aTask));
+    }
+
+    @Test
+    public void lines_are_escaped_and_only_the_leading_timestamp_is_colored() throws Exception {
+        JobOutput jobOutput = new JobOutput("1");
+        Task aTask = createTask(1, 42);
+
+        jobOutput.update(aTask, "[<a>] 'b' & \"c\" [d]\nno [timestamp]\n[unclosed", OutputMode.LOG_OUT_ERR);
+
+        assertEquals(Arrays.asList(
+                "<nobr><span style='color:gray;'>[&lt;a&gt;]</span> &#39;b&#39; &amp; &quot;c&quot; [d]</nobr><br>",
+                "<nobr>no [timestamp]</nobr><br>", "<nobr>[unclosed</nobr><br>"), jobOutput.getLines(aTask));
+    }
+
+    @Test
+    public void lines_with_remote_connection_are_returned() throws Exception {
+        JobOutput jobOutput = new JobOutput("1");
+
+        List<String> remoteVisuLines = jobOutput.update(createTask(1, 42),
+                "[...] output\n[...] PA_REMOTE_CONNECTION;1;1;vnc;host:5900\n[...] PA_REMOTE\n",
+                OutputMode.LOG_OUT_ERR);
+
+        assertEquals(Arrays.asList("[...] PA_REMOTE_CONNECTION;1;1;vnc;host:5900"), remoteVisuLines);
+    }
+
     private Task createTask(int id, int finishedTime) {
         Task firstTask = new Task();
         firstTask.setId(id);
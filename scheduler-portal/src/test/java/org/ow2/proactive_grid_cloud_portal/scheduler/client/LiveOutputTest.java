@@ -0,0 +1,42 @@
+package org.ow2.proactive_grid_cloud_portal.scheduler.client;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class LiveOutputTest {
+
+    @Test
+    public void lines_are_kept_until_capacity_is_reached() {
+        LiveOutput output = new LiveOutput(3);
+
+        output.add("a");
+        output.add("b");
+
+        assertEquals(Arrays.asList("a", "b"), output);
+        assertEquals(2, output.getAppendedCount());
+    }
+
+    @Test
+    public void oldest_lines_are_evicted_when_full() {
+        LiveOutput output = new LiveOutput(3);
+
+        for (String line : new String[] { "a", "b", "c", "d", "e" }) {
+            output.add(line);
+        }
+
+        assertEquals(Arrays.asList("c", "d", "e"), output);
+        assertEquals(5, output.getAppendedCount());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void lines_past_the_end_cannot_be_read() {
+        LiveOutput output = new LiveOutput(3);
+        output.add("a");
+
+        output.get(1);
+    }
+}
@@ -0,0 +1,64 @@
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.junit.Test;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+public class DownloadTaskResultServletTest {
+
+    @Test
+    public void partial_content_of_the_rest_server_is_copied() {
+        Response result = mock(Response.class);
+        when(result.getStatus()).thenReturn(206);
+        when(result.getHeaderString("Accept-Ranges")).thenReturn("bytes");
+        when(result.getHeaderString("Content-Range")).thenReturn("bytes 500-999/1000");
+        when(result.getLength()).thenReturn(500);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        DownloadTaskResultServlet.copyResultHeaders(result, response);
+
+        verify(response).setStatus(206);
+        verify(response).setHeader("Accept-Ranges", "bytes");
+        verify(response).setHeader("Content-Range", "bytes 500-999/1000");
+        verify(response).setHeader("Content-Length", "500");
+    }
+
+    @Test
+    public void ranges_are_not_advertised_when_the_rest_server_does_not() {
+        Response result = mock(Response.class);
+        when(result.getStatus()).thenReturn(200);
+        when(result.getLength()).thenReturn(1000);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        DownloadTaskResultServlet.copyResultHeaders(result, response);
+
+        verify(response).setStatus(200);
+        verify(response).setHeader("Accept-Ranges", "none");
+        verify(response).setHeader("Content-Length", "1000");
+        verify(response, never()).setHeader(eq("Content-Range"), anyString());
+    }
+
+    @Test
+    public void length_of_an_encoded_result_is_not_copied() {
+        Response result = mock(Response.class);
+        when(result.getStatus()).thenReturn(200);
+        when(result.getHeaderString(HttpHeaders.CONTENT_ENCODING)).thenReturn("gzip");
+        when(result.getLength()).thenReturn(1000);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        DownloadTaskResultServlet.copyResultHeaders(result, response);
+
+        verify(response, never()).setHeader(eq("Content-Length"), anyString());
+    }
+
+}
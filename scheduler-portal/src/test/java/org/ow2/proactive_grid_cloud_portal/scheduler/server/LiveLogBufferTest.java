@@ -0,0 +1,46 @@
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class LiveLogBufferTest {
+
+    @Test
+    public void output_is_read_from_the_given_position() {
+        LiveLogBuffer buffer = new LiveLogBuffer(8);
+
+        buffer.append("abc");
+        buffer.append("de");
+
+        assertEquals("abcde", buffer.readFrom(0));
+        assertEquals("de", buffer.readFrom(3));
+        assertEquals("", buffer.readFrom(5));
+        assertEquals(5, buffer.getEnd());
+    }
+
+    @Test
+    public void oldest_output_is_overwritten_when_the_ring_is_full() {
+        LiveLogBuffer buffer = new LiveLogBuffer(4);
+
+        buffer.append("abc");
+        buffer.append("def");
+
+        assertEquals(2, buffer.getStart());
+        assertEquals("cdef", buffer.readFrom(0));
+        assertEquals("ef", buffer.readFrom(4));
+    }
+
+    @Test
+    public void only_the_end_of_a_chunk_larger_than_the_ring_is_kept() {
+        LiveLogBuffer buffer = new LiveLogBuffer(4);
+
+        buffer.append("a");
+        buffer.append("bcdefgh");
+
+        assertEquals(8, buffer.getEnd());
+        assertEquals("efgh", buffer.readFrom(0));
+    }
+
+}
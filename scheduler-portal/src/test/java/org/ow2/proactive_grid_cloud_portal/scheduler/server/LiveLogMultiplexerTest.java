@@ -0,0 +1,151 @@
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+public class LiveLogMultiplexerTest {
+
+    private static final long TIMEOUT = 30000;
+
+    private LiveLogMultiplexer.LiveLogSource source;
+
+    private ScheduledExecutorService scheduler;
+
+    private ScheduledFuture<?> polling;
+
+    private LiveLogMultiplexer multiplexer;
+
+    @Before
+    public void setUp() {
+        source = mock(LiveLogMultiplexer.LiveLogSource.class);
+        scheduler = mock(ScheduledExecutorService.class);
+        polling = mock(ScheduledFuture.class);
+        doReturn(polling).when(scheduler).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(),
+                any(TimeUnit.class));
+
+        multiplexer = new LiveLogMultiplexer(source, scheduler, 1000, 16, TIMEOUT);
+    }
+
+    @Test
+    public void a_job_is_polled_once_for_all_its_subscribers() throws Exception {
+        assertEquals("", multiplexer.read("alice", "1"));
+        assertEquals("", multiplexer.read("bob", "1"));
+        Runnable poller = poller();
+
+        when(source.readLiveLog("alice", "1")).thenReturn("hello\n");
+        poller.run();
+
+        assertEquals("hello\n", multiplexer.read("alice", "1"));
+        assertEquals("hello\n", multiplexer.read("bob", "1"));
+        assertEquals("", multiplexer.read("alice", "1"));
+
+        verify(source, times(1)).readLiveLog(any(String.class), eq("1"));
+        verify(source, never()).readLiveLog(eq("bob"), any(String.class));
+    }
+
+    @Test
+    public void each_subscriber_reads_from_its_own_cursor() throws Exception {
+        multiplexer.read("alice", "1");
+        Runnable poller = poller();
+
+        when(source.readLiveLog("alice", "1")).thenReturn("one\n", "two\n");
+        poller.run();
+        assertEquals("one\n", multiplexer.read("alice", "1"));
+        poller.run();
+
+        // a late subscriber gets the buffered output
+        assertEquals("one\ntwo\n", multiplexer.read("bob", "1"));
+        assertEquals("two\n", multiplexer.read("alice", "1"));
+    }
+
+    @Test
+    public void polling_stops_once_the_finished_job_output_is_drained() throws Exception {
+        multiplexer.read("alice", "1");
+        Runnable poller = poller();
+
+        when(source.readLiveLog("alice", "1")).thenReturn("last words\n", "");
+        when(source.isJobFinished("alice", "1")).thenReturn(true);
+
+        poller.run();
+        verify(polling, never()).cancel(anyBoolean());
+
+        poller.run();
+        verify(polling).cancel(false);
+        assertEquals("last words\n", multiplexer.read("alice", "1"));
+    }
+
+    @Test
+    public void a_job_is_forgotten_when_nobody_reads_it() throws Exception {
+        multiplexer.read("alice", "1");
+        assertEquals(1, multiplexer.getWatchedJobsCount());
+
+        multiplexer.expireSubscribers(System.currentTimeMillis() + TIMEOUT + 1);
+
+        assertEquals(0, multiplexer.getWatchedJobsCount());
+        verify(polling).cancel(false);
+    }
+
+    @Test
+    public void a_polling_failure_is_reported_to_the_polling_subscriber() throws Exception {
+        multiplexer.read("alice", "1");
+        Runnable poller = poller();
+
+        when(source.readLiveLog("alice", "1")).thenThrow(new RestServerException("session expired"));
+        poller.run();
+
+        try {
+            multiplexer.read("alice", "1");
+            fail("Expected a RestServerException");
+        } catch (RestServerException e) {
+            assertEquals("session expired", e.getMessage());
+        }
+    }
+
+    @Test
+    public void output_is_not_buffered_twice_when_the_polling_session_changes() throws Exception {
+        multiplexer.read("alice", "1");
+        multiplexer.read("bob", "1");
+        Runnable poller = poller();
+
+        when(source.readLiveLog("alice", "1")).thenReturn("one\n").thenThrow(
+                new RestServerException("session expired"));
+        poller.run();
+        poller.run();
+
+        // the cursor of bob on the REST server is still at the beginning of the output
+        when(source.readLiveLog("bob", "1")).thenReturn("one\ntwo\n", "three\n");
+        poller.run();
+        poller.run();
+
+        assertEquals("one\ntwo\nthree\n", multiplexer.read("bob", "1"));
+    }
+
+    private Runnable poller() {
+        ArgumentCaptor<Runnable> poller = ArgumentCaptor.forClass(Runnable.class);
+        // the first scheduled task expires subscribers, the second one polls the job
+        verify(scheduler, times(2)).scheduleWithFixedDelay(poller.capture(), anyLong(), anyLong(),
+                any(TimeUnit.class));
+        return poller.getAllValues().get(1);
+    }
+
+}
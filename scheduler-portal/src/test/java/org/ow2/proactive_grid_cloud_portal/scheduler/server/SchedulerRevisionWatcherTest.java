@@ -0,0 +1,155 @@
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.server.SchedulerRevisionWatcher.RevisionListener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+public class SchedulerRevisionWatcherTest {
+
+    private static final long SESSION_TIMEOUT = 60000;
+
+    private SchedulerRevisionWatcher.RevisionSource source;
+
+    private ScheduledExecutorService scheduler;
+
+    private ScheduledFuture<?> polling;
+
+    private SchedulerRevisionWatcher watcher;
+
+    @Before
+    public void setUp() {
+        source = mock(SchedulerRevisionWatcher.RevisionSource.class);
+        scheduler = mock(ScheduledExecutorService.class);
+        polling = mock(ScheduledFuture.class);
+        doReturn(polling).when(scheduler).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(),
+                any(TimeUnit.class));
+
+        watcher = new SchedulerRevisionWatcher(source, scheduler, 1000, SESSION_TIMEOUT);
+    }
+
+    @Test
+    public void a_changed_revision_is_notified_at_once() throws Exception {
+        when(source.readRevision("alice")).thenReturn(12L);
+        RevisionListener listener = mock(RevisionListener.class);
+
+        watcher.awaitRevision("alice", 11, listener);
+
+        verify(listener).revisionChanged(12L);
+        assertEquals(0, watcher.getListenersCount());
+    }
+
+    @Test
+    public void a_listener_waits_while_the_revision_is_the_known_one() throws Exception {
+        when(source.readRevision("alice")).thenReturn(12L);
+        RevisionListener listener = mock(RevisionListener.class);
+
+        watcher.awaitRevision("alice", 12, listener);
+
+        verify(listener, never()).revisionChanged(anyLong());
+        assertEquals(1, watcher.getListenersCount());
+    }
+
+    @Test
+    public void the_revision_is_polled_once_for_all_the_sessions() throws Exception {
+        when(source.readRevision("alice")).thenReturn(12L);
+        when(source.readRevision("bob")).thenReturn(12L, 13L);
+        RevisionListener aliceListener = mock(RevisionListener.class);
+        RevisionListener bobListener = mock(RevisionListener.class);
+        watcher.awaitRevision("alice", 12, aliceListener);
+        watcher.awaitRevision("bob", 12, bobListener);
+
+        poller().run();
+
+        // only the session which waited last is used for polling
+        verify(source, times(1)).readRevision("alice");
+        verify(aliceListener).revisionChanged(13L);
+        verify(bobListener).revisionChanged(13L);
+        assertEquals(0, watcher.getListenersCount());
+    }
+
+    @Test
+    public void a_cancelled_listener_is_not_notified() throws Exception {
+        when(source.readRevision("alice")).thenReturn(12L, 13L);
+        RevisionListener listener = mock(RevisionListener.class);
+        watcher.awaitRevision("alice", 12, listener);
+
+        watcher.cancel(listener);
+        poller().run();
+
+        verify(listener, never()).revisionChanged(anyLong());
+    }
+
+    @Test(expected = RestServerException.class)
+    public void an_invalid_session_cannot_wait() throws Exception {
+        when(source.readRevision("alice")).thenThrow(new RestServerException(401, "unauthorized"));
+
+        watcher.awaitRevision("alice", 12, mock(RevisionListener.class));
+    }
+
+    @Test
+    public void a_session_failing_to_read_the_revision_is_forgotten() throws Exception {
+        when(source.readRevision("alice")).thenReturn(12L).thenThrow(new RestServerException("session expired"));
+        watcher.awaitRevision("alice", 11, mock(RevisionListener.class));
+
+        poller().run();
+
+        assertEquals(0, watcher.getSessionsCount());
+    }
+
+    @Test
+    public void polling_stops_when_nobody_waits() throws Exception {
+        when(source.readRevision("alice")).thenReturn(12L);
+        watcher.awaitRevision("alice", 11, mock(RevisionListener.class));
+        watcher.forget("alice");
+
+        poller().run();
+
+        verify(polling).cancel(false);
+        verify(source, times(1)).readRevision("alice");
+    }
+
+    @Test
+    public void the_revision_is_known_for_waiting_sessions_only() throws Exception {
+        when(source.readRevision("alice")).thenReturn(12L);
+        watcher.awaitRevision("alice", 12, mock(RevisionListener.class));
+
+        assertEquals(Long.valueOf(12L), watcher.getRevision("alice"));
+        assertNull(watcher.getRevision("bob"));
+    }
+
+    @Test
+    public void waiting_listeners_are_notified_on_shutdown() throws Exception {
+        when(source.readRevision("alice")).thenReturn(12L);
+        RevisionListener listener = mock(RevisionListener.class);
+        watcher.awaitRevision("alice", 12, listener);
+
+        watcher.shutdown();
+
+        verify(listener).revisionChanged(12L);
+    }
+
+    private Runnable poller() {
+        ArgumentCaptor<Runnable> poller = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleWithFixedDelay(poller.capture(), anyLong(), anyLong(), any(TimeUnit.class));
+        return poller.getValue();
+    }
+
+}
@@ -34,18 +34,38 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
 import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskStatus;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
 
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
+import javax.ws.rs.WebApplicationException;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -80,6 +100,145 @@ public class SchedulerServiceImplTest {
         assertEquals("x.x.x", SchedulerConfig.get().getVersion());
     }
 
+    @Test
+    public void testRestClientProxyIsReusedUntilRestUrlChanges() throws ServletException {
+        setUp();
+
+        RestClient proxy = service.getRestClientProxy();
+        assertSame(proxy, service.getRestClientProxy());
+
+        SchedulerConfig.get().set(SchedulerConfig.REST_URL, "http://otherhost:8080/rest");
+        RestClient rebuiltProxy = service.getRestClientProxy();
+
+        assertNotSame(proxy, rebuiltProxy);
+        assertSame(rebuiltProxy, service.getRestClientProxy());
+    }
+
+    @Test
+    public void testStartedTasksAreReadAndSortedByFinishTime() throws Exception {
+        JSONArray taskStates = new JSONArray("["
+                + taskState(1, "running", "RUNNING", -1) + ","
+                + taskState(2, "pending", "PENDING", -1) + ","
+                + taskState(3, "last", "FINISHED", 2000) + ","
+                + taskState(4, "first", "FAULTY", 1000) + ","
+                + taskState(5, "skipped", "SKIPPED", -1) + "]");
+
+        List<Task> tasks = SchedulerServiceImpl.readStartedTasks(taskStates);
+
+        assertEquals(3, tasks.size());
+        assertEquals("running", tasks.get(0).getName());
+        assertEquals("first", tasks.get(1).getName());
+        assertEquals(TaskStatus.FAULTY, tasks.get(1).getStatus());
+        assertEquals(Long.valueOf(4), tasks.get(1).getId());
+        assertEquals(42, tasks.get(1).getJobId());
+        assertEquals("last", tasks.get(2).getName());
+    }
+
+    @Test
+    public void testDashboardStateHoldsOnlyRequestedAndChangedParts() throws Exception {
+        setUp();
+        SchedulerServiceImpl spiedService = spy(service);
+        doReturn("\"STARTED\"").when(spiedService).getSchedulerStatus("sid");
+        doReturn(12L).when(spiedService).schedulerStateRevision("sid");
+        doReturn("[{\"username\":\"admin\"}]").when(spiedService).getSchedulerUsers("sid");
+
+        JSONObject unchanged = new JSONObject(spiedService.getDashboardState("sid", 12, false, false));
+        assertEquals("STARTED", unchanged.getString("status"));
+        assertFalse(unchanged.has("revision"));
+        assertFalse(unchanged.has("users"));
+        assertFalse(unchanged.has("statistics"));
+
+        JSONObject changed = new JSONObject(spiedService.getDashboardState("sid", 11, true, false));
+        assertEquals(12, changed.getLong("revision"));
+        assertEquals("admin", changed.getJSONArray("users").getJSONObject(0).getString("username"));
+        assertFalse(changed.has("status"));
+        verify(spiedService, never()).getStatistics("sid");
+    }
+
+    @Test
+    public void testDashboardStateIsSentAgainToAClientHoldingNoPart() throws Exception {
+        setUp();
+        SchedulerServiceImpl spiedService = spy(service);
+        doReturn("\"STARTED\"").when(spiedService).getSchedulerStatus("sid");
+        doReturn(12L).when(spiedService).schedulerStateRevision("sid");
+        doReturn("[{\"username\":\"admin\"}]").when(spiedService).getSchedulerUsers("sid");
+
+        spiedService.getDashboardState("sid", 12, true, false);
+        JSONObject unchanged = new JSONObject(spiedService.getDashboardState("sid", 12, true, false));
+        assertEquals(0, unchanged.length());
+
+        JSONObject all = new JSONObject(spiedService.getDashboardState("sid", -1, true, false));
+        assertEquals("STARTED", all.getString("status"));
+        assertEquals(12, all.getLong("revision"));
+        assertEquals("admin", all.getJSONArray("users").getJSONObject(0).getString("username"));
+    }
+
+    @Test
+    public void testDashboardStateHoldsTheStatusWhenOtherPartsFail() throws Exception {
+        setUp();
+        SchedulerServiceImpl spiedService = spy(service);
+        doReturn("\"STARTED\"").when(spiedService).getSchedulerStatus("sid");
+        doReturn(12L).when(spiedService).schedulerStateRevision("sid");
+        doThrow(new RestServerException(500, "users unavailable")).when(spiedService).getSchedulerUsers("sid");
+
+        JSONObject state = new JSONObject(spiedService.getDashboardState("sid", 11, true, false));
+
+        assertEquals("STARTED", state.getString("status"));
+        assertEquals(12, state.getLong("revision"));
+        assertFalse(state.has("users"));
+        assertEquals(1, state.getJSONArray("failed").length());
+        assertEquals("users", state.getJSONArray("failed").getString(0));
+    }
+
+    @Test(expected = RestServerException.class)
+    public void testDashboardStateFailsWithoutTheStatus() throws Exception {
+        setUp();
+        SchedulerServiceImpl spiedService = spy(service);
+        doThrow(new RestServerException(401, "unauthorized")).when(spiedService).getSchedulerStatus("sid");
+        doReturn(12L).when(spiedService).schedulerStateRevision("sid");
+
+        spiedService.getDashboardState("sid", 11, false, false);
+    }
+
+    @Test
+    public void testBulkJobActionReportsTheOutcomeOfEachJob() throws Exception {
+        setUp();
+        SchedulerServiceImpl spiedService = spy(service);
+        RestClient restClient = mock(RestClient.class);
+        doReturn(restClient).when(spiedService).getRestClientProxy();
+        when(restClient.killJob("sid", "1")).thenReturn(stream("true"));
+        when(restClient.killJob("sid", "2")).thenThrow(new WebApplicationException(403));
+        when(restClient.killJob("sid", "3")).thenReturn(stream("true"));
+
+        Map<Integer, Boolean> outcome = spiedService.killJobs("sid", Arrays.asList(1, 2, 3));
+
+        assertEquals(3, outcome.size());
+        assertEquals(Boolean.TRUE, outcome.get(1));
+        assertEquals(Boolean.FALSE, outcome.get(2));
+        assertEquals(Boolean.TRUE, outcome.get(3));
+    }
+
+    @Test(expected = RestServerException.class)
+    public void testBulkJobActionReportsAnExpiredSession() throws Exception {
+        setUp();
+        SchedulerServiceImpl spiedService = spy(service);
+        RestClient restClient = mock(RestClient.class);
+        doReturn(restClient).when(spiedService).getRestClientProxy();
+        when(restClient.killJob("sid", "1")).thenThrow(new WebApplicationException(401));
+
+        spiedService.killJobs("sid", Arrays.asList(1));
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String taskState(long id, String name, String status, long finishedTime) {
+        return "{\"name\":\"" + name + "\",\"taskInfo\":{\"taskId\":{\"id\":" + id + "},"
+                + "\"jobId\":{\"id\":42},\"taskStatus\":\"" + status + "\","
+                + "\"finishedTime\":" + finishedTime + "}}";
+    }
+
     private String resourceAsFilePath(String resourcePath) {
         URL resource = getClass().getResource(resourcePath);
         try {
@@ -0,0 +1,41 @@
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobUsage;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class UsageJsonReaderTest {
+
+    private static final String TASK = "{\"taskId\":\"t1\",\"taskName\":\"task\",\"taskStartTime\":1,"
+        + "\"taskFinishedTime\":2,\"taskExecutionDuration\":1,\"taskNodeNumber\":1}";
+
+    @Test
+    public void job_usages_are_handed_over_one_by_one() throws Exception {
+        String json = " [ " + job("1", "a {weird} \\\"name\\\" [") + " ,\n" + job("2", "b") + " ] ";
+        final List<JobUsage> jobUsages = new ArrayList<>();
+
+        UsageJsonReader.readJobUsages(new StringReader(json), new UsageJsonReader.JobUsageHandler() {
+            @Override
+            public void handle(JobUsage jobUsage) {
+                jobUsages.add(jobUsage);
+            }
+        });
+
+        assertEquals(2, jobUsages.size());
+        assertEquals("a {weird} \"name\" [", jobUsages.get(0).getJobName());
+        assertEquals(1, jobUsages.get(0).getTaskUsages().size());
+        assertEquals("2", jobUsages.get(1).getJobId());
+    }
+
+    private String job(String id, String name) {
+        return "{\"owner\":\"admin\",\"project\":\"\",\"jobId\":\"" + id + "\",\"jobName\":\"" + name +
+            "\",\"jobDuration\":10,\"taskUsages\":[" + TASK + "]}";
+    }
+
+}